@@ -0,0 +1,71 @@
+package com.github.mstawowiak.commons.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of enabled {@link ContextLogger} calls with context passed per call and bound by
+ * {@link ContextLogger#withContext(String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoundContextLoggerBenchmark {
+
+    private ContextLogger logger;
+    private BoundContextLogger boundLogger;
+
+    private String context;
+    private Object arg;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+
+        AppenderBase<ILoggingEvent> appender = new AppenderBase<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                event.getFormattedMessage();
+            }
+        };
+        appender.setContext(loggerContext);
+        appender.start();
+
+        Logger logbackLogger = loggerContext.getLogger(BoundContextLoggerBenchmark.class);
+        logbackLogger.setLevel(Level.INFO);
+        logbackLogger.setAdditive(false);
+        logbackLogger.addAppender(appender);
+
+        context = "tenant-0042/job-2017-11-05";
+        arg = 42;
+        logger = new ContextLogger(logbackLogger);
+        boundLogger = logger.withContext(context);
+    }
+
+    @Benchmark
+    public void contextPerCall() {
+        logger.info(context, "processed record {}", arg);
+    }
+
+    @Benchmark
+    public void boundContext() {
+        boundLogger.info("processed record {}", arg);
+    }
+}
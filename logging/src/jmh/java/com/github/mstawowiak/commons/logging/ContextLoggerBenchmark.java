@@ -0,0 +1,67 @@
+package com.github.mstawowiak.commons.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link ContextLogger} calls on a disabled level.
+ *
+ * Run with the GC profiler ({@code -prof gc}), {@code gc.alloc.rate.norm} is expected to be 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextLoggerBenchmark {
+
+    private ContextLogger logger;
+
+    private String context;
+    private Object arg1;
+    private Object arg2;
+
+    @Setup
+    public void setUp() {
+        Logger logbackLogger = new LoggerContext().getLogger(ContextLoggerBenchmark.class);
+        logbackLogger.setLevel(Level.INFO);
+
+        logger = new ContextLogger(logbackLogger);
+        context = "request-42";
+        arg1 = "value";
+        arg2 = 42;
+    }
+
+    @Benchmark
+    public void disabledMessage() {
+        logger.debug(context, "message");
+    }
+
+    @Benchmark
+    public void disabledOneArg() {
+        logger.debug(context, "message {}", arg1);
+    }
+
+    @Benchmark
+    public void disabledTwoArgs() {
+        logger.debug(context, "message {} {}", arg1, arg2);
+    }
+
+    @Benchmark
+    public void disabledTrace() {
+        logger.trace(context, "message {} {}", arg1, arg2);
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.mstawowiak.commons.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link LogEventBuilder} against varargs overloads of {@link ContextLogger} with three arguments.
+ *
+ * Run with the GC profiler ({@code -prof gc}): disabled builder calls are expected to allocate 0 B/op,
+ * enabled ones only the argument array kept by the logging event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogEventBuilderBenchmark {
+
+    private ContextLogger logger;
+
+    private String context;
+    private Object arg1;
+    private Object arg2;
+    private Object arg3;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+
+        AppenderBase<ILoggingEvent> appender = new AppenderBase<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                // discard
+            }
+        };
+        appender.setContext(loggerContext);
+        appender.start();
+
+        Logger logbackLogger = loggerContext.getLogger(LogEventBuilderBenchmark.class);
+        logbackLogger.setLevel(Level.INFO);
+        logbackLogger.setAdditive(false);
+        logbackLogger.addAppender(appender);
+
+        logger = new ContextLogger(logbackLogger);
+        context = "request-42";
+        arg1 = "value";
+        arg2 = 42;
+        arg3 = Boolean.TRUE;
+    }
+
+    @Benchmark
+    public void disabledVarargs() {
+        logger.debug(context, "message {} {} {}", arg1, arg2, arg3);
+    }
+
+    @Benchmark
+    public void disabledBuilder() {
+        logger.atDebug(context).arg(arg1).arg(arg2).arg(arg3).log("message {} {} {}");
+    }
+
+    @Benchmark
+    public void enabledVarargs() {
+        logger.info(context, "message {} {} {}", arg1, arg2, arg3);
+    }
+
+    @Benchmark
+    public void enabledBuilder() {
+        logger.atInfo(context).arg(arg1).arg(arg2).arg(arg3).log("message {} {} {}");
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.mstawowiak.commons.logging;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of obtaining loggers by {@link ContextLoggerFactory} and {@link SimpleLoggerFactory}
+ * compared to resolving caller from the stack trace of {@link Throwable} and creating new {@link ContextLogger}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerFactoryBenchmark {
+
+    @Benchmark
+    public ContextLogger throwableContextLogger() {
+        Throwable throwable = new Throwable();
+        StackTraceElement caller = throwable.getStackTrace()[0];
+
+        return new ContextLogger(LoggerFactory.getLogger(caller.getClassName()));
+    }
+
+    @Benchmark
+    public ContextLogger contextLoggerFactory() {
+        return ContextLoggerFactory.getLogger();
+    }
+
+    @Benchmark
+    public Logger throwableSimpleLogger() {
+        Throwable throwable = new Throwable();
+        StackTraceElement caller = throwable.getStackTrace()[0];
+
+        return LoggerFactory.getLogger(caller.getClassName());
+    }
+
+    @Benchmark
+    public Logger simpleLoggerFactory() {
+        return SimpleLoggerFactory.getLogger();
+    }
+}
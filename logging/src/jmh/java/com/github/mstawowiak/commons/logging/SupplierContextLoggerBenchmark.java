@@ -0,0 +1,74 @@
+package com.github.mstawowiak.commons.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link ContextLogger} calls with eagerly computed and supplied arguments on a disabled level.
+ *
+ * Run with the GC profiler ({@code -prof gc}), supplier variants are expected to allocate 0 B/op
+ * although lambdas capture benchmark state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SupplierContextLoggerBenchmark {
+
+    private ContextLogger logger;
+
+    private String context;
+    private int[] values;
+
+    @Setup
+    public void setUp() {
+        Logger logbackLogger = new LoggerContext().getLogger(SupplierContextLoggerBenchmark.class);
+        logbackLogger.setLevel(Level.INFO);
+
+        logger = new ContextLogger(logbackLogger);
+        context = "request-42";
+        values = new int[] {1, 2, 3, 4, 5, 6, 7, 8};
+    }
+
+    @Benchmark
+    public void eagerArgument() {
+        logger.debug(context, "values {}", expensiveToString(values));
+    }
+
+    @Benchmark
+    public void suppliedArgument() {
+        logger.debug(context, "values {}", () -> expensiveToString(values));
+    }
+
+    @Benchmark
+    public void suppliedTwoArguments() {
+        logger.debug(context, "values {} {}", () -> expensiveToString(values), () -> values.length);
+    }
+
+    @Benchmark
+    public void suppliedContext() {
+        logger.debug(() -> context + '/' + values.length, "values {}", () -> expensiveToString(values));
+    }
+
+    private static String expensiveToString(int[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int value : values) {
+            sb.append(value).append(',');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.mstawowiak.commons.logging.logback.appender;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+import ch.qos.logback.core.util.FileSize;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link MappedFileAppender} against Logback {@link RollingFileAppender}, both with
+ * the same pattern encoder and 100MB files. Each event is about 120 bytes, so MB/s is ops/ms * 0.12.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedFileAppenderBenchmark {
+
+    private static final String PATTERN = "%d{ISO8601} %-5level [%thread] %logger - %msg%n";
+
+    @Param({"mapped", "rolling"})
+    private String appenderType;
+
+    private Path directory;
+    private Appender<ILoggingEvent> appender;
+    private ILoggingEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mapped-file-appender-benchmark");
+
+        LoggerContext loggerContext = new LoggerContext();
+        Logger logger = loggerContext.getLogger("com.example.order.OrderService");
+        event = new LoggingEvent(Logger.class.getName(), logger, ch.qos.logback.classic.Level.INFO,
+                "Order ORD-2017-000042 for customer customer-1234 accepted", null, null);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        appender = "mapped".equals(appenderType)
+                ? mappedFileAppender(loggerContext, encoder)
+                : rollingFileAppender(loggerContext, encoder);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        appender.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        appender.doAppend(event);
+    }
+
+    private Appender<ILoggingEvent> mappedFileAppender(LoggerContext loggerContext,
+            PatternLayoutEncoder encoder) {
+        MappedFileAppender mappedFileAppender = new MappedFileAppender();
+        mappedFileAppender.setContext(loggerContext);
+        mappedFileAppender.setName("mapped");
+        mappedFileAppender.setEncoder(encoder);
+        mappedFileAppender.setDirectory(directory.toString());
+        mappedFileAppender.setMaxFileSize(FileSize.valueOf("100MB"));
+        mappedFileAppender.start();
+        return mappedFileAppender;
+    }
+
+    private Appender<ILoggingEvent> rollingFileAppender(LoggerContext loggerContext,
+            PatternLayoutEncoder encoder) {
+        RollingFileAppender<ILoggingEvent> rollingFileAppender = new RollingFileAppender<>();
+        rollingFileAppender.setContext(loggerContext);
+        rollingFileAppender.setName("rolling");
+        rollingFileAppender.setEncoder(encoder);
+        rollingFileAppender.setFile(directory.resolve("application.log").toString());
+
+        SizeAndTimeBasedRollingPolicy<ILoggingEvent> policy = new SizeAndTimeBasedRollingPolicy<>();
+        policy.setContext(loggerContext);
+        policy.setParent(rollingFileAppender);
+        policy.setFileNamePattern(directory.resolve("application-%d{yyyy-MM-dd}.%i.log").toString());
+        policy.setMaxFileSize(FileSize.valueOf("100MB"));
+        policy.start();
+
+        rollingFileAppender.setRollingPolicy(policy);
+        rollingFileAppender.start();
+        return rollingFileAppender;
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.mstawowiak.commons.logging.logback.encoder;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link JsonEncoder} against {@link PatternLayoutEncoder} with equivalent content,
+ * encoding a fresh event on each call as an appender does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JsonEncoderBenchmark {
+
+    private static final String PATTERN = "%d{ISO8601} %-5level [%thread] %logger [%X{context}] - %msg%n";
+
+    private Logger logger;
+    private JsonEncoder jsonEncoder;
+    private PatternLayoutEncoder patternLayoutEncoder;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+        logger = loggerContext.getLogger("com.example.order.OrderService");
+
+        jsonEncoder = new JsonEncoder();
+        jsonEncoder.setContext(loggerContext);
+        jsonEncoder.start();
+
+        patternLayoutEncoder = new PatternLayoutEncoder();
+        patternLayoutEncoder.setContext(loggerContext);
+        patternLayoutEncoder.setPattern(PATTERN);
+        patternLayoutEncoder.start();
+    }
+
+    @Benchmark
+    public byte[] jsonEncoder() {
+        return jsonEncoder.encode(event());
+    }
+
+    @Benchmark
+    public byte[] patternLayoutEncoder() {
+        return patternLayoutEncoder.encode(event());
+    }
+
+    private LoggingEvent event() {
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.INFO,
+                "Order {} for customer {} accepted, total: {}", null,
+                new Object[]{"ORD-2017-000042", "customer-1234", 1999L});
+        event.setMDCPropertyMap(Collections.singletonMap(ContextLogger.CONTEXT_MDC_KEY, "request-8f14e45f"));
+        return event;
+    }
+}
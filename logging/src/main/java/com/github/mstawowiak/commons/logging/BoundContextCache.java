@@ -0,0 +1,85 @@
+package com.github.mstawowiak.commons.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of {@link BoundContextLogger} views of one logger, evicting approximately least recently used views.
+ *
+ * Lookups do not lock. Clock advances only when a view is added, a hit marks the view with the current clock
+ * and writes only when the mark changes, so hot views are read-only. When the cache grows above
+ * {@code maxSize}, views with the oldest mark are evicted, views used in the same period are equal.
+ */
+final class BoundContextCache {
+
+    private final ConcurrentMap<String, Entry> views = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final int maxSize;
+
+    private volatile BoundContextLogger noContextView;
+
+    BoundContextCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    BoundContextLogger get(ContextLogger owner, String context) {
+        if (context == null) {
+            BoundContextLogger view = noContextView;
+            if (view == null) {
+                view = new BoundContextLogger(owner, null);
+                noContextView = view;
+            }
+            return view;
+        }
+
+        Entry entry = views.get(context);
+        if (entry != null) {
+            long now = clock.get();
+            if (entry.used != now) {
+                entry.used = now;
+            }
+            return entry.view;
+        }
+
+        BoundContextLogger view = new BoundContextLogger(owner, context);
+        Entry added = new Entry(view, clock.getAndIncrement());
+        Entry existing = views.putIfAbsent(view.getContext(), added);
+        if (existing != null) {
+            return existing.view;
+        }
+
+        while (views.size() > maxSize) {
+            evictOldest();
+        }
+        return view;
+    }
+
+    int size() {
+        return views.size();
+    }
+
+    private void evictOldest() {
+        Map.Entry<String, Entry> oldest = null;
+        for (Map.Entry<String, Entry> candidate : views.entrySet()) {
+            if (oldest == null || candidate.getValue().used < oldest.getValue().used) {
+                oldest = candidate;
+            }
+        }
+        if (oldest != null) {
+            views.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private static final class Entry {
+
+        private final BoundContextLogger view;
+        private volatile long used;
+
+        Entry(BoundContextLogger view, long used) {
+            this.view = view;
+            this.used = used;
+        }
+    }
+}
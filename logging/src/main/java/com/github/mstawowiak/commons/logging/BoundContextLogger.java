@@ -0,0 +1,233 @@
+package com.github.mstawowiak.commons.logging;
+
+import org.slf4j.spi.LocationAwareLogger;
+
+/**
+ * View of {@link ContextLogger} bound to one context, returned by {@link ContextLogger#withContext(String)}.
+ *
+ * Context and its message prefix are interned once. Plain loggers in {@link ContextMode#MESSAGE} mode
+ * get the prefix directly, decorated loggers and {@link ContextMode#MDC} mode get the context as usual.
+ */
+@SuppressWarnings({"PMD.ExcessivePublicCount", "PMD.TooManyMethods"})
+public final class BoundContextLogger {
+
+    private static final String FQCN = BoundContextLogger.class.getName();
+
+    private final ContextLogger owner; //NOPMD - LoggerIsNotStaticFinal
+    private final String context;
+    private final String prefix;
+    private final boolean prefixed;
+
+    BoundContextLogger(ContextLogger owner, String context) {
+        this.owner = owner;
+        this.context = context == null ? null : context.intern();
+        this.prefix = context == null ? null : ("[" + context + "] ").intern();
+        this.prefixed = owner.getClass() == ContextLogger.class && owner.getContextMode() == ContextMode.MESSAGE;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public ContextLogger getLogger() {
+        return owner;
+    }
+
+    public boolean isTraceEnabled() {
+        return owner.isEnabled(LocationAwareLogger.TRACE_INT, null, context);
+    }
+
+    public void trace(String string) {
+        if (owner.isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(LocationAwareLogger.TRACE_INT, string, null, null);
+        }
+    }
+
+    public void trace(String string, Object obj) {
+        if (owner.isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(LocationAwareLogger.TRACE_INT, string, new Object[]{obj}, null);
+        }
+    }
+
+    public void trace(String string, Object obj, Object obj1) {
+        if (owner.isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(LocationAwareLogger.TRACE_INT, string, new Object[]{obj, obj1}, null);
+        }
+    }
+
+    public void trace(String string, Object... os) {
+        if (owner.isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(LocationAwareLogger.TRACE_INT, string, os, null);
+        }
+    }
+
+    public void trace(String string, Throwable thrwbl) {
+        if (owner.isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(LocationAwareLogger.TRACE_INT, string, null, thrwbl);
+        }
+    }
+
+    public LogEventBuilder atTrace() {
+        return owner.at(LocationAwareLogger.TRACE_INT, context);
+    }
+
+    public boolean isDebugEnabled() {
+        return owner.isEnabled(LocationAwareLogger.DEBUG_INT, null, context);
+    }
+
+    public void debug(String string) {
+        if (owner.isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(LocationAwareLogger.DEBUG_INT, string, null, null);
+        }
+    }
+
+    public void debug(String string, Object obj) {
+        if (owner.isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(LocationAwareLogger.DEBUG_INT, string, new Object[]{obj}, null);
+        }
+    }
+
+    public void debug(String string, Object obj, Object obj1) {
+        if (owner.isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(LocationAwareLogger.DEBUG_INT, string, new Object[]{obj, obj1}, null);
+        }
+    }
+
+    public void debug(String string, Object... os) {
+        if (owner.isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(LocationAwareLogger.DEBUG_INT, string, os, null);
+        }
+    }
+
+    public void debug(String string, Throwable thrwbl) {
+        if (owner.isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(LocationAwareLogger.DEBUG_INT, string, null, thrwbl);
+        }
+    }
+
+    public LogEventBuilder atDebug() {
+        return owner.at(LocationAwareLogger.DEBUG_INT, context);
+    }
+
+    public boolean isInfoEnabled() {
+        return owner.isEnabled(LocationAwareLogger.INFO_INT, null, context);
+    }
+
+    public void info(String string) {
+        if (owner.isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(LocationAwareLogger.INFO_INT, string, null, null);
+        }
+    }
+
+    public void info(String string, Object obj) {
+        if (owner.isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(LocationAwareLogger.INFO_INT, string, new Object[]{obj}, null);
+        }
+    }
+
+    public void info(String string, Object obj, Object obj1) {
+        if (owner.isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(LocationAwareLogger.INFO_INT, string, new Object[]{obj, obj1}, null);
+        }
+    }
+
+    public void info(String string, Object... os) {
+        if (owner.isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(LocationAwareLogger.INFO_INT, string, os, null);
+        }
+    }
+
+    public void info(String string, Throwable thrwbl) {
+        if (owner.isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(LocationAwareLogger.INFO_INT, string, null, thrwbl);
+        }
+    }
+
+    public LogEventBuilder atInfo() {
+        return owner.at(LocationAwareLogger.INFO_INT, context);
+    }
+
+    public boolean isWarnEnabled() {
+        return owner.isEnabled(LocationAwareLogger.WARN_INT, null, context);
+    }
+
+    public void warn(String string) {
+        if (owner.isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(LocationAwareLogger.WARN_INT, string, null, null);
+        }
+    }
+
+    public void warn(String string, Object obj) {
+        if (owner.isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(LocationAwareLogger.WARN_INT, string, new Object[]{obj}, null);
+        }
+    }
+
+    public void warn(String string, Object obj, Object obj1) {
+        if (owner.isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(LocationAwareLogger.WARN_INT, string, new Object[]{obj, obj1}, null);
+        }
+    }
+
+    public void warn(String string, Object... os) {
+        if (owner.isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(LocationAwareLogger.WARN_INT, string, os, null);
+        }
+    }
+
+    public void warn(String string, Throwable thrwbl) {
+        if (owner.isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(LocationAwareLogger.WARN_INT, string, null, thrwbl);
+        }
+    }
+
+    public LogEventBuilder atWarn() {
+        return owner.at(LocationAwareLogger.WARN_INT, context);
+    }
+
+    public boolean isErrorEnabled() {
+        return owner.isEnabled(LocationAwareLogger.ERROR_INT, null, context);
+    }
+
+    public void error(String string) {
+        if (owner.isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(LocationAwareLogger.ERROR_INT, string, null, null);
+        }
+    }
+
+    public void error(String string, Object obj) {
+        if (owner.isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(LocationAwareLogger.ERROR_INT, string, new Object[]{obj}, null);
+        }
+    }
+
+    public void error(String string, Object obj, Object obj1) {
+        if (owner.isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(LocationAwareLogger.ERROR_INT, string, new Object[]{obj, obj1}, null);
+        }
+    }
+
+    public void error(String string, Object... os) {
+        if (owner.isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(LocationAwareLogger.ERROR_INT, string, os, null);
+        }
+    }
+
+    public void error(String string, Throwable thrwbl) {
+        if (owner.isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(LocationAwareLogger.ERROR_INT, string, null, thrwbl);
+        }
+    }
+
+    public LogEventBuilder atError() {
+        return owner.at(LocationAwareLogger.ERROR_INT, context);
+    }
+
+    private void log(int level, String string, Object[] args, Throwable thrwbl) {
+        if (prefixed) {
+            owner.writePrefixed(FQCN, level, prefix, string, args, thrwbl);
+        } else {
+            owner.logFrom(FQCN, null, level, context, string, args, thrwbl);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.mstawowiak.commons.logging;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Resolves name of the class from which logger factory was called, without filling in the whole stack trace.
+ *
+ * Uses {@code StackWalker} on Java 9+ and class context of {@link SecurityManager} on Java 8.
+ */
+final class CallerResolver {
+
+    private static final Set<String> FACTORY_CLASSES = new HashSet<>(Arrays.asList(
+            CallerResolver.class.getName(),
+            ContextLoggerFactory.class.getName(),
+            SimpleLoggerFactory.class.getName()));
+
+    private static final Supplier<String> RESOLVER = createResolver();
+
+    static String callerClassName() {
+        return RESOLVER.get();
+    }
+
+    static boolean isFactoryClass(String className) {
+        int innerClassIndex = className.indexOf('$');
+        return FACTORY_CLASSES.contains(innerClassIndex < 0 ? className : className.substring(0, innerClassIndex));
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private static Supplier<String> createResolver() {
+        try {
+            return stackWalkerResolver();
+        } catch (ReflectiveOperationException ex) {
+            // Java 8, StackWalker is not available
+        }
+        try {
+            return new ClassContextResolver();
+        } catch (SecurityException | UnsupportedOperationException ex) {
+            return CallerResolver::stackTraceCallerClassName;
+        }
+    }
+
+    @SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.AvoidThrowingRawExceptionTypes"})
+    private static Supplier<String> stackWalkerResolver() throws ReflectiveOperationException {
+        Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+        Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+
+        Method getInstance = walkerClass.getMethod("getInstance");
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        MethodHandle walk = lookup.findVirtual(walkerClass, "walk",
+                MethodType.methodType(Object.class, Function.class)).bindTo(getInstance.invoke(null));
+        MethodHandle getClassName = lookup.findVirtual(frameClass, "getClassName",
+                MethodType.methodType(String.class));
+
+        Function<Stream<?>, String> firstCaller = frames -> frames
+                .map(frame -> {
+                    try {
+                        return (String) getClassName.invoke(frame);
+                    } catch (Throwable ex) {
+                        throw new IllegalStateException("Failed to read class name of stack frame", ex);
+                    }
+                })
+                .filter(className -> !isFactoryClass(className))
+                .findFirst()
+                .orElse(null);
+
+        return () -> {
+            try {
+                return (String) walk.invoke(firstCaller);
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Failed to walk the stack", ex);
+            }
+        };
+    }
+
+    private static String stackTraceCallerClassName() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!isFactoryClass(element.getClassName())) {
+                return element.getClassName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads classes on the stack without creating {@link StackTraceElement}s.
+     */
+    private static final class ClassContextResolver extends SecurityManager implements Supplier<String> {
+
+        @Override
+        public String get() {
+            for (Class<?> clazz : getClassContext()) {
+                if (!isFactoryClass(clazz.getName())) {
+                    return clazz.getName();
+                }
+            }
+            return null;
+        }
+    }
+
+    private CallerResolver() {
+    }
+}
@@ -1,70 +1,213 @@
 package com.github.mstawowiak.commons.logging;
 
+import java.util.function.Supplier;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
 import org.slf4j.Marker;
+import org.slf4j.spi.LocationAwareLogger;
 
 /**
  * Logger for log messages with context on the beginning of message content.
+ *
+ * Level is checked before the message is built, so calls on a disabled level do not allocate.
+ * {@link Supplier} overloads evaluate context, message and arguments only after the level check passes.
+ * Fluent {@link LogEventBuilder} ({@link #atInfo(String)} etc.) avoids varargs arrays on a disabled level.
+ * Long-lived contexts can be bound once by {@link #withContext(String)}.
+ * In {@link ContextMode#MDC} mode context is put into MDC under {@link #CONTEXT_MDC_KEY}
+ * for the time of the call and message pattern is left unchanged.
  */
 @SuppressWarnings({"PMD.GodClass", "PMD.ExcessivePublicCount", "PMD.TooManyMethods"})
 public class ContextLogger {
 
+    public static final String CONTEXT_MDC_KEY = "context";
+
+    private static final String FQCN = ContextLogger.class.getName();
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    private static final int BUILDER_CAPACITY = 256;
+    private static final int MAX_BUILDER_CAPACITY = 8192;
+
+    private static final ThreadLocal<StringBuilder> MESSAGE_BUILDER =
+            ThreadLocal.withInitial(() -> new StringBuilder(BUILDER_CAPACITY));
+
+    private static final ThreadLocal<String> CALLER_BOUNDARY = new ThreadLocal<>();
+
+    private static final int MAX_BOUND_LOGGERS = 256;
+
     private final Logger logger; //NOPMD - LoggerIsNotStaticFinal
+    private final LocationAwareLogger locationAwareLogger; //NOPMD - LoggerIsNotStaticFinal
+
+    private final ContextMode contextMode;
+
+    /**
+     * Innermost logger of decorators, which hands messages off by {@link #handOff}.
+     */
+    private final ContextLogger target;
+
+    private final BoundContextCache boundLoggers = new BoundContextCache(MAX_BOUND_LOGGERS);
 
     public ContextLogger(Logger logger) {
+        this(logger, ContextMode.MESSAGE);
+    }
+
+    public ContextLogger(Logger logger, ContextMode contextMode) {
+        this(logger, contextMode, null);
+    }
+
+    /**
+     * Create logger which shares underlying logger and {@link ContextMode} with the given one, used by decorators.
+     *
+     * @param contextLogger decorated logger
+     */
+    protected ContextLogger(ContextLogger contextLogger) {
+        this(contextLogger.logger, contextLogger.contextMode, contextLogger.target);
+    }
+
+    private ContextLogger(Logger logger, ContextMode contextMode, ContextLogger target) {
         this.logger = logger;
+        this.locationAwareLogger = logger instanceof LocationAwareLogger ? (LocationAwareLogger) logger : null;
+        this.contextMode = contextMode;
+        this.target = target != null ? target : this;
     }
 
     public String getName() {
         return logger.getName();
     }
 
+    public ContextMode getContextMode() {
+        return contextMode;
+    }
+
+    /**
+     * Get view of this logger bound to the given context, with context prefix computed once.
+     * Views are cached per logger, approximately least recently used ones are evicted above
+     * {@value #MAX_BOUND_LOGGERS}.
+     *
+     * @param context context of messages
+     * @return bound view of this logger
+     */
+    public BoundContextLogger withContext(String context) {
+        return boundLoggers.get(this, context);
+    }
+
     public boolean isTraceEnabled() {
         return logger.isTraceEnabled();
     }
 
     public boolean isTraceEnabled(Marker marker) {
-        return logger.isInfoEnabled(marker);
+        return logger.isTraceEnabled(marker);
     }
 
     public void trace(String context, String string) {
-        logger.trace(concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(null, LocationAwareLogger.TRACE_INT, context, string, null, null);
+        }
     }
 
     public void trace(String context, String string, Object obj) {
-        logger.trace(concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(null, LocationAwareLogger.TRACE_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void trace(String context, String string, Object obj, Object obj1) {
-        logger.trace(concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(null, LocationAwareLogger.TRACE_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void trace(String context, String string, Object... os) {
-        logger.trace(concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(null, LocationAwareLogger.TRACE_INT, context, string, os, null);
+        }
     }
 
     public void trace(String context, String string, Throwable thrwbl) {
-        logger.trace(concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, null, context)) {
+            log(null, LocationAwareLogger.TRACE_INT, context, string, null, thrwbl);
+        }
     }
 
     public void trace(String context, Marker marker, String string) {
-        logger.trace(marker, concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.TRACE_INT, marker, context)) {
+            log(marker, LocationAwareLogger.TRACE_INT, context, string, null, null);
+        }
     }
 
     public void trace(String context, Marker marker, String string, Object obj) {
-        logger.trace(marker, concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, marker, context)) {
+            log(marker, LocationAwareLogger.TRACE_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void trace(String context, Marker marker, String string, Object obj, Object obj1) {
-        logger.trace(marker, concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, marker, context)) {
+            log(marker, LocationAwareLogger.TRACE_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void trace(String context, Marker marker, String string, Object... os) {
-        logger.trace(marker, concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, marker, context)) {
+            log(marker, LocationAwareLogger.TRACE_INT, context, string, os, null);
+        }
     }
 
     public void trace(String context, Marker marker, String string, Throwable thrwbl) {
-        logger.trace(marker, concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.TRACE_INT, marker, context)) {
+            log(marker, LocationAwareLogger.TRACE_INT, context, string, null, thrwbl);
+        }
+    }
+
+    public void trace(String context, String string, Supplier<?> arg) {
+        logSupplied(null, LocationAwareLogger.TRACE_INT, context, string, arg, null);
+    }
+
+    public void trace(String context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(null, LocationAwareLogger.TRACE_INT, context, string, arg, arg1);
+    }
+
+    public void trace(Supplier<String> context, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.TRACE_INT, null)) {
+            logSupplied(null, LocationAwareLogger.TRACE_INT, context.get(), message);
+        }
+    }
+
+    public void trace(Supplier<String> context, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.TRACE_INT, null)) {
+            logSupplied(null, LocationAwareLogger.TRACE_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void trace(Supplier<String> context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.TRACE_INT, null)) {
+            logSupplied(null, LocationAwareLogger.TRACE_INT, context.get(), string, arg, arg1);
+        }
+    }
+
+    public void trace(String context, Marker marker, String string, Supplier<?> arg) {
+        logSupplied(marker, LocationAwareLogger.TRACE_INT, context, string, arg, null);
+    }
+
+    public void trace(String context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(marker, LocationAwareLogger.TRACE_INT, context, string, arg, arg1);
+    }
+
+    public void trace(Supplier<String> context, Marker marker, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.TRACE_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.TRACE_INT, context.get(), message);
+        }
+    }
+
+    public void trace(Supplier<String> context, Marker marker, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.TRACE_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.TRACE_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void trace(Supplier<String> context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.TRACE_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.TRACE_INT, context.get(), string, arg, arg1);
+        }
     }
 
     public boolean isDebugEnabled() {
@@ -76,43 +219,115 @@ public class ContextLogger {
     }
 
     public void debug(String context, String string) {
-        logger.debug(concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(null, LocationAwareLogger.DEBUG_INT, context, string, null, null);
+        }
     }
 
     public void debug(String context, String string, Object obj) {
-        logger.debug(concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(null, LocationAwareLogger.DEBUG_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void debug(String context, String string, Object obj, Object obj1) {
-        logger.debug(concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(null, LocationAwareLogger.DEBUG_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void debug(String context, String string, Object... os) {
-        logger.debug(concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(null, LocationAwareLogger.DEBUG_INT, context, string, os, null);
+        }
     }
 
     public void debug(String context, String string, Throwable thrwbl) {
-        logger.debug(concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, null, context)) {
+            log(null, LocationAwareLogger.DEBUG_INT, context, string, null, thrwbl);
+        }
     }
 
     public void debug(String context, Marker marker, String string) {
-        logger.debug(marker, concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, marker, context)) {
+            log(marker, LocationAwareLogger.DEBUG_INT, context, string, null, null);
+        }
     }
 
     public void debug(String context, Marker marker, String string, Object obj) {
-        logger.debug(marker, concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, marker, context)) {
+            log(marker, LocationAwareLogger.DEBUG_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void debug(String context, Marker marker, String string, Object obj, Object obj1) {
-        logger.debug(marker, concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, marker, context)) {
+            log(marker, LocationAwareLogger.DEBUG_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void debug(String context, Marker marker, String string, Object... os) {
-        logger.debug(marker, concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, marker, context)) {
+            log(marker, LocationAwareLogger.DEBUG_INT, context, string, os, null);
+        }
     }
 
     public void debug(String context, Marker marker, String string, Throwable thrwbl) {
-        logger.debug(marker, concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.DEBUG_INT, marker, context)) {
+            log(marker, LocationAwareLogger.DEBUG_INT, context, string, null, thrwbl);
+        }
+    }
+
+    public void debug(String context, String string, Supplier<?> arg) {
+        logSupplied(null, LocationAwareLogger.DEBUG_INT, context, string, arg, null);
+    }
+
+    public void debug(String context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(null, LocationAwareLogger.DEBUG_INT, context, string, arg, arg1);
+    }
+
+    public void debug(Supplier<String> context, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.DEBUG_INT, null)) {
+            logSupplied(null, LocationAwareLogger.DEBUG_INT, context.get(), message);
+        }
+    }
+
+    public void debug(Supplier<String> context, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.DEBUG_INT, null)) {
+            logSupplied(null, LocationAwareLogger.DEBUG_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void debug(Supplier<String> context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.DEBUG_INT, null)) {
+            logSupplied(null, LocationAwareLogger.DEBUG_INT, context.get(), string, arg, arg1);
+        }
+    }
+
+    public void debug(String context, Marker marker, String string, Supplier<?> arg) {
+        logSupplied(marker, LocationAwareLogger.DEBUG_INT, context, string, arg, null);
+    }
+
+    public void debug(String context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(marker, LocationAwareLogger.DEBUG_INT, context, string, arg, arg1);
+    }
+
+    public void debug(Supplier<String> context, Marker marker, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.DEBUG_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.DEBUG_INT, context.get(), message);
+        }
+    }
+
+    public void debug(Supplier<String> context, Marker marker, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.DEBUG_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.DEBUG_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void debug(Supplier<String> context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.DEBUG_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.DEBUG_INT, context.get(), string, arg, arg1);
+        }
     }
 
     public boolean isInfoEnabled() {
@@ -124,43 +339,115 @@ public class ContextLogger {
     }
 
     public void info(String context, String string) {
-        logger.info(concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(null, LocationAwareLogger.INFO_INT, context, string, null, null);
+        }
     }
 
     public void info(String context, String string, Object obj) {
-        logger.info(concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(null, LocationAwareLogger.INFO_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void info(String context, String string, Object obj, Object obj1) {
-        logger.info(concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(null, LocationAwareLogger.INFO_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void info(String context, String string, Object... os) {
-        logger.info(concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(null, LocationAwareLogger.INFO_INT, context, string, os, null);
+        }
     }
 
     public void info(String context, String string, Throwable thrwbl) {
-        logger.info(concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.INFO_INT, null, context)) {
+            log(null, LocationAwareLogger.INFO_INT, context, string, null, thrwbl);
+        }
     }
 
     public void info(String context, Marker marker, String string) {
-        logger.info(marker, concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.INFO_INT, marker, context)) {
+            log(marker, LocationAwareLogger.INFO_INT, context, string, null, null);
+        }
     }
 
     public void info(String context, Marker marker, String string, Object obj) {
-        logger.info(marker, concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.INFO_INT, marker, context)) {
+            log(marker, LocationAwareLogger.INFO_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void info(String context, Marker marker, String string, Object obj, Object obj1) {
-        logger.info(marker, concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.INFO_INT, marker, context)) {
+            log(marker, LocationAwareLogger.INFO_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void info(String context, Marker marker, String string, Object... os) {
-        logger.info(marker, concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.INFO_INT, marker, context)) {
+            log(marker, LocationAwareLogger.INFO_INT, context, string, os, null);
+        }
     }
 
     public void info(String context, Marker marker, String string, Throwable thrwbl) {
-        logger.info(marker, concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.INFO_INT, marker, context)) {
+            log(marker, LocationAwareLogger.INFO_INT, context, string, null, thrwbl);
+        }
+    }
+
+    public void info(String context, String string, Supplier<?> arg) {
+        logSupplied(null, LocationAwareLogger.INFO_INT, context, string, arg, null);
+    }
+
+    public void info(String context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(null, LocationAwareLogger.INFO_INT, context, string, arg, arg1);
+    }
+
+    public void info(Supplier<String> context, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.INFO_INT, null)) {
+            logSupplied(null, LocationAwareLogger.INFO_INT, context.get(), message);
+        }
+    }
+
+    public void info(Supplier<String> context, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.INFO_INT, null)) {
+            logSupplied(null, LocationAwareLogger.INFO_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void info(Supplier<String> context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.INFO_INT, null)) {
+            logSupplied(null, LocationAwareLogger.INFO_INT, context.get(), string, arg, arg1);
+        }
+    }
+
+    public void info(String context, Marker marker, String string, Supplier<?> arg) {
+        logSupplied(marker, LocationAwareLogger.INFO_INT, context, string, arg, null);
+    }
+
+    public void info(String context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(marker, LocationAwareLogger.INFO_INT, context, string, arg, arg1);
+    }
+
+    public void info(Supplier<String> context, Marker marker, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.INFO_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.INFO_INT, context.get(), message);
+        }
+    }
+
+    public void info(Supplier<String> context, Marker marker, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.INFO_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.INFO_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void info(Supplier<String> context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.INFO_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.INFO_INT, context.get(), string, arg, arg1);
+        }
     }
 
     public boolean isWarnEnabled() {
@@ -172,43 +459,115 @@ public class ContextLogger {
     }
 
     public void warn(String context, String string) {
-        logger.warn(concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(null, LocationAwareLogger.WARN_INT, context, string, null, null);
+        }
     }
 
     public void warn(String context, String string, Object obj) {
-        logger.warn(concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(null, LocationAwareLogger.WARN_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void warn(String context, String string, Object obj, Object obj1) {
-        logger.warn(concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(null, LocationAwareLogger.WARN_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void warn(String context, String string, Object... os) {
-        logger.warn(concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(null, LocationAwareLogger.WARN_INT, context, string, os, null);
+        }
     }
 
     public void warn(String context, String string, Throwable thrwbl) {
-        logger.warn(concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.WARN_INT, null, context)) {
+            log(null, LocationAwareLogger.WARN_INT, context, string, null, thrwbl);
+        }
     }
 
     public void warn(String context, Marker marker, String string) {
-        logger.warn(marker, concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.WARN_INT, marker, context)) {
+            log(marker, LocationAwareLogger.WARN_INT, context, string, null, null);
+        }
     }
 
     public void warn(String context, Marker marker, String string, Object obj) {
-        logger.warn(marker, concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.WARN_INT, marker, context)) {
+            log(marker, LocationAwareLogger.WARN_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void warn(String context, Marker marker, String string, Object obj, Object obj1) {
-        logger.warn(marker, concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.WARN_INT, marker, context)) {
+            log(marker, LocationAwareLogger.WARN_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void warn(String context, Marker marker, String string, Object... os) {
-        logger.warn(marker, concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.WARN_INT, marker, context)) {
+            log(marker, LocationAwareLogger.WARN_INT, context, string, os, null);
+        }
     }
 
     public void warn(String context, Marker marker, String string, Throwable thrwbl) {
-        logger.warn(marker, concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.WARN_INT, marker, context)) {
+            log(marker, LocationAwareLogger.WARN_INT, context, string, null, thrwbl);
+        }
+    }
+
+    public void warn(String context, String string, Supplier<?> arg) {
+        logSupplied(null, LocationAwareLogger.WARN_INT, context, string, arg, null);
+    }
+
+    public void warn(String context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(null, LocationAwareLogger.WARN_INT, context, string, arg, arg1);
+    }
+
+    public void warn(Supplier<String> context, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.WARN_INT, null)) {
+            logSupplied(null, LocationAwareLogger.WARN_INT, context.get(), message);
+        }
+    }
+
+    public void warn(Supplier<String> context, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.WARN_INT, null)) {
+            logSupplied(null, LocationAwareLogger.WARN_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void warn(Supplier<String> context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.WARN_INT, null)) {
+            logSupplied(null, LocationAwareLogger.WARN_INT, context.get(), string, arg, arg1);
+        }
+    }
+
+    public void warn(String context, Marker marker, String string, Supplier<?> arg) {
+        logSupplied(marker, LocationAwareLogger.WARN_INT, context, string, arg, null);
+    }
+
+    public void warn(String context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(marker, LocationAwareLogger.WARN_INT, context, string, arg, arg1);
+    }
+
+    public void warn(Supplier<String> context, Marker marker, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.WARN_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.WARN_INT, context.get(), message);
+        }
+    }
+
+    public void warn(Supplier<String> context, Marker marker, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.WARN_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.WARN_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void warn(Supplier<String> context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.WARN_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.WARN_INT, context.get(), string, arg, arg1);
+        }
     }
 
     public boolean isErrorEnabled() {
@@ -220,59 +579,430 @@ public class ContextLogger {
     }
 
     public void error(String context, String string) {
-        logger.error(concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(null, LocationAwareLogger.ERROR_INT, context, string, null, null);
+        }
     }
 
     public void error(String context, String string, Object obj) {
-        logger.error(concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(null, LocationAwareLogger.ERROR_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void error(String context, String string, Object obj, Object obj1) {
-        logger.error(concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(null, LocationAwareLogger.ERROR_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void error(String context, String string, Object... os) {
-        logger.error(concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(null, LocationAwareLogger.ERROR_INT, context, string, os, null);
+        }
     }
 
     public void error(String context, String string, Throwable thrwbl) {
-        logger.error(concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, null, context)) {
+            log(null, LocationAwareLogger.ERROR_INT, context, string, null, thrwbl);
+        }
     }
 
     public void error(String context, Marker marker, String string) {
-        logger.error(marker, concatMessage(context, string));
+        if (isEnabled(LocationAwareLogger.ERROR_INT, marker, context)) {
+            log(marker, LocationAwareLogger.ERROR_INT, context, string, null, null);
+        }
     }
 
     public void error(String context, Marker marker, String string, Object obj) {
-        logger.error(marker, concatMessage(context, string), obj);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, marker, context)) {
+            log(marker, LocationAwareLogger.ERROR_INT, context, string, new Object[]{obj}, null);
+        }
     }
 
     public void error(String context, Marker marker, String string, Object obj, Object obj1) {
-        logger.error(marker, concatMessage(context, string), obj, obj1);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, marker, context)) {
+            log(marker, LocationAwareLogger.ERROR_INT, context, string, new Object[]{obj, obj1}, null);
+        }
     }
 
     public void error(String context, Marker marker, String string, Object... os) {
-        logger.error(marker, concatMessage(context, string), os);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, marker, context)) {
+            log(marker, LocationAwareLogger.ERROR_INT, context, string, os, null);
+        }
     }
 
     public void error(String context, Marker marker, String string, Throwable thrwbl) {
-        logger.error(marker, concatMessage(context, string), thrwbl);
+        if (isEnabled(LocationAwareLogger.ERROR_INT, marker, context)) {
+            log(marker, LocationAwareLogger.ERROR_INT, context, string, null, thrwbl);
+        }
+    }
+
+    public void error(String context, String string, Supplier<?> arg) {
+        logSupplied(null, LocationAwareLogger.ERROR_INT, context, string, arg, null);
+    }
+
+    public void error(String context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(null, LocationAwareLogger.ERROR_INT, context, string, arg, arg1);
+    }
+
+    public void error(Supplier<String> context, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.ERROR_INT, null)) {
+            logSupplied(null, LocationAwareLogger.ERROR_INT, context.get(), message);
+        }
+    }
+
+    public void error(Supplier<String> context, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.ERROR_INT, null)) {
+            logSupplied(null, LocationAwareLogger.ERROR_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void error(Supplier<String> context, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.ERROR_INT, null)) {
+            logSupplied(null, LocationAwareLogger.ERROR_INT, context.get(), string, arg, arg1);
+        }
+    }
+
+    public void error(String context, Marker marker, String string, Supplier<?> arg) {
+        logSupplied(marker, LocationAwareLogger.ERROR_INT, context, string, arg, null);
+    }
+
+    public void error(String context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        logSupplied(marker, LocationAwareLogger.ERROR_INT, context, string, arg, arg1);
+    }
+
+    public void error(Supplier<String> context, Marker marker, Supplier<String> message) {
+        if (isLevelEnabled(LocationAwareLogger.ERROR_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.ERROR_INT, context.get(), message);
+        }
+    }
+
+    public void error(Supplier<String> context, Marker marker, String string, Supplier<?> arg) {
+        if (isLevelEnabled(LocationAwareLogger.ERROR_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.ERROR_INT, context.get(), string, arg, null);
+        }
+    }
+
+    public void error(Supplier<String> context, Marker marker, String string, Supplier<?> arg, Supplier<?> arg1) {
+        if (isLevelEnabled(LocationAwareLogger.ERROR_INT, marker)) {
+            logSupplied(marker, LocationAwareLogger.ERROR_INT, context.get(), string, arg, arg1);
+        }
+    }
+
+    public LogEventBuilder atTrace(String context) {
+        return at(LocationAwareLogger.TRACE_INT, context);
+    }
+
+    public LogEventBuilder atDebug(String context) {
+        return at(LocationAwareLogger.DEBUG_INT, context);
+    }
+
+    public LogEventBuilder atInfo(String context) {
+        return at(LocationAwareLogger.INFO_INT, context);
+    }
+
+    public LogEventBuilder atWarn(String context) {
+        return at(LocationAwareLogger.WARN_INT, context);
+    }
+
+    public LogEventBuilder atError(String context) {
+        return at(LocationAwareLogger.ERROR_INT, context);
+    }
+
+    /**
+     * Start fluent message, arguments are collected only when the level is enabled.
+     * Marker set on the builder is checked again when the message is logged.
+     *
+     * @param level level of message, one of {@link LocationAwareLogger} level constants
+     * @param context context of message
+     * @return builder of current thread, or shared no-op builder when the level is disabled
+     */
+    protected LogEventBuilder at(int level, String context) {
+        if (isEnabled(level, null, context)) {
+            return PooledLogEventBuilder.acquire(this, level, context);
+        }
+        return NoOpLogEventBuilder.INSTANCE;
+    }
+
+    /**
+     * Check whether message with context should be logged, called before any argument is prepared.
+     * Can be overridden to enable or disable messages by context.
+     *
+     * @param level level of message, one of {@link LocationAwareLogger} level constants
+     * @param marker marker of message, may be null
+     * @param context context of message
+     * @return true if message should be logged
+     */
+    protected boolean isEnabled(int level, Marker marker, String context) {
+        return isLevelEnabled(level, marker);
+    }
+
+    /**
+     * Check level of underlying logger only, used before context supplier is evaluated.
+     * Overridden {@link #isEnabled} is checked afterwards with the supplied context.
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private boolean isLevelEnabled(int level, Marker marker) {
+        switch (level) {
+            case LocationAwareLogger.TRACE_INT:
+                return marker == null ? logger.isTraceEnabled() : logger.isTraceEnabled(marker);
+            case LocationAwareLogger.DEBUG_INT:
+                return marker == null ? logger.isDebugEnabled() : logger.isDebugEnabled(marker);
+            case LocationAwareLogger.INFO_INT:
+                return marker == null ? logger.isInfoEnabled() : logger.isInfoEnabled(marker);
+            case LocationAwareLogger.WARN_INT:
+                return marker == null ? logger.isWarnEnabled() : logger.isWarnEnabled(marker);
+            default:
+                return marker == null ? logger.isErrorEnabled() : logger.isErrorEnabled(marker);
+        }
+    }
+
+    private void logSupplied(Marker marker, int level, String context, Supplier<String> message) {
+        if (isEnabled(level, marker, context)) {
+            log(marker, level, context, message.get(), null, null);
+        }
+    }
+
+    private void logSupplied(Marker marker, int level, String context, String string,
+            Supplier<?> arg, Supplier<?> arg1) {
+        if (isEnabled(level, marker, context)) {
+            Object[] args = arg1 == null ? new Object[]{arg.get()} : new Object[]{arg.get(), arg1.get()};
+            log(marker, level, context, string, args, null);
+        }
+    }
+
+    /**
+     * Log message built by {@link LogEventBuilder}, {@code boundary} is the class which caller data starts after.
+     */
+    void logFrom(String boundary, Marker marker, int level, String context, String string, Object[] args,
+            Throwable thrwbl) {
+        if (marker != null && !isEnabled(level, marker, context)) {
+            return;
+        }
+
+        CALLER_BOUNDARY.set(boundary);
+        try {
+            log(marker, level, context, string, args, thrwbl);
+        } finally {
+            CALLER_BOUNDARY.set(null);
+        }
     }
 
     /**
-     * Add context to log message.
+     * Log message with context. Called only when the level is enabled.
+     * Decorators take part by {@link #beforeLog}, {@link #afterLog} and {@link #handOff} hooks instead of
+     * overriding this method, so no decorator frame is between frames of this class and caller data points
+     * to the code which called the logger.
+     *
+     * @param marker marker of message, may be null
+     * @param level level of message, one of {@link LocationAwareLogger} level constants
+     * @param context context of message
+     * @param string message pattern
+     * @param args message arguments, may be null
+     * @param thrwbl throwable of message, may be null
+     */
+    protected final void log(Marker marker, int level, String context, String string, Object[] args,
+            Throwable thrwbl) {
+        if (!beforeLog(marker, level, context, string)) {
+            return;
+        }
+
+        boolean timed = isTimed();
+        long start = timed ? System.nanoTime() : 0L;
+        try {
+            deliver(marker, level, context, string, args, thrwbl);
+        } finally {
+            afterLog(level, timed ? System.nanoTime() - start : 0L);
+        }
+    }
+
+    /**
+     * Called before enabled message is delivered, arguments are not evaluated yet.
+     *
+     * @param marker marker of message, may be null
+     * @param level level of message, one of {@link LocationAwareLogger} level constants
+     * @param context context of message
+     * @param string message pattern
+     * @return false if message should be dropped
+     */
+    protected boolean beforeLog(Marker marker, int level, String context, String string) {
+        return true;
+    }
+
+    /**
+     * Called after message is delivered, also when delivery fails.
+     *
+     * @param level level of message, one of {@link LocationAwareLogger} level constants
+     * @param nanos time of delivery when {@link #isTimed()}, 0 otherwise
+     */
+    protected void afterLog(int level, long nanos) {
+    }
+
+    /**
+     * @return true if time of delivery should be measured for {@link #afterLog}
+     */
+    protected boolean isTimed() {
+        return false;
+    }
+
+    /**
+     * Hand message off to be written later, e.g. by another thread. Called on the innermost logger of decorators.
+     *
+     * @return false if message should be written synchronously
+     */
+    protected boolean handOff(Marker marker, int level, String context, String string, Object[] args,
+            Throwable thrwbl) {
+        return false;
+    }
+
+    /**
+     * Append message to underlying logger by its own API instead of SLF4J, e.g. to keep time and thread of
+     * the thread which logged a message handed off by {@link #handOff}. Called when the message is written.
+     *
+     * @param logger underlying logger
+     * @param boundary class which caller data starts after
+     * @param message message pattern with context according to {@link ContextMode}
+     * @return false if message should be passed to underlying logger by SLF4J API
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    protected boolean append(Logger logger, String boundary, Marker marker, int level, String message,
+            Object[] args, Throwable thrwbl) {
+        return false;
+    }
+
+    /**
+     * Deliver message without hooks, used by decorators for messages of their own.
+     */
+    protected final void deliver(Marker marker, int level, String context, String string, Object[] args,
+            Throwable thrwbl) {
+        if (!target.handOff(marker, level, context, string, args, thrwbl)) {
+            write(marker, level, context, string, args, thrwbl);
+        }
+    }
+
+    /**
+     * Write message with context to underlying logger according to {@link ContextMode}.
+     */
+    protected final void write(Marker marker, int level, String context, String string, Object[] args,
+            Throwable thrwbl) {
+        if (contextMode == ContextMode.MESSAGE || context == null) {
+            dispatch(callerBoundary(), marker, level, concatMessage(context, string), args, thrwbl);
+            return;
+        }
+
+        String previousContext = MDC.get(CONTEXT_MDC_KEY);
+        MDC.put(CONTEXT_MDC_KEY, context);
+        try {
+            dispatch(callerBoundary(), marker, level, string, args, thrwbl);
+        } finally {
+            if (previousContext == null) {
+                MDC.remove(CONTEXT_MDC_KEY);
+            } else {
+                MDC.put(CONTEXT_MDC_KEY, previousContext);
+            }
+        }
+    }
+
+    /**
+     * Write message with precomputed context prefix directly to underlying logger, used by
+     * {@link BoundContextLogger} when neither decorators nor {@link ContextMode#MDC} need the context.
+     */
+    final void writePrefixed(String boundary, int level, String prefix, String string, Object[] args,
+            Throwable thrwbl) {
+        dispatch(boundary, null, level, prefixMessage(prefix, string), args, thrwbl);
+    }
+
+    private static String callerBoundary() {
+        String boundary = CALLER_BOUNDARY.get();
+        return boundary != null ? boundary : FQCN;
+    }
+
+    /**
+     * Pass message to underlying logger. Location aware loggers get this class as the boundary
+     * so caller data points to the code which called {@link ContextLogger}.
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private void dispatch(String boundary, Marker marker, int level, String message, Object[] args,
+            Throwable thrwbl) {
+        if (append(logger, boundary, marker, level, message, args, thrwbl)) {
+            return;
+        }
+        if (locationAwareLogger != null) {
+            locationAwareLogger.log(marker, boundary, level, message, args, thrwbl);
+            return;
+        }
+
+        Object[] arguments = appendThrowable(args, thrwbl);
+        switch (level) {
+            case LocationAwareLogger.TRACE_INT:
+                logger.trace(marker, message, arguments);
+                break;
+            case LocationAwareLogger.DEBUG_INT:
+                logger.debug(marker, message, arguments);
+                break;
+            case LocationAwareLogger.INFO_INT:
+                logger.info(marker, message, arguments);
+                break;
+            case LocationAwareLogger.WARN_INT:
+                logger.warn(marker, message, arguments);
+                break;
+            default:
+                logger.error(marker, message, arguments);
+                break;
+        }
+    }
+
+    private static Object[] appendThrowable(Object[] args, Throwable thrwbl) {
+        if (thrwbl == null) {
+            return args != null ? args : EMPTY_ARGS;
+        }
+        if (args == null) {
+            return new Object[]{thrwbl};
+        }
+
+        Object[] arguments = new Object[args.length + 1];
+        System.arraycopy(args, 0, arguments, 0, args.length);
+        arguments[args.length] = thrwbl;
+        return arguments;
+    }
+
+    /**
+     * Add context to log message. Called only when the level is enabled, reuses a per-thread builder.
      *
      * @param context context of message
      * @param message body of message
      * @return log message with context
      */
     private static String concatMessage(String context, String message) {
-        StringBuilder sb = new StringBuilder();
-        if (context != null) {
-            sb.append('[').append(context).append("] ");
+        if (context == null) {
+            return message;
         }
-        sb.append(message);
+
+        StringBuilder sb = messageBuilder();
+        sb.append('[').append(context).append("] ").append(message);
+
+        return sb.toString();
+    }
+
+    private static String prefixMessage(String prefix, String message) {
+        if (prefix == null) {
+            return message;
+        }
+
+        StringBuilder sb = messageBuilder();
+        sb.append(prefix).append(message);
 
         return sb.toString();
     }
+
+    private static StringBuilder messageBuilder() {
+        StringBuilder sb = MESSAGE_BUILDER.get();
+        if (sb.capacity() > MAX_BUILDER_CAPACITY) {
+            sb = new StringBuilder(BUILDER_CAPACITY);
+            MESSAGE_BUILDER.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
 }
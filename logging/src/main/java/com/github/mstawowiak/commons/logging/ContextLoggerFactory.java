@@ -1,17 +1,87 @@
 package com.github.mstawowiak.commons.logging;
 
+import com.github.mstawowiak.commons.logging.async.AsyncContextLogger;
+import com.github.mstawowiak.commons.logging.async.AsyncLogDispatcher;
+import com.github.mstawowiak.commons.logging.metrics.LogMetrics;
+import com.github.mstawowiak.commons.logging.metrics.MeteredContextLogger;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.slf4j.LoggerFactory;
 
 /**
  * Factory for {@link ContextLogger}
+ *
+ * Loggers are cached per class name and {@link ContextMode}.
+ * Default {@link ContextMode} can be set by JVM option:
+ * {@code -Dcom.github.mstawowiak.commons.logging.context.mode=MDC}
+ *
+ * Asynchronous loggers ({@link AsyncContextLogger}) sharing one default {@link AsyncLogDispatcher}
+ * can be turned on by JVM option: {@code -Dcom.github.mstawowiak.commons.logging.async=true}
+ *
+ * Metrics of loggers ({@link MeteredContextLogger}) published in {@link LogMetrics#global()}
+ * can be turned on by JVM option: {@code -Dcom.github.mstawowiak.commons.logging.metrics=true}
  */
 public final class ContextLoggerFactory {
 
+    static final String CONTEXT_MODE_KEY = "com.github.mstawowiak.commons.logging.context.mode";
+    static final String ASYNC_KEY = "com.github.mstawowiak.commons.logging.async";
+    static final String METRICS_KEY = "com.github.mstawowiak.commons.logging.metrics";
+
+    private static final ContextMode DEFAULT_CONTEXT_MODE =
+            ContextMode.toContextMode(System.getProperty(CONTEXT_MODE_KEY), ContextMode.MESSAGE);
+
+    private static final boolean METRICS = Boolean.getBoolean(METRICS_KEY);
+
+    private static final AsyncLogDispatcher DISPATCHER = Boolean.getBoolean(ASYNC_KEY) ? startDispatcher() : null;
+
+    private static final Map<ContextMode, ConcurrentMap<String, ContextLogger>> LOGGERS =
+            new EnumMap<>(ContextMode.class);
+
+    static {
+        for (ContextMode mode : ContextMode.values()) {
+            LOGGERS.put(mode, new ConcurrentHashMap<>());
+        }
+    }
+
     public static ContextLogger getLogger() {
-        Throwable throwable = new Throwable();
-        StackTraceElement caller = throwable.getStackTrace()[1];
+        return getLogger(CallerResolver.callerClassName(), DEFAULT_CONTEXT_MODE);
+    }
+
+    public static ContextLogger getLogger(ContextMode contextMode) {
+        return getLogger(CallerResolver.callerClassName(), contextMode);
+    }
+
+    private static ContextLogger getLogger(String name, ContextMode contextMode) {
+        ConcurrentMap<String, ContextLogger> loggers = LOGGERS.get(contextMode);
+
+        ContextLogger logger = loggers.get(name);
+        if (logger == null) {
+            logger = loggers.computeIfAbsent(name, loggerName -> createLogger(loggerName, contextMode));
+        }
+        return logger;
+    }
+
+    private static ContextLogger createLogger(String name, ContextMode contextMode) {
+        ContextLogger logger = DISPATCHER != null
+                ? new AsyncContextLogger(LoggerFactory.getLogger(name), contextMode, DISPATCHER)
+                : new ContextLogger(LoggerFactory.getLogger(name), contextMode);
+
+        return METRICS ? new MeteredContextLogger(logger) : logger;
+    }
+
+    private static AsyncLogDispatcher startDispatcher() {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder()
+                .logMetrics(METRICS ? LogMetrics.global() : null)
+                .build()
+                .start();
+        Runtime.getRuntime().addShutdownHook(new Thread(dispatcher::close, "context-logger-async-shutdown"));
+        if (METRICS) {
+            LogMetrics.global().registerDroppedCounter("async", dispatcher::getDroppedCount);
+        }
 
-        return new ContextLogger(LoggerFactory.getLogger(caller.getClassName()));
+        return dispatcher;
     }
 
     private ContextLoggerFactory() {
@@ -0,0 +1,36 @@
+package com.github.mstawowiak.commons.logging;
+
+/**
+ * Way in which {@link ContextLogger} passes context to the underlying logger.
+ */
+public enum ContextMode {
+
+    /**
+     * Context is added on the beginning of message content: {@code [context] message}
+     */
+    MESSAGE,
+
+    /**
+     * Context is put into MDC under {@link ContextLogger#CONTEXT_MDC_KEY}, message pattern stays constant
+     */
+    MDC;
+
+    /**
+     * Convert the string passed as argument to a mode. If the conversion fails, returns default value.
+     *
+     * @param value name of mode, case insensitive
+     * @param defaultMode mode returned when value is not a name of mode
+     * @return context mode
+     */
+    public static ContextMode toContextMode(String value, ContextMode defaultMode) {
+        if (value == null) {
+            return defaultMode;
+        }
+        for (ContextMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        return defaultMode;
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.mstawowiak.commons.logging;
+
+import org.slf4j.Marker;
+
+/**
+ * Base of {@link ContextLogger} decorators. Level checks and hooks are forwarded to the decorated logger,
+ * subclasses override {@link #isEnabled}, {@link #beforeLog} and {@link #afterLog} to filter or measure messages.
+ * Messages are delivered by the innermost logger, so decorators do not change caller data.
+ */
+public abstract class ForwardingContextLogger extends ContextLogger {
+
+    private final ContextLogger delegate;
+
+    protected ForwardingContextLogger(ContextLogger delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    public ContextLogger getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    protected boolean isEnabled(int level, Marker marker, String context) {
+        return delegate.isEnabled(level, marker, context);
+    }
+
+    @Override
+    protected boolean beforeLog(Marker marker, int level, String context, String string) {
+        return delegate.beforeLog(marker, level, context, string);
+    }
+
+    @Override
+    protected void afterLog(int level, long nanos) {
+        delegate.afterLog(level, nanos);
+    }
+
+    @Override
+    protected boolean isTimed() {
+        return delegate.isTimed();
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.mstawowiak.commons.logging;
+
+import org.slf4j.Marker;
+
+/**
+ * Fluent builder of log message with context, returned by {@link ContextLogger#atInfo(String)} and similar methods:
+ * {@code logger.atInfo(context).arg(a).arg(b).log("message {} {}")}.
+ *
+ * Builders are reused per thread and must not be kept after {@link #log(String)}.
+ * On a disabled level a shared no-op builder is returned, so arguments are neither collected nor allocated.
+ */
+public interface LogEventBuilder {
+
+    LogEventBuilder marker(Marker marker);
+
+    LogEventBuilder arg(Object arg);
+
+    LogEventBuilder cause(Throwable thrwbl);
+
+    /**
+     * Log message and release builder.
+     *
+     * @param string message pattern
+     */
+    void log(String string);
+}
@@ -0,0 +1,31 @@
+package com.github.mstawowiak.commons.logging;
+
+import org.slf4j.Marker;
+
+/**
+ * Shared {@link LogEventBuilder} of disabled levels.
+ */
+enum NoOpLogEventBuilder implements LogEventBuilder {
+
+    INSTANCE;
+
+    @Override
+    public LogEventBuilder marker(Marker marker) {
+        return this;
+    }
+
+    @Override
+    public LogEventBuilder arg(Object arg) {
+        return this;
+    }
+
+    @Override
+    public LogEventBuilder cause(Throwable thrwbl) {
+        return this;
+    }
+
+    @Override
+    public void log(String string) {
+        // level is disabled
+    }
+}
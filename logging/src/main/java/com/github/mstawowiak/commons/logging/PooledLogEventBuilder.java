@@ -0,0 +1,98 @@
+package com.github.mstawowiak.commons.logging;
+
+import java.util.Arrays;
+import org.slf4j.Marker;
+
+/**
+ * {@link LogEventBuilder} reused per thread. Arguments are collected in a growing buffer
+ * and copied to an array of exact size on {@link #log(String)}, because underlying loggers may keep it.
+ */
+final class PooledLogEventBuilder implements LogEventBuilder {
+
+    static final String FQCN = PooledLogEventBuilder.class.getName();
+
+    private static final int ARGS_CAPACITY = 8;
+    private static final int MAX_ARGS_CAPACITY = 64;
+
+    private static final ThreadLocal<PooledLogEventBuilder> POOL =
+            ThreadLocal.withInitial(PooledLogEventBuilder::new);
+
+    private ContextLogger logger; //NOPMD - LoggerIsNotStaticFinal
+    private int level;
+    private String context;
+    private Marker marker;
+    private Throwable thrwbl;
+
+    private Object[] args = new Object[ARGS_CAPACITY];
+    private int argsCount;
+
+    private boolean inUse;
+
+    /**
+     * Get builder of current thread. When it is in use, e.g. when argument is computed by code which logs
+     * with a builder as well, or when it was abandoned without {@link #log(String)}, a new builder replaces it
+     * in the pool. Builder in use stays valid until it logs, and an abandoned one does not block the pool.
+     */
+    static PooledLogEventBuilder acquire(ContextLogger logger, int level, String context) {
+        PooledLogEventBuilder builder = POOL.get();
+        if (builder.inUse) {
+            builder = new PooledLogEventBuilder();
+            POOL.set(builder);
+        }
+
+        builder.inUse = true;
+        builder.logger = logger;
+        builder.level = level;
+        builder.context = context;
+        return builder;
+    }
+
+    @Override
+    public LogEventBuilder marker(Marker marker) {
+        this.marker = marker;
+        return this;
+    }
+
+    @Override
+    public LogEventBuilder arg(Object arg) {
+        if (argsCount == args.length) {
+            args = Arrays.copyOf(args, args.length * 2);
+        }
+        args[argsCount++] = arg;
+        return this;
+    }
+
+    @Override
+    public LogEventBuilder cause(Throwable thrwbl) {
+        this.thrwbl = thrwbl;
+        return this;
+    }
+
+    @Override
+    public void log(String string) {
+        ContextLogger contextLogger = logger;
+        int eventLevel = level;
+        String eventContext = context;
+        Marker eventMarker = marker;
+        Throwable eventThrwbl = thrwbl;
+        Object[] eventArgs = argsCount == 0 ? null : Arrays.copyOf(args, argsCount);
+
+        release();
+
+        contextLogger.logFrom(FQCN, eventMarker, eventLevel, eventContext, string, eventArgs, eventThrwbl);
+    }
+
+    private void release() {
+        if (args.length > MAX_ARGS_CAPACITY) {
+            args = new Object[ARGS_CAPACITY];
+        } else {
+            Arrays.fill(args, 0, argsCount, null);
+        }
+        argsCount = 0;
+        logger = null;
+        context = null;
+        marker = null;
+        thrwbl = null;
+        inUse = false;
+    }
+}
@@ -9,10 +9,7 @@ import org.slf4j.LoggerFactory;
 public final class SimpleLoggerFactory {
 
     public static Logger getLogger() {
-        Throwable throwable = new Throwable();
-        StackTraceElement caller = throwable.getStackTrace()[1];
-
-        return LoggerFactory.getLogger(caller.getClassName());
+        return LoggerFactory.getLogger(CallerResolver.callerClassName());
     }
 
     private SimpleLoggerFactory() {
@@ -0,0 +1,69 @@
+package com.github.mstawowiak.commons.logging.async;
+
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import com.github.mstawowiak.commons.logging.ContextMode;
+import com.github.mstawowiak.commons.logging.metrics.LoggerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+
+/**
+ * {@link ContextLogger} which checks level on the calling thread and hands off the message pattern,
+ * context and argument references to {@link AsyncLogDispatcher}. Message is formatted and written
+ * by the consumer thread, so arguments should not be mutated after logging. Events of logback loggers keep time and
+ * name of the calling thread.
+ */
+public class AsyncContextLogger extends ContextLogger {
+
+    private final AsyncLogDispatcher dispatcher;
+    private final boolean logback;
+    private final LoggerMetrics metrics;
+
+    public AsyncContextLogger(Logger logger, AsyncLogDispatcher dispatcher) {
+        this(logger, ContextMode.MESSAGE, dispatcher);
+    }
+
+    public AsyncContextLogger(Logger logger, ContextMode contextMode, AsyncLogDispatcher dispatcher) {
+        super(logger, contextMode);
+        this.dispatcher = dispatcher;
+        this.logback = LogbackEvents.LOGGER_CLASS.equals(logger.getClass().getName());
+        this.metrics = dispatcher.getLogMetrics() != null
+                ? dispatcher.getLogMetrics().getLoggerMetrics(logger.getName())
+                : null;
+    }
+
+    public AsyncLogDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    @Override
+    protected boolean handOff(Marker marker, int level, String context, String string, Object[] args,
+            Throwable thrwbl) {
+        return dispatcher.dispatch(this, marker, level, context, string, args, thrwbl);
+    }
+
+    @Override
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    protected boolean append(Logger logger, String boundary, Marker marker, int level, String message,
+            Object[] args, Throwable thrwbl) {
+        if (!logback) {
+            return false;
+        }
+        LogEvent event = dispatcher.writtenEvent();
+        if (event == null) {
+            return false;
+        }
+        LogbackEvents.append(logger, boundary, marker, level, message, args, thrwbl, event.getTimestamp(),
+                event.getThreadName());
+        return true;
+    }
+
+    void recordDropped() {
+        if (metrics != null) {
+            metrics.recordDropped();
+        }
+    }
+
+    void writeEvent(Marker marker, int level, String context, String string, Object[] args, Throwable thrwbl) {
+        write(marker, level, context, string, args, thrwbl);
+    }
+}
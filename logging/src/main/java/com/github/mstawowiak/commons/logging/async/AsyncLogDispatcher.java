@@ -0,0 +1,275 @@
+package com.github.mstawowiak.commons.logging.async;
+
+import com.github.mstawowiak.commons.logging.metrics.LogMetrics;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * Hands off events of {@link AsyncContextLogger}s through a bounded lock-free ring buffer
+ * to a single consumer thread, which writes them to underlying loggers in batches.
+ *
+ * Time and name of the calling thread are recorded at hand-off. Events of logback loggers are created with them,
+ * so {@code %d} and {@code %thread} show when and by which thread the event was logged, also when the buffer is
+ * backed up. Other SLF4J bindings create events on the consumer thread, with its name and time of writing.
+ * Caller data and MDC of the calling thread are not passed to the consumer.
+ *
+ * Producers are counted while they publish, so the consumer stops only after every event published before
+ * {@link #close()} is written. Events logged after close wait for the consumer to finish and are written
+ * synchronously, so events of each thread keep their order.
+ * Events which failed to be written by the consumer are counted, see {@link #getFailedCount()}.
+ */
+public final class AsyncLogDispatcher implements AutoCloseable {
+
+    private static final String THREAD_NAME = "context-logger-async";
+
+    private final LogEventRingBuffer ringBuffer;
+    private final int batchSize;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final int thresholdLevel;
+    private final int sampleRate;
+    private final LogMetrics logMetrics;
+
+    private final AtomicLong overflowCounter = new AtomicLong();
+    private final LongAdder droppedCounter = new LongAdder();
+    private final LongAdder failedCounter = new LongAdder();
+    private final AtomicInteger producers = new AtomicInteger();
+
+    private final Thread consumer;
+    private volatile boolean running;
+
+    private AsyncLogDispatcher(AsyncLogDispatcher.Builder builder) {
+        this.ringBuffer = new LogEventRingBuffer(builder.capacity);
+        this.batchSize = builder.batchSize;
+        this.waitStrategy = builder.waitStrategy;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.thresholdLevel = builder.thresholdLevel.toInt();
+        this.sampleRate = builder.sampleRate;
+        this.logMetrics = builder.logMetrics;
+
+        this.consumer = new Thread(this::consume, THREAD_NAME);
+        this.consumer.setDaemon(true);
+    }
+
+    public static class Builder {
+
+        private int capacity = 8192;
+        private int batchSize = 256;
+        private WaitStrategy waitStrategy = WaitStrategy.BACKOFF;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private Level thresholdLevel = Level.WARN;
+        private int sampleRate = 10;
+        private LogMetrics logMetrics;
+
+        /**
+         * @param capacity capacity of ring buffer, rounded up to power of two
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param batchSize maximum number of events written by consumer between checks of its state
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * @param thresholdLevel events below this level are dropped or sampled on overflow
+         */
+        public Builder thresholdLevel(Level thresholdLevel) {
+            this.thresholdLevel = thresholdLevel;
+            return this;
+        }
+
+        /**
+         * @param sampleRate every n-th event below threshold level is kept on overflow
+         */
+        public Builder sampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * @param logMetrics metrics which count events dropped on overflow per logger, may be null
+         */
+        public Builder logMetrics(LogMetrics logMetrics) {
+            this.logMetrics = logMetrics;
+            return this;
+        }
+
+        @SuppressWarnings("PMD.AccessorClassGeneration")
+        public AsyncLogDispatcher build() {
+            if (capacity < 1 || batchSize < 1 || sampleRate < 1) {
+                throw new IllegalArgumentException("Capacity, batch size and sample rate must be positive");
+            }
+            return new AsyncLogDispatcher(this);
+        }
+    }
+
+    /**
+     * Start consumer thread.
+     *
+     * @return this dispatcher
+     */
+    public synchronized AsyncLogDispatcher start() {
+        if (!running && !consumer.isAlive()) {
+            running = true;
+            consumer.start();
+        }
+        return this;
+    }
+
+    /**
+     * Stop consumer thread and wait until pending events are written. Events logged after stop are written
+     * synchronously. When the waiting thread is interrupted, the consumer still writes pending events.
+     */
+    @Override
+    public void close() {
+        running = false;
+        awaitConsumer();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    /**
+     * @return metrics which count dropped events per logger, may be null
+     */
+    public LogMetrics getLogMetrics() {
+        return logMetrics;
+    }
+
+    /**
+     * @return number of events dropped because of overflow
+     */
+    public long getDroppedCount() {
+        return droppedCounter.sum();
+    }
+
+    /**
+     * @return number of events which underlying logger failed to write
+     */
+    public long getFailedCount() {
+        return failedCounter.sum();
+    }
+
+    /**
+     * Hand off event to consumer thread according to {@link OverflowPolicy}.
+     *
+     * @return false if dispatcher is not running and event has to be written by caller
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    boolean dispatch(AsyncContextLogger logger, Marker marker, int level, String context, String string,
+            Object[] args, Throwable thrwbl) {
+        producers.incrementAndGet();
+        try {
+            if (running) {
+                publish(logger, marker, level, context, string, args, thrwbl);
+                return true;
+            }
+        } finally {
+            producers.decrementAndGet();
+        }
+
+        awaitConsumer();
+        return false;
+    }
+
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    private void publish(AsyncContextLogger logger, Marker marker, int level, String context, String string,
+            Object[] args, Throwable thrwbl) {
+        long timestamp = System.currentTimeMillis();
+        String threadName = Thread.currentThread().getName();
+        if (ringBuffer.offer(logger, marker, level, context, string, args, thrwbl, timestamp, threadName)) {
+            return;
+        }
+        if (!shouldWait(level)) {
+            droppedCounter.increment();
+            logger.recordDropped();
+            return;
+        }
+
+        // consumer keeps draining while any producer is publishing, also after close
+        int idleCount = 0;
+        while (!ringBuffer.offer(logger, marker, level, context, string, args, thrwbl, timestamp, threadName)) {
+            waitStrategy.idle(idleCount++);
+        }
+    }
+
+    /**
+     * @return event which is being written when called by consumer thread, null otherwise
+     */
+    LogEvent writtenEvent() {
+        return Thread.currentThread() == consumer ? ringBuffer.current() : null;
+    }
+
+    /**
+     * Wait until consumer writes pending events, so synchronous writes after close keep order of events.
+     */
+    private void awaitConsumer() {
+        if (Thread.currentThread() == consumer || !consumer.isAlive()) {
+            return;
+        }
+        try {
+            consumer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean shouldWait(int level) {
+        if (overflowPolicy == OverflowPolicy.BLOCK || level >= thresholdLevel) {
+            return true;
+        }
+        return overflowPolicy == OverflowPolicy.SAMPLE && overflowCounter.getAndIncrement() % sampleRate == 0;
+    }
+
+    /**
+     * Write events until dispatcher is stopped, no producer is publishing and buffer is empty.
+     * Producer which starts publishing after this check sees the dispatcher stopped and writes synchronously.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void consume() {
+        int idleCount = 0;
+        while (running || producers.get() > 0 || !ringBuffer.isEmpty()) {
+            try {
+                if (ringBuffer.drain(batchSize) > 0) {
+                    idleCount = 0;
+                } else {
+                    waitStrategy.idle(idleCount++);
+                }
+            } catch (RuntimeException ex) {
+                failedCounter.increment();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncLogDispatcher [capacity: " + getCapacity() + ", batchSize: " + batchSize
+                + ", waitStrategy: " + waitStrategy + ", overflowPolicy: " + overflowPolicy
+                + ", running: " + running + ']';
+    }
+}
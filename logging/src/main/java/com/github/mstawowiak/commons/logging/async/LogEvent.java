@@ -0,0 +1,63 @@
+package com.github.mstawowiak.commons.logging.async;
+
+import org.slf4j.Marker;
+
+/**
+ * Mutable slot of {@link LogEventRingBuffer}. Keeps only references passed by caller, time and name of
+ * the calling thread, message is formatted by consumer thread.
+ */
+final class LogEvent {
+
+    private AsyncContextLogger logger;
+    private Marker marker;
+    private int level;
+    private String context;
+    private String string;
+    private Object[] args;
+    private Throwable thrwbl;
+    private long timestamp;
+    private String threadName;
+
+    @SuppressWarnings({"PMD.ExcessiveParameterList", "PMD.ArrayIsStoredDirectly"})
+    void set(AsyncContextLogger logger, Marker marker, int level, String context, String string,
+            Object[] args, Throwable thrwbl, long timestamp, String threadName) {
+        this.logger = logger;
+        this.marker = marker;
+        this.level = level;
+        this.context = context;
+        this.string = string;
+        this.args = args;
+        this.thrwbl = thrwbl;
+        this.timestamp = timestamp;
+        this.threadName = threadName;
+    }
+
+    void moveFrom(LogEvent event) {
+        set(event.logger, event.marker, event.level, event.context, event.string, event.args, event.thrwbl,
+                event.timestamp, event.threadName);
+        event.clear();
+    }
+
+    void write() {
+        logger.writeEvent(marker, level, context, string, args, thrwbl);
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    String getThreadName() {
+        return threadName;
+    }
+
+    @SuppressWarnings("PMD.NullAssignment")
+    void clear() {
+        logger = null;
+        marker = null;
+        context = null;
+        string = null;
+        args = null;
+        thrwbl = null;
+        threadName = null;
+    }
+}
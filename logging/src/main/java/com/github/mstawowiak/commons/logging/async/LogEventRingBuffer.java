@@ -0,0 +1,109 @@
+package com.github.mstawowiak.commons.logging.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Marker;
+
+/**
+ * Bounded lock-free ring buffer of preallocated {@link LogEvent}s for many producers and a single consumer.
+ *
+ * Each slot has a sequence: slot is free for producer of position {@code p} when its sequence equals {@code p}
+ * and published for consumer when it equals {@code p + 1}.
+ */
+final class LogEventRingBuffer {
+
+    private final LogEvent[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // accessed only by consumer
+    private final LogEvent current = new LogEvent(); // accessed only by consumer
+
+    LogEventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        if (size < 2) {
+            size = 2;
+        }
+
+        this.events = new LogEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            events[i] = new LogEvent();
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return events.length;
+    }
+
+    /**
+     * Publish event, does not wait when buffer is full.
+     *
+     * @return false if buffer is full
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    boolean offer(AsyncContextLogger logger, Marker marker, int level, String context, String string,
+            Object[] args, Throwable thrwbl, long timestamp, String threadName) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+
+        events[index].set(logger, marker, level, context, string, args, thrwbl, timestamp, threadName);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Take and write up to {@code limit} published events. Slot is released before the event is written,
+     * so slow writes do not keep producers waiting. Must be called only by consumer thread.
+     *
+     * @return number of written events
+     */
+    int drain(int limit) {
+        int count = 0;
+        while (count < limit) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+
+            current.moveFrom(events[index]);
+            sequences.lazySet(index, head + events.length);
+            head++;
+            count++;
+
+            try {
+                current.write();
+            } finally {
+                current.clear();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return event which is being written, must be called only by consumer thread
+     */
+    LogEvent current() {
+        return current;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
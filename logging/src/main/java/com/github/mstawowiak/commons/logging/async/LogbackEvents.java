@@ -0,0 +1,40 @@
+package com.github.mstawowiak.commons.logging.async;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * Creates events of logback loggers with time and name of the thread which logged them, instead of the consumer
+ * thread of {@link AsyncLogDispatcher} which writes them. Filtered as by {@link Logger}, loaded only for logback
+ * loggers as logback is an optional dependency.
+ */
+final class LogbackEvents {
+
+    static final String LOGGER_CLASS = "ch.qos.logback.classic.Logger";
+
+    private LogbackEvents() {
+    }
+
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    static void append(org.slf4j.Logger logger, String fqcn, Marker marker, int level, String message,
+            Object[] args, Throwable thrwbl, long timestamp, String threadName) {
+        Logger logbackLogger = (Logger) logger;
+        Level logbackLevel = Level.fromLocationAwareLoggerInteger(level);
+
+        FilterReply decision = logbackLogger.getLoggerContext().getTurboFilterList()
+                .getTurboFilterChainDecision(marker, logbackLogger, logbackLevel, message, args, thrwbl);
+        if (decision == FilterReply.DENY || decision == FilterReply.NEUTRAL
+                && !logbackLevel.isGreaterOrEqual(logbackLogger.getEffectiveLevel())) {
+            return;
+        }
+
+        LoggingEvent event = new LoggingEvent(fqcn, logbackLogger, logbackLevel, message, thrwbl, args);
+        event.setMarker(marker);
+        event.setTimeStamp(timestamp);
+        event.setThreadName(threadName);
+        logbackLogger.callAppenders(event);
+    }
+}
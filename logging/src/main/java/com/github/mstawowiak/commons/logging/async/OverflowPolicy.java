@@ -0,0 +1,23 @@
+package com.github.mstawowiak.commons.logging.async;
+
+/**
+ * Behaviour of {@link AsyncLogDispatcher} when its buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Caller waits until there is free space in buffer
+     */
+    BLOCK,
+
+    /**
+     * Events below the threshold level are dropped, others wait for free space
+     */
+    DROP_LOWER_LEVELS,
+
+    /**
+     * Every n-th event below the threshold level waits for free space, others are dropped.
+     * Events on threshold level and above always wait.
+     */
+    SAMPLE
+}
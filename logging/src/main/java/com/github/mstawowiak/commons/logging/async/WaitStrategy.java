@@ -0,0 +1,66 @@
+package com.github.mstawowiak.commons.logging.async;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy of waiting used by consumer of empty {@link AsyncLogDispatcher} and by producers
+ * waiting for free space in full one.
+ */
+public enum WaitStrategy {
+
+    /**
+     * Busy spin, lowest latency at the cost of a fully used core
+     */
+    BUSY_SPIN {
+        @Override
+        void idle(int idleCount) {
+            // spin
+        }
+    },
+
+    /**
+     * Yield the thread on each idle loop
+     */
+    YIELD {
+        @Override
+        void idle(int idleCount) {
+            Thread.yield();
+        }
+    },
+
+    /**
+     * Park the thread for {@link #PARK_NANOS} on each idle loop
+     */
+    PARK {
+        @Override
+        void idle(int idleCount) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    },
+
+    /**
+     * Spin, then yield and finally park the thread
+     */
+    BACKOFF {
+        @Override
+        void idle(int idleCount) {
+            if (idleCount < 0 || idleCount >= SPIN_LOOPS + YIELD_LOOPS) {
+                LockSupport.parkNanos(PARK_NANOS);
+            } else if (idleCount >= SPIN_LOOPS) {
+                Thread.yield();
+            }
+        }
+    };
+
+    static final long PARK_NANOS = 100_000L;
+
+    private static final int SPIN_LOOPS = 100;
+    private static final int YIELD_LOOPS = 100;
+
+    /**
+     * Wait before next attempt.
+     *
+     * @param idleCount number of consecutive unsuccessful attempts
+     */
+    abstract void idle(int idleCount);
+}
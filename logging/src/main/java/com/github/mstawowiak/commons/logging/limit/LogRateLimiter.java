@@ -0,0 +1,292 @@
+package com.github.mstawowiak.commons.logging.limit;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Marker;
+
+/**
+ * Token bucket rate limiter of log messages per context and message pattern.
+ *
+ * Buckets which are full again, i.e. arrival time of their next permit is in the past, are dropped by a sweep
+ * started by {@link #tryAcquire(String, String)} once per refill time of a bucket. The sweep is incremental,
+ * a call checks at most {@value #SWEEP_BATCH} buckets and the next calls continue where it stopped, so no caller
+ * pays for a scan of all buckets. Messages suppressed in a dropped bucket are reported then, so the end of a flood
+ * is reported without waiting for the next message with the same context and pattern. When the number of distinct
+ * keys still exceeds {@code maxKeys}, new keys share one bucket.
+ */
+public final class LogRateLimiter {
+
+    private static final String NO_CONTEXT = "";
+    private static final int SWEEP_BATCH = 64;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, StripedTokenBucket>> buckets =
+            new ConcurrentHashMap<>();
+    private final AtomicInteger keys = new AtomicInteger();
+    private final AtomicLong nextSweep;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private Sweep sweep;
+
+    private final int maxKeys;
+    private final int stripes;
+    private final long intervalNanos;
+    private final long burstPerStripe;
+    private final long sweepIntervalNanos;
+
+    private final StripedTokenBucket overflowBucket;
+
+    private LogRateLimiter(LogRateLimiter.Builder builder) {
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        this.maxKeys = builder.maxKeys;
+        this.stripes = (int) Math.max(1, Math.min(Math.min(builder.stripes, processors), builder.burst));
+        this.intervalNanos = builder.periodNanos * stripes / builder.permits;
+        this.burstPerStripe = builder.burst / stripes;
+        this.sweepIntervalNanos = intervalNanos * burstPerStripe;
+        this.nextSweep = new AtomicLong(System.nanoTime() + sweepIntervalNanos);
+        this.overflowBucket = newBucket();
+    }
+
+    /**
+     * Create limiter which passes one message per context and pattern in the window, others are suppressed.
+     *
+     * @param window window of deduplication
+     * @param unit unit of window
+     * @return deduplicating limiter
+     */
+    public static LogRateLimiter deduplicating(long window, TimeUnit unit) {
+        return new LogRateLimiter.Builder().permits(1, window, unit).burst(1).build();
+    }
+
+    public static class Builder {
+
+        private long permits = 100;
+        private long periodNanos = TimeUnit.SECONDS.toNanos(1);
+        private long burst = 100;
+        private int maxKeys = 10_000;
+        private int stripes = Integer.MAX_VALUE;
+
+        /**
+         * @param permits number of messages passed in the period for each context and pattern
+         * @param period length of period
+         * @param unit unit of period
+         */
+        public Builder permits(long permits, long period, TimeUnit unit) {
+            this.permits = permits;
+            this.periodNanos = unit.toNanos(period);
+            return this;
+        }
+
+        /**
+         * @param burst number of messages which can be passed at once
+         */
+        public Builder burst(long burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * @param maxKeys maximal number of limited contexts and patterns
+         */
+        public Builder maxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        /**
+         * @param stripes maximal number of stripes of each bucket, by default number of processors
+         */
+        public Builder stripes(int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        @SuppressWarnings("PMD.AccessorClassGeneration")
+        public LogRateLimiter build() {
+            if (permits < 1 || periodNanos < 1 || burst < 1 || maxKeys < 1 || stripes < 1) {
+                throw new IllegalArgumentException("Permits, period, burst, max keys and stripes must be positive");
+            }
+            return new LogRateLimiter(this);
+        }
+    }
+
+    /**
+     * Take a permit for message.
+     *
+     * @param context context of message
+     * @param string message pattern
+     * @return number of messages suppressed since last permit, or -1 if message should be suppressed
+     */
+    public long tryAcquire(String context, String string) {
+        return tryAcquire(context, string, null, null, 0);
+    }
+
+    /**
+     * Take a permit for message and remember logger of suppressed message, to report suppressed messages
+     * when their bucket is dropped.
+     */
+    long tryAcquire(String context, String string, RateLimitedContextLogger logger, Marker marker, int level) {
+        long now = System.nanoTime();
+        if (now - nextSweep.get() >= 0 && sweeping.compareAndSet(false, true)) {
+            try {
+                sweepBatch(now);
+            } finally {
+                sweeping.set(false);
+            }
+        }
+
+        String bucketContext = context != null ? context : NO_CONTEXT;
+        String bucketString = string != null ? string : NO_CONTEXT;
+        StripedTokenBucket bucket = bucket(bucketContext, bucketString);
+        long suppressed = bucket.tryAcquire(now);
+        if (suppressed < 0 && logger != null && bucket.getFlood() == null) {
+            bucket.flood(new Flood(logger, marker, level, context, string));
+        }
+        return suppressed;
+    }
+
+    /**
+     * Drop all buckets which are full again and report messages suppressed in them.
+     */
+    public void sweep() {
+        new Sweep().run(System.nanoTime(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return number of buckets of contexts and patterns
+     */
+    public int size() {
+        return keys.get();
+    }
+
+    /**
+     * Continue the current sweep by one batch, called only by the thread which set {@link #sweeping}.
+     * Next sweep is scheduled when the current one has checked all buckets, until then next callers
+     * continue it.
+     */
+    private void sweepBatch(long now) {
+        if (sweep == null) {
+            sweep = new Sweep();
+        }
+        if (sweep.run(now, SWEEP_BATCH)) {
+            sweep = null;
+            nextSweep.set(now + sweepIntervalNanos);
+        }
+    }
+
+    private static void report(StripedTokenBucket bucket) {
+        Flood flood = bucket.getFlood();
+        if (flood == null) {
+            return;
+        }
+        long suppressed = bucket.unreported();
+        if (suppressed > 0) {
+            flood.logger.logSuppressed(flood.marker, flood.level, flood.context, flood.string, suppressed);
+        }
+    }
+
+    private StripedTokenBucket bucket(String context, String string) {
+        ConcurrentMap<String, StripedTokenBucket> contextBuckets = buckets.get(string);
+        StripedTokenBucket bucket = contextBuckets != null ? contextBuckets.get(context) : null;
+        if (bucket != null) {
+            return bucket;
+        }
+        if (keys.get() >= maxKeys) {
+            return overflowBucket;
+        }
+
+        // created in compute, so that sweep does not drop the map of pattern in the meantime
+        StripedTokenBucket[] created = new StripedTokenBucket[1];
+        buckets.compute(string, (key, current) -> {
+            ConcurrentMap<String, StripedTokenBucket> map = current != null ? current : new ConcurrentHashMap<>();
+            created[0] = map.computeIfAbsent(context, ignored -> {
+                keys.incrementAndGet();
+                return newBucket();
+            });
+            return map;
+        });
+        return created[0];
+    }
+
+    private StripedTokenBucket newBucket() {
+        return new StripedTokenBucket(stripes, intervalNanos, burstPerStripe);
+    }
+
+    /**
+     * Pass over buckets of all patterns and contexts, which can be run in batches.
+     */
+    private final class Sweep {
+
+        private final Iterator<Map.Entry<String, ConcurrentMap<String, StripedTokenBucket>>> patterns =
+                buckets.entrySet().iterator();
+        private String pattern;
+        private ConcurrentMap<String, StripedTokenBucket> contextBuckets;
+        private Iterator<Map.Entry<String, StripedTokenBucket>> contexts = Collections.emptyIterator();
+
+        /**
+         * @param limit maximal number of buckets checked
+         * @return true when all buckets were checked
+         */
+        boolean run(long now, int limit) {
+            int checked = 0;
+            while (checked < limit) {
+                if (!contexts.hasNext()) {
+                    dropIfEmpty();
+                    if (!patterns.hasNext()) {
+                        if (overflowBucket.isIdle(now)) {
+                            report(overflowBucket);
+                        }
+                        return true;
+                    }
+                    Map.Entry<String, ConcurrentMap<String, StripedTokenBucket>> entry = patterns.next();
+                    pattern = entry.getKey();
+                    contextBuckets = entry.getValue();
+                    contexts = contextBuckets.entrySet().iterator();
+                    continue;
+                }
+                Map.Entry<String, StripedTokenBucket> entry = contexts.next();
+                StripedTokenBucket bucket = entry.getValue();
+                if (bucket.isIdle(now) && contextBuckets.remove(entry.getKey(), bucket)) {
+                    keys.decrementAndGet();
+                    report(bucket);
+                }
+                checked++;
+            }
+            return false;
+        }
+
+        private void dropIfEmpty() {
+            if (contextBuckets != null && contextBuckets.isEmpty()) {
+                // in compute, so that a bucket created in the meantime is not dropped with the map
+                buckets.computeIfPresent(pattern, (key, current) -> current.isEmpty() ? null : current);
+            }
+            contextBuckets = null;
+        }
+    }
+
+    /**
+     * Logger, marker and level of the first message suppressed since the last permit of bucket.
+     */
+    static final class Flood {
+
+        private final RateLimitedContextLogger logger;
+        private final Marker marker;
+        private final int level;
+        private final String context;
+        private final String string;
+
+        Flood(RateLimitedContextLogger logger, Marker marker, int level, String context, String string) {
+            this.logger = logger;
+            this.marker = marker;
+            this.level = level;
+            this.context = context;
+            this.string = string;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.mstawowiak.commons.logging.limit;
+
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import com.github.mstawowiak.commons.logging.ForwardingContextLogger;
+import com.github.mstawowiak.commons.logging.metrics.LogMetrics;
+import com.github.mstawowiak.commons.logging.metrics.LoggerMetrics;
+import org.slf4j.Marker;
+
+/**
+ * {@link ContextLogger} which passes messages through {@link LogRateLimiter}.
+ * Number of suppressed messages is reported, on the same level, before next passed message
+ * with the same context and pattern, or when the flood stops and {@link LogRateLimiter} drops its bucket.
+ * Caller data of these reports points to this class, as they stand for calls from any place.
+ * Suppressed messages are counted as dropped in {@link LoggerMetrics} when {@link LogMetrics} are given.
+ */
+public class RateLimitedContextLogger extends ForwardingContextLogger {
+
+    static final String SUPPRESSED_MESSAGE = "{} similar messages suppressed: {}";
+
+    private final LogRateLimiter rateLimiter;
+    private final LoggerMetrics metrics;
+
+    public RateLimitedContextLogger(ContextLogger delegate, LogRateLimiter rateLimiter) {
+        this(delegate, rateLimiter, null);
+    }
+
+    /**
+     * @param delegate decorated logger
+     * @param rateLimiter limiter of messages
+     * @param logMetrics metrics which count suppressed messages as dropped, may be null
+     */
+    public RateLimitedContextLogger(ContextLogger delegate, LogRateLimiter rateLimiter, LogMetrics logMetrics) {
+        super(delegate);
+        this.rateLimiter = rateLimiter;
+        this.metrics = logMetrics != null ? logMetrics.getLoggerMetrics(delegate.getName()) : null;
+    }
+
+    @Override
+    protected boolean beforeLog(Marker marker, int level, String context, String string) {
+        long suppressed = rateLimiter.tryAcquire(context, string, this, marker, level);
+        if (suppressed < 0) {
+            if (metrics != null) {
+                metrics.recordDropped();
+            }
+            return false;
+        }
+        if (suppressed > 0) {
+            logSuppressed(marker, level, context, string, suppressed);
+        }
+        return super.beforeLog(marker, level, context, string);
+    }
+
+    void logSuppressed(Marker marker, int level, String context, String string, long suppressed) {
+        deliver(marker, level, context, SUPPRESSED_MESSAGE, new Object[]{suppressed, string}, null);
+    }
+}
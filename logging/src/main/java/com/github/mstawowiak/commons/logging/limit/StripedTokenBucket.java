@@ -0,0 +1,107 @@
+package com.github.mstawowiak.commons.logging.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket split into stripes, each with its share of rate and burst.
+ *
+ * Each stripe keeps theoretical arrival time of the next permit (GCRA), so taking a permit is a single CAS.
+ * Thread starts with its own stripe and tries the others only when it is empty.
+ *
+ * Suppressed messages are counted by {@link LongAdder} and {@code reported} keeps the highest count already
+ * returned, so every suppressed message is reported once even when permits are taken concurrently.
+ */
+final class StripedTokenBucket {
+
+    private static final int PADDING = 8; // longs per cache line
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    private final LongAdder suppressed = new LongAdder();
+    private final AtomicLong reported = new AtomicLong();
+
+    private volatile LogRateLimiter.Flood flood;
+
+    StripedTokenBucket(int stripes, long intervalNanos, long burstPerStripe) {
+        this.stripes = stripes;
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * (burstPerStripe - 1);
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Take a permit.
+     *
+     * @param now current {@link System#nanoTime()}
+     * @return number of messages suppressed since last permit, or -1 if there is no permit
+     */
+    long tryAcquire(long now) {
+        int home = (int) (Thread.currentThread().getId() % stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (tryAcquire((home + i) % stripes * PADDING, now)) {
+                if (flood != null) {
+                    flood = null;
+                }
+                return unreported();
+            }
+        }
+
+        suppressed.increment();
+        return -1;
+    }
+
+    /**
+     * @return number of suppressed messages not returned yet, each message is returned once
+     */
+    long unreported() {
+        long total = suppressed.sum();
+        long previous = reported.getAndAccumulate(total, Math::max);
+        return Math.max(0, total - previous);
+    }
+
+    /**
+     * @return true when every stripe is full, so the bucket limits nothing and can be dropped
+     */
+    boolean isIdle(long now) {
+        for (int i = 0; i < stripes; i++) {
+            if (cells.get(i * PADDING) > now) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    LogRateLimiter.Flood getFlood() {
+        return flood;
+    }
+
+    /**
+     * Remember where suppressed messages come from, to report them when the bucket is dropped.
+     */
+    void flood(LogRateLimiter.Flood current) {
+        if (flood == null) {
+            flood = current;
+        }
+    }
+
+    private boolean tryAcquire(int index, long now) {
+        while (true) {
+            long arrival = cells.get(index);
+            long start = Math.max(arrival, now);
+            if (start - now > toleranceNanos) {
+                return false;
+            }
+            if (cells.compareAndSet(index, arrival, start + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.github.mstawowiak.commons.logging.logback.appender;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.FileSize;
+import com.github.mstawowiak.commons.logging.logback.property.LoggingPathProperty;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Rolling file appender which writes through memory-mapped regions of the file instead of stream writes.
+ *
+ * File is rolled over when it reaches {@code maxFileSize} or when {@code rolloverPeriod} passes
+ * (periods are aligned to local time, e.g. midnight for {@code 1 day}). Mapped region is forced
+ * to storage every {@code forceInterval}. Example of usage in logback.xml:
+ * <pre>
+ * &lt;appender name="FILE" class="com.github.mstawowiak.commons.logging.logback.appender.MappedFileAppender"&gt;
+ *     &lt;directory&gt;${LOGGING_PATH}&lt;/directory&gt;
+ *     &lt;fileName&gt;application.log&lt;/fileName&gt;
+ *     &lt;maxFileSize&gt;100MB&lt;/maxFileSize&gt;
+ *     &lt;rolloverPeriod&gt;1 day&lt;/rolloverPeriod&gt;
+ *     &lt;encoder&gt;
+ *         &lt;pattern&gt;%d %-5level [%thread] %logger - %msg%n&lt;/pattern&gt;
+ *     &lt;/encoder&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ * When directory is not set, it is taken from {@link LoggingPathProperty}.
+ * <p>
+ * Regions are unmapped before the file is truncated or moved, which fails on Windows while a mapping is alive.
+ * When rollover fails, appender keeps writing to the active file and tries again after a minute. When the file
+ * cannot be opened, events are dropped with an error and opening is tried again with the next event.
+ */
+@SuppressWarnings("PMD.TooManyFields")
+public class MappedFileAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final String ROLLED_FILE_DATE_PATTERN = "yyyy-MM-dd-HH-mm-ss";
+    private static final long ROLLOVER_RETRY_MILLIS = 60_000L;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Encoder<ILoggingEvent> encoder;
+    private String directory;
+    private String fileName = "application.log";
+    private FileSize maxFileSize = FileSize.valueOf("100MB");
+    private FileSize regionSize = FileSize.valueOf("4MB");
+    private Duration rolloverPeriod;
+    private Duration forceInterval = Duration.buildBySeconds(1);
+
+    private Path activeFile;
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long fileStartTime;
+    private long nextRolloverTime = Long.MAX_VALUE;
+    private long rolloverRetryTime = Long.MIN_VALUE;
+
+    private ScheduledExecutorService forceExecutor;
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public void setMaxFileSize(FileSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public void setRegionSize(FileSize regionSize) {
+        this.regionSize = regionSize;
+    }
+
+    public void setRolloverPeriod(Duration rolloverPeriod) {
+        this.rolloverPeriod = rolloverPeriod;
+    }
+
+    public void setForceInterval(Duration forceInterval) {
+        this.forceInterval = forceInterval;
+    }
+
+    public Path getActiveFile() {
+        return activeFile;
+    }
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named \"" + name + "\".");
+            return;
+        }
+        if (regionSize.getSize() > Integer.MAX_VALUE || regionSize.getSize() > maxFileSize.getSize()) {
+            addError("Region size must not be greater than 2GB and max file size for appender \"" + name + "\".");
+            return;
+        }
+
+        String logDirectory = directory != null ? directory : new LoggingPathProperty().getPropertyValue();
+        activeFile = Paths.get(logDirectory, fileName);
+        try {
+            Files.createDirectories(activeFile.toAbsolutePath().getParent());
+            openFile(System.currentTimeMillis());
+        } catch (IOException ex) {
+            addError("Failed to open file " + activeFile + " for appender \"" + name + "\".", ex);
+            return;
+        }
+
+        long forceMillis = forceInterval.getMilliseconds();
+        if (forceMillis > 0) {
+            forceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mapped-file-appender-force-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            forceExecutor.scheduleWithFixedDelay(this::force, forceMillis, forceMillis, TimeUnit.MILLISECONDS);
+        }
+
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+
+        if (forceExecutor != null) {
+            forceExecutor.shutdownNow();
+        }
+
+        lock.lock();
+        try {
+            closeFile();
+        } catch (IOException ex) {
+            addError("Failed to close file " + activeFile + " of appender \"" + name + "\".", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        byte[] bytes = encoder.encode(event);
+
+        lock.lock();
+        try {
+            if (channel == null) {
+                openFile(event.getTimeStamp());
+            }
+            if (shouldRollover(event.getTimeStamp(), bytes.length)) {
+                rollover(event.getTimeStamp());
+            }
+            write(bytes);
+        } catch (IOException ex) {
+            addError("Failed to write to file " + activeFile + " of appender \"" + name + "\".", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean shouldRollover(long timestamp, int length) {
+        long position = regionStart + region.position();
+        if (position == 0 || timestamp < rolloverRetryTime) {
+            return false;
+        }
+        return timestamp >= nextRolloverTime || position + length > maxFileSize.getSize();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!region.hasRemaining()) {
+                mapRegion(regionStart + region.capacity());
+            }
+            int length = Math.min(region.remaining(), bytes.length - offset);
+            region.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void force() {
+        lock.lock();
+        try {
+            if (region != null) {
+                region.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollover(long timestamp) throws IOException {
+        long startTime = fileStartTime;
+        closeFile();
+
+        String rolledName = rolledFileName(startTime);
+        Path rolledFile = activeFile.resolveSibling(rolledName);
+        for (int i = 1; Files.exists(rolledFile); i++) {
+            rolledFile = activeFile.resolveSibling(rolledName + '.' + i);
+        }
+        try {
+            Files.move(activeFile, rolledFile);
+        } catch (IOException ex) {
+            addError("Failed to roll over file " + activeFile + " of appender \"" + name
+                    + "\", appending to it until next try.", ex);
+            openFile(startTime);
+            rolloverRetryTime = timestamp + ROLLOVER_RETRY_MILLIS;
+            return;
+        }
+
+        openFile(timestamp);
+    }
+
+    private void openFile(long timestamp) throws IOException {
+        channel = FileChannel.open(activeFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = findEnd(channel, regionSize.getSize());
+            mapRegion(end);
+        } catch (IOException ex) {
+            closeChannel();
+            throw ex;
+        }
+        fileStartTime = timestamp;
+        nextRolloverTime = nextRolloverTime(timestamp);
+        rolloverRetryTime = Long.MIN_VALUE;
+    }
+
+    private void mapRegion(long position) throws IOException {
+        MappedByteBuffer next = channel.map(FileChannel.MapMode.READ_WRITE, position, regionSize.getSize());
+        if (region != null) {
+            region.force();
+            unmap(region);
+        }
+        region = next;
+        regionStart = position;
+    }
+
+    /**
+     * Force and unmap the region, then truncate zeros of the region after data. Channel is closed also when
+     * truncating fails, so the next event opens the file again.
+     */
+    @SuppressWarnings("PMD.NullAssignment")
+    private void closeFile() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        long end = regionStart + region.position();
+        region.force();
+        unmap(region);
+        region = null;
+
+        try {
+            channel.truncate(end);
+            channel.force(true);
+        } finally {
+            closeChannel();
+        }
+    }
+
+    @SuppressWarnings("PMD.NullAssignment")
+    private void closeChannel() throws IOException {
+        FileChannel closed = channel;
+        channel = null;
+        closed.close();
+    }
+
+    private long nextRolloverTime(long timestamp) {
+        if (rolloverPeriod == null || rolloverPeriod.getMilliseconds() <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long period = rolloverPeriod.getMilliseconds();
+        long offset = TimeZone.getDefault().getOffset(timestamp);
+
+        return ((timestamp + offset) / period + 1) * period - offset;
+    }
+
+    private String rolledFileName(long timestamp) {
+        String date = new SimpleDateFormat(ROLLED_FILE_DATE_PATTERN).format(new Date(timestamp));
+        int extension = fileName.lastIndexOf('.');
+        if (extension <= 0) {
+            return fileName + '-' + date;
+        }
+        return fileName.substring(0, extension) + '-' + date + fileName.substring(extension);
+    }
+
+    /**
+     * Find end of data in the file. Unclean shutdown can leave zeros of mapped region after data.
+     */
+    private static long findEnd(FileChannel channel, long regionSize) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+
+        long start = Math.max(0, size - regionSize);
+        MappedByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, start, size - start);
+        int index = tail.limit() - 1;
+        while (index >= 0 && tail.get(index) == 0) {
+            index--;
+        }
+        unmap(tail);
+        return start + index + 1;
+    }
+
+    /**
+     * Release mapping without waiting for garbage collector, buffer must not be used afterwards.
+     * Mapping is left to garbage collector when the JDK does not allow to release it.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (Unmapper.CLEANER != null) {
+            Unmapper.CLEANER.accept(buffer);
+        }
+    }
+
+    /**
+     * Cleaner of mapped buffers, {@code Unsafe.invokeCleaner} since Java 9 and {@code DirectBuffer.cleaner()}
+     * in Java 8, resolved once.
+     */
+    private static final class Unmapper {
+
+        static final Consumer<ByteBuffer> CLEANER = resolve();
+
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        private static Consumer<ByteBuffer> resolve() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                Object unsafe = theUnsafe.get(null);
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                return buffer -> invoke(invokeCleaner, unsafe, buffer);
+            } catch (NoSuchMethodException ex) {
+                return java8Cleaner();
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return null;
+            }
+        }
+
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        private static Consumer<ByteBuffer> java8Cleaner() {
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return buffer -> invoke(clean, invoke(cleaner, buffer, null), null);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return null;
+            }
+        }
+
+        private static Object invoke(Method method, Object target, ByteBuffer argument) {
+            try {
+                return argument != null ? method.invoke(target, argument) : method.invoke(target);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.github.mstawowiak.commons.logging.logback.encoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer which writes JSON values encoded in UTF-8 directly, without intermediate strings.
+ */
+final class JsonByteWriter {
+
+    private static final byte[] HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+    private static final byte[] MIN_LONG = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_LONG_DIGITS = 20;
+
+    private final int initialCapacity;
+    private byte[] buffer;
+    private int size;
+
+    JsonByteWriter(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    void reset(int maxRetainedCapacity) {
+        if (buffer.length > maxRetainedCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+        size = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    JsonByteWriter writeByte(char ascii) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) ascii;
+        return this;
+    }
+
+    /**
+     * Write characters as they are, must not contain characters which require escaping.
+     */
+    JsonByteWriter writeAscii(String ascii) {
+        int length = ascii.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) ascii.charAt(i);
+        }
+        return this;
+    }
+
+    JsonByteWriter writeName(String ascii) {
+        return writeByte('"').writeAscii(ascii).writeByte('"').writeByte(':');
+    }
+
+    JsonByteWriter writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            ensureCapacity(MIN_LONG.length);
+            System.arraycopy(MIN_LONG, 0, buffer, size, MIN_LONG.length);
+            size += MIN_LONG.length;
+            return this;
+        }
+
+        ensureCapacity(MAX_LONG_DIGITS);
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[size++] = '-';
+            remaining = -remaining;
+        }
+
+        int start = size;
+        do {
+            buffer[size++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+
+        for (int i = start, j = size - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+        return this;
+    }
+
+    /**
+     * Write quoted and escaped string or {@code null}.
+     */
+    JsonByteWriter writeString(CharSequence value) {
+        if (value == null) {
+            return writeAscii("null");
+        }
+        writeByte('"');
+        writeEscaped(value, 0, value.length());
+        return writeByte('"');
+    }
+
+    /**
+     * Write escaped characters of the value, without quotes. Plain ASCII characters are copied
+     * in a tight loop, other are encoded one by one.
+     */
+    @SuppressWarnings("PMD.AvoidReassigningLoopVariables")
+    JsonByteWriter writeEscaped(CharSequence value, int start, int end) {
+        ensureCapacity(end - start);
+        byte[] bytes = buffer;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                bytes[size++] = (byte) c;
+            } else {
+                i = writeSpecial(value, i, end);
+                ensureCapacity(end - i - 1);
+                bytes = buffer;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Write character which has to be escaped or encoded in more than one byte.
+     *
+     * @return index of the last written character
+     */
+    @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+    private int writeSpecial(CharSequence value, int index, int end) {
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            writeEscapedAscii(c);
+        } else if (c < 0x800) {
+            ensureCapacity(2);
+            buffer[size++] = (byte) (0xC0 | c >> 6);
+            buffer[size++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && index + 1 < end
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            ensureCapacity(4);
+            buffer[size++] = (byte) (0xF0 | codePoint >> 18);
+            buffer[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            buffer[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            buffer[size++] = (byte) (0x80 | codePoint & 0x3F);
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            writeByte('?');
+        } else {
+            ensureCapacity(3);
+            buffer[size++] = (byte) (0xE0 | c >> 12);
+            buffer[size++] = (byte) (0x80 | c >> 6 & 0x3F);
+            buffer[size++] = (byte) (0x80 | c & 0x3F);
+        }
+        return index;
+    }
+
+    private void writeEscapedAscii(char c) {
+        ensureCapacity(6);
+        switch (c) {
+            case '"':
+            case '\\':
+                buffer[size++] = '\\';
+                buffer[size++] = (byte) c;
+                break;
+            case '\n':
+                buffer[size++] = '\\';
+                buffer[size++] = 'n';
+                break;
+            case '\r':
+                buffer[size++] = '\\';
+                buffer[size++] = 'r';
+                break;
+            case '\t':
+                buffer[size++] = '\\';
+                buffer[size++] = 't';
+                break;
+            default:
+                if (c < 0x20) {
+                    buffer[size++] = '\\';
+                    buffer[size++] = 'u';
+                    buffer[size++] = '0';
+                    buffer[size++] = '0';
+                    buffer[size++] = HEX[c >> 4];
+                    buffer[size++] = HEX[c & 0xF];
+                } else {
+                    buffer[size++] = (byte) c;
+                }
+                break;
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
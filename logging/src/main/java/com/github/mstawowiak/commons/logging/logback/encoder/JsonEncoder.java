@@ -0,0 +1,252 @@
+package com.github.mstawowiak.commons.logging.logback.encoder;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Logback encoder which writes events as JSON lines directly into a reusable per-thread byte buffer.
+ *
+ * Message pattern is formatted while it is written, context of {@link ContextLogger} is written as separate field
+ * when logger works in {@code ContextMode.MDC}. Example of usage in logback.xml:
+ * <pre>
+ * &lt;encoder class="com.github.mstawowiak.commons.logging.logback.encoder.JsonEncoder"/&gt;
+ * </pre>
+ */
+public class JsonEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final String DELIMITER = "{}";
+    private static final char ESCAPE = '\\';
+
+    private final ThreadLocal<JsonByteWriter> writers =
+            ThreadLocal.withInitial(() -> new JsonByteWriter(INITIAL_CAPACITY));
+
+    private boolean includeArguments = true;
+    private boolean includeMdc = true;
+
+    /**
+     * @param includeArguments whether arguments of message are written as separate field, from logback.xml
+     */
+    public void setIncludeArguments(boolean includeArguments) {
+        this.includeArguments = includeArguments;
+    }
+
+    /**
+     * @param includeMdc whether MDC properties other than context are written, from logback.xml
+     */
+    public void setIncludeMdc(boolean includeMdc) {
+        this.includeMdc = includeMdc;
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        JsonByteWriter writer = writers.get();
+        writer.reset(MAX_RETAINED_CAPACITY);
+
+        writer.writeByte('{')
+                .writeName("timestamp").writeLong(event.getTimeStamp())
+                .writeByte(',').writeName("level").writeString(event.getLevel().levelStr)
+                .writeByte(',').writeName("logger").writeString(event.getLoggerName())
+                .writeByte(',').writeName("thread").writeString(event.getThreadName());
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        String context = mdc.get(ContextLogger.CONTEXT_MDC_KEY);
+        if (context != null) {
+            writer.writeByte(',').writeName("context").writeString(context);
+        }
+
+        writer.writeByte(',').writeName("message");
+        writeMessage(writer, event.getMessage(), event.getArgumentArray());
+
+        if (includeArguments && event.getArgumentArray() != null) {
+            writeArguments(writer, event.getArgumentArray());
+        }
+        if (includeMdc) {
+            writeMdc(writer, mdc);
+        }
+        if (event.getThrowableProxy() != null) {
+            writer.writeByte(',').writeName("throwable").writeByte('"');
+            writeThrowable(writer, event.getThrowableProxy(), "");
+            writer.writeByte('"');
+        }
+
+        writer.writeByte('}').writeAscii(CoreConstants.LINE_SEPARATOR);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    /**
+     * Write message pattern with arguments in place of {@code {}}, following SLF4J formatting rules.
+     */
+    private static void writeMessage(JsonByteWriter writer, String pattern, Object[] args) {
+        if (pattern == null) {
+            writer.writeString(null);
+            return;
+        }
+
+        writer.writeByte('"');
+        int start = 0;
+        int argIndex = 0;
+        while (args != null && argIndex < args.length) {
+            int delimiter = pattern.indexOf(DELIMITER, start);
+            if (delimiter < 0) {
+                break;
+            }
+
+            if (isEscaped(pattern, delimiter)) {
+                if (isEscaped(pattern, delimiter - 1)) {
+                    writer.writeEscaped(pattern, start, delimiter - 1);
+                    writeValue(writer, args[argIndex++]);
+                } else {
+                    writer.writeEscaped(pattern, start, delimiter - 1).writeAscii(DELIMITER);
+                }
+            } else {
+                writer.writeEscaped(pattern, start, delimiter);
+                writeValue(writer, args[argIndex++]);
+            }
+            start = delimiter + DELIMITER.length();
+        }
+        writer.writeEscaped(pattern, start, pattern.length()).writeByte('"');
+    }
+
+    private static boolean isEscaped(String pattern, int index) {
+        return index > 0 && pattern.charAt(index - 1) == ESCAPE;
+    }
+
+    private static void writeArguments(JsonByteWriter writer, Object[] args) {
+        writer.writeByte(',').writeName("arguments").writeByte('[');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                writer.writeByte(',');
+            }
+            if (args[i] == null) {
+                writer.writeAscii("null");
+            } else {
+                writer.writeByte('"');
+                writeValue(writer, args[i]);
+                writer.writeByte('"');
+            }
+        }
+        writer.writeByte(']');
+    }
+
+    private static void writeMdc(JsonByteWriter writer, Map<String, String> mdc) {
+        if (mdc.isEmpty() || mdc.size() == 1 && mdc.containsKey(ContextLogger.CONTEXT_MDC_KEY)) {
+            return;
+        }
+
+        writer.writeByte(',').writeName("mdc").writeByte('{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            if (ContextLogger.CONTEXT_MDC_KEY.equals(entry.getKey())) {
+                continue;
+            }
+            if (!first) {
+                writer.writeByte(',');
+            }
+            writer.writeString(entry.getKey()).writeByte(':').writeString(entry.getValue());
+            first = false;
+        }
+        writer.writeByte('}');
+    }
+
+    /**
+     * Write escaped value, character sequences are written without conversion to string.
+     */
+    private static void writeValue(JsonByteWriter writer, Object value) {
+        if (value instanceof CharSequence) {
+            CharSequence chars = (CharSequence) value;
+            writer.writeEscaped(chars, 0, chars.length());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            writer.writeLong(((Number) value).longValue());
+        } else {
+            String string = value != null && value.getClass().isArray() ? arrayToString(value) : String.valueOf(value);
+            writer.writeEscaped(string, 0, string.length());
+        }
+    }
+
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private static String arrayToString(Object array) {
+        if (array instanceof Object[]) {
+            return Arrays.deepToString((Object[]) array);
+        } else if (array instanceof int[]) {
+            return Arrays.toString((int[]) array);
+        } else if (array instanceof long[]) {
+            return Arrays.toString((long[]) array);
+        } else if (array instanceof byte[]) {
+            return Arrays.toString((byte[]) array);
+        } else if (array instanceof char[]) {
+            return Arrays.toString((char[]) array);
+        } else if (array instanceof short[]) {
+            return Arrays.toString((short[]) array);
+        } else if (array instanceof boolean[]) {
+            return Arrays.toString((boolean[]) array);
+        } else if (array instanceof float[]) {
+            return Arrays.toString((float[]) array);
+        }
+        return Arrays.toString((double[]) array);
+    }
+
+    private static void writeThrowable(JsonByteWriter writer, IThrowableProxy throwable, String prefix) {
+        writer.writeEscaped(prefix, 0, prefix.length());
+        writer.writeEscaped(throwable.getClassName(), 0, throwable.getClassName().length());
+        if (throwable.getMessage() != null) {
+            writer.writeAscii(": ").writeEscaped(throwable.getMessage(), 0, throwable.getMessage().length());
+        }
+
+        StackTraceElementProxy[] frames = throwable.getStackTraceElementProxyArray();
+        int framesToWrite = frames.length - throwable.getCommonFrames();
+        for (int i = 0; i < framesToWrite; i++) {
+            writeFrame(writer, frames[i].getStackTraceElement());
+        }
+        if (throwable.getCommonFrames() > 0) {
+            writer.writeAscii("\\n\\t... ").writeLong(throwable.getCommonFrames()).writeAscii(" common frames omitted");
+        }
+
+        for (IThrowableProxy suppressed : throwable.getSuppressed()) {
+            writer.writeAscii("\\n");
+            writeThrowable(writer, suppressed, CoreConstants.SUPPRESSED);
+        }
+        if (throwable.getCause() != null) {
+            writer.writeAscii("\\n");
+            writeThrowable(writer, throwable.getCause(), CoreConstants.CAUSED_BY);
+        }
+    }
+
+    private static void writeFrame(JsonByteWriter writer, StackTraceElement frame) {
+        writer.writeAscii("\\n\\tat ")
+                .writeEscaped(frame.getClassName(), 0, frame.getClassName().length())
+                .writeByte('.')
+                .writeEscaped(frame.getMethodName(), 0, frame.getMethodName().length())
+                .writeByte('(');
+        if (frame.isNativeMethod()) {
+            writer.writeAscii("Native Method");
+        } else if (frame.getFileName() == null) {
+            writer.writeAscii("Unknown Source");
+        } else {
+            writer.writeEscaped(frame.getFileName(), 0, frame.getFileName().length());
+            if (frame.getLineNumber() >= 0) {
+                writer.writeByte(':').writeLong(frame.getLineNumber());
+            }
+        }
+        writer.writeByte(')');
+    }
+}
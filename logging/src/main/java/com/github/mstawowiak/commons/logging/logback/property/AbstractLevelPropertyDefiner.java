@@ -1,9 +1,20 @@
 package com.github.mstawowiak.commons.logging.logback.property;
 
 import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
+/**
+ * Level property. When value changes in watched properties file,
+ * level of configured loggers is updated without reconfiguration of logging context.
+ */
 abstract class AbstractLevelPropertyDefiner extends AbstractPropertyDefiner<Level> {
 
+    private List<String> loggers = Collections.emptyList();
+
     public AbstractLevelPropertyDefiner() {
         defaultValue = defaultValue().levelStr;
     }
@@ -11,5 +22,31 @@ abstract class AbstractLevelPropertyDefiner extends AbstractPropertyDefiner<Leve
     @Override
     public void setDefault(String defaultFromLogbackXml) {
         defaultValue = Level.toLevel(defaultFromLogbackXml, defaultValue()).levelStr;
+        invalidate();
+    }
+
+    /**
+     * Set loggers which level is updated when property changes.
+     *
+     * @param loggers comma separated names of loggers, from logback.xml
+     */
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected void onChange(String newValue) {
+        if (!(getContext() instanceof LoggerContext)) {
+            return;
+        }
+
+        LoggerContext loggerContext = (LoggerContext) getContext();
+        Level level = Level.toLevel(newValue, defaultValue());
+        for (String name : loggers) {
+            loggerContext.getLogger(name).setLevel(level);
+        }
     }
 }
@@ -1,19 +1,162 @@
 package com.github.mstawowiak.commons.logging.logback.property;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
 import ch.qos.logback.core.PropertyDefinerBase;
+import java.io.IOException;
 
+/**
+ * Value is resolved from watched properties file (if set), system property or default value
+ * and cached until the file changes. When the file cannot be read, error is reported to logback status
+ * and value falls back to system property or default value. Watching stops with the logger context.
+ */
 abstract class AbstractPropertyDefiner<T> extends PropertyDefinerBase {
 
+    static final String PROPERTIES_FILE_KEY = "com.github.mstawowiak.commons.logging.properties.file";
+
     protected String defaultValue;
 
+    private String file;
+    private volatile WatchedPropertiesFile propertiesFile;
+    private volatile boolean fileUnavailable;
+
+    private volatile String value;
+
     public abstract String propertyKey();
 
     public abstract T defaultValue();
 
     public abstract void setDefault(String defaultFromLogbackXml);
 
+    /**
+     * Set properties file which is watched for changes of property value.
+     * By default file is taken from {@value #PROPERTIES_FILE_KEY} system property.
+     *
+     * @param file path of properties file, from logback.xml
+     */
+    public void setFile(String file) {
+        this.file = file;
+        stopWatching();
+        invalidate();
+    }
+
     @Override
     public String getPropertyValue() {
+        String current = value;
+        if (current == null) {
+            current = resolveValue();
+            onResolve(current);
+            value = current;
+        }
+        return current;
+    }
+
+    /**
+     * Called when value of property is resolved and cached, before it is returned.
+     *
+     * @param resolvedValue resolved value of property
+     */
+    protected void onResolve(String resolvedValue) {
+    }
+
+    /**
+     * Called when value of property is changed in watched properties file.
+     *
+     * @param newValue new value of property
+     */
+    protected void onChange(String newValue) {
+    }
+
+    /**
+     * Resolve value again, changes are applied by {@link #onChange} before the new value is visible.
+     */
+    void reload() {
+        String previous = value;
+        String current = resolveValue();
+
+        if (!current.equals(previous)) {
+            onChange(current);
+        }
+        value = current;
+    }
+
+    void invalidate() {
+        value = null;
+    }
+
+    private String resolveValue() {
+        WatchedPropertiesFile watchedFile = propertiesFile();
+        String fromFile = watchedFile != null ? watchedFile.getProperty(propertyKey()) : null;
+        if (fromFile != null && !fromFile.trim().isEmpty()) {
+            return fromFile.trim();
+        }
         return System.getProperty(propertyKey(), defaultValue);
     }
+
+    private synchronized WatchedPropertiesFile propertiesFile() {
+        if (propertiesFile == null && !fileUnavailable) {
+            String path = file != null ? file : System.getProperty(PROPERTIES_FILE_KEY);
+            if (path == null || path.isEmpty()) {
+                return null;
+            }
+
+            try {
+                propertiesFile = WatchedPropertiesFile.watch(path, this);
+                stopWatchingWithContext();
+            } catch (IOException ex) {
+                fileUnavailable = true;
+                addError("Failed to watch logging properties file " + path + ", using default values", ex);
+            }
+        }
+        return propertiesFile;
+    }
+
+    synchronized void stopWatching() {
+        if (propertiesFile != null) {
+            propertiesFile.removeDefiner(this);
+            propertiesFile = null;
+        }
+        fileUnavailable = false;
+    }
+
+    WatchedPropertiesFile getPropertiesFile() {
+        return propertiesFile;
+    }
+
+    private void stopWatchingWithContext() {
+        if (getContext() instanceof LoggerContext) {
+            ((LoggerContext) getContext()).addListener(new StopWatchingListener());
+        }
+    }
+
+    /**
+     * Stops watching of properties file when logger context is reset or stopped.
+     */
+    private final class StopWatchingListener implements LoggerContextListener {
+
+        @Override
+        public boolean isResetResistant() {
+            return false;
+        }
+
+        @Override
+        public void onStart(LoggerContext context) {
+        }
+
+        @Override
+        public void onReset(LoggerContext context) {
+            stopWatching();
+        }
+
+        @Override
+        public void onStop(LoggerContext context) {
+            stopWatching();
+        }
+
+        @Override
+        public void onLevelChange(Logger logger, Level level) {
+        }
+    }
 }
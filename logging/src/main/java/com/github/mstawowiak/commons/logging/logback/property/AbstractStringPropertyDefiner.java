@@ -10,6 +10,7 @@ abstract class AbstractStringPropertyDefiner extends AbstractPropertyDefiner<Str
     public void setDefault(String defaultFromLogbackXml) {
         if (defaultFromLogbackXml != null && !defaultFromLogbackXml.isEmpty()) {
             defaultValue = defaultFromLogbackXml;
+            invalidate();
         }
     }
 }
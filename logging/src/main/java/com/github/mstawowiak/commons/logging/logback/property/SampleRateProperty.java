@@ -0,0 +1,59 @@
+package com.github.mstawowiak.commons.logging.logback.property;
+
+import com.github.mstawowiak.commons.logging.sampling.SampleRate;
+
+/**
+ * Property for set rate of contexts sampled by {@code SamplingContextLogger}.
+ * Value is set as {@link SampleRate#global()} when it is resolved and when it changes.
+ */
+public class SampleRateProperty extends AbstractPropertyDefiner<Double> {
+
+    static final String SAMPLE_RATE_KEY = "com.github.mstawowiak.commons.logging.sample.rate";
+
+    private static final double SAMPLE_RATE_DEFAULT = 1.0;
+
+    public SampleRateProperty() {
+        defaultValue = String.valueOf(defaultValue());
+    }
+
+    @Override
+    public String propertyKey() {
+        return SAMPLE_RATE_KEY;
+    }
+
+    @Override
+    public Double defaultValue() {
+        return SAMPLE_RATE_DEFAULT;
+    }
+
+    @Override
+    public void setDefault(String defaultFromLogbackXml) {
+        defaultValue = String.valueOf(toRate(defaultFromLogbackXml, defaultValue()));
+        invalidate();
+    }
+
+    @Override
+    protected void onResolve(String resolvedValue) {
+        SampleRate.global().set(toRate(resolvedValue, defaultValue()));
+    }
+
+    @Override
+    protected void onChange(String newValue) {
+        SampleRate.global().set(toRate(newValue, defaultValue()));
+    }
+
+    /**
+     * Convert the string to a sample rate. If the conversion fails, returns default value.
+     */
+    static double toRate(String value, double defaultRate) {
+        if (value == null) {
+            return defaultRate;
+        }
+        try {
+            double rate = Double.parseDouble(value.trim());
+            return rate >= 0.0 && rate <= 1.0 ? rate : defaultRate;
+        } catch (NumberFormatException ex) {
+            return defaultRate;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.mstawowiak.commons.logging.logback.property;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Properties file watched by {@link WatchService}. Properties are read once and reloaded only when
+ * the file changes, registered property definers are reloaded after each change. Watching stops when
+ * the last definer is removed.
+ */
+final class WatchedPropertiesFile {
+
+    private static final ConcurrentMap<Path, WatchedPropertiesFile> FILES = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final WatchService watchService;
+    private final Set<AbstractPropertyDefiner<?>> definers = new CopyOnWriteArraySet<>();
+
+    private volatile Properties properties;
+    private boolean closed;
+
+    private WatchedPropertiesFile(Path path) throws IOException {
+        this.path = path;
+        this.properties = load(path);
+        this.watchService = register(path);
+    }
+
+    /**
+     * Get watched file and register definer reloaded when the file changes, watching starts with first
+     * definer registered for the given path.
+     *
+     * @param file path of properties file
+     * @param definer property definer reloaded after changes
+     * @return watched properties file shared by all definers
+     * @throws IOException when the file cannot be read or its directory cannot be watched
+     */
+    static WatchedPropertiesFile watch(String file, AbstractPropertyDefiner<?> definer) throws IOException {
+        Path path = FileSystems.getDefault().getPath(file).toAbsolutePath().normalize();
+
+        while (true) {
+            WatchedPropertiesFile watchedFile;
+            try {
+                watchedFile = FILES.computeIfAbsent(path, key -> {
+                    try {
+                        WatchedPropertiesFile created = new WatchedPropertiesFile(key);
+                        created.startWatching();
+                        return created;
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            if (watchedFile.addDefiner(definer)) {
+                return watchedFile;
+            }
+            // file was closed by last definer meanwhile
+            FILES.remove(path, watchedFile);
+        }
+    }
+
+    String getProperty(String key) {
+        return properties.getProperty(key);
+    }
+
+    /**
+     * Unregister definer, watching stops when no definer is left.
+     */
+    synchronized void removeDefiner(AbstractPropertyDefiner<?> definer) {
+        if (definers.remove(definer) && definers.isEmpty()) {
+            closed = true;
+            FILES.remove(path, this);
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                definer.addWarn("Failed to stop watching logging properties file " + path, ex);
+            }
+        }
+    }
+
+    boolean isWatching() {
+        return FILES.get(path) == this;
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    void reload() {
+        try {
+            properties = load(path);
+        } catch (IOException ex) {
+            for (AbstractPropertyDefiner<?> definer : definers) {
+                definer.addError("Failed to reload logging properties from " + path + ", keeping previous values",
+                        ex);
+            }
+            return;
+        }
+        for (AbstractPropertyDefiner<?> definer : definers) {
+            try {
+                definer.reload();
+            } catch (RuntimeException ex) {
+                definer.addError("Failed to apply logging properties from " + path, ex);
+            }
+        }
+    }
+
+    private synchronized boolean addDefiner(AbstractPropertyDefiner<?> definer) {
+        if (closed) {
+            return false;
+        }
+        definers.add(definer);
+        return true;
+    }
+
+    private static Properties load(Path path) throws IOException {
+        Properties loaded = new Properties();
+        if (Files.exists(path)) {
+            try (InputStream is = Files.newInputStream(path)) {
+                loaded.load(is);
+            }
+        }
+        return loaded;
+    }
+
+    private static WatchService register(Path path) throws IOException {
+        Path directory = path.getParent();
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException ex) {
+            watchService.close();
+            throw ex;
+        }
+        return watchService;
+    }
+
+    private void startWatching() {
+        Thread watcher = new Thread(this::watch, "logging-properties-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch() {
+        Path fileName = path.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                if (changed) {
+                    reload();
+                }
+
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // stop watching
+        }
+    }
+}
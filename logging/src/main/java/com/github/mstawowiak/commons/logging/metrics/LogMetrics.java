@@ -0,0 +1,99 @@
+package com.github.mstawowiak.commons.logging.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of {@link LoggerMetrics} and counters of dropped events. Events dropped by a logger are counted
+ * in its {@link LoggerMetrics}, registered counters sum them up per source. Global registry is exposed by JMX
+ * as {@value #OBJECT_NAME}.
+ */
+public final class LogMetrics implements LogMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.github.mstawowiak.commons.logging:type=LogMetrics";
+
+    private static final LogMetrics GLOBAL = new LogMetrics();
+
+    static {
+        GLOBAL.registerMBean();
+    }
+
+    private final ConcurrentMap<String, LoggerMetrics> loggers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> droppedCounters = new ConcurrentHashMap<>();
+
+    private final int stripes = Runtime.getRuntime().availableProcessors();
+
+    private volatile boolean registered;
+
+    public static LogMetrics global() {
+        return GLOBAL;
+    }
+
+    public LoggerMetrics getLoggerMetrics(String name) {
+        LoggerMetrics metrics = loggers.get(name);
+        if (metrics == null) {
+            metrics = loggers.computeIfAbsent(name, key -> new LoggerMetrics(key, stripes));
+        }
+        return metrics;
+    }
+
+    /**
+     * Register source of dropped events, e.g. {@code AsyncLogDispatcher::getDroppedCount}.
+     *
+     * @param source name of source
+     * @param counter counter of dropped events
+     */
+    public void registerDroppedCounter(String source, LongSupplier counter) {
+        droppedCounters.put(source, counter);
+    }
+
+    /**
+     * @return true if this registry was registered by JMX as {@value #OBJECT_NAME}
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    @Override
+    public long getTotalEvents() {
+        return loggers.values().stream().mapToLong(metrics -> metrics.snapshot().getTotalEvents()).sum();
+    }
+
+    @Override
+    public List<LoggerMetricsSnapshot> getLoggers() {
+        return loggers.values().stream()
+                .map(LoggerMetrics::snapshot)
+                .sorted(Comparator.comparingLong(LoggerMetricsSnapshot::getTotalEvents).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<String, Long> getDroppedEvents() {
+        Map<String, Long> dropped = new TreeMap<>();
+        droppedCounters.forEach((source, counter) -> dropped.put(source, counter.getAsLong()));
+        return dropped;
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+                registered = true;
+            }
+        } catch (JMException | SecurityException ex) {
+            // metrics are still available by pull API, failure is reported by isRegistered()
+        }
+    }
+}
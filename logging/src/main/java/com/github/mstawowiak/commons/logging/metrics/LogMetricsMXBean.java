@@ -0,0 +1,22 @@
+package com.github.mstawowiak.commons.logging.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of {@link LogMetrics}.
+ */
+public interface LogMetricsMXBean {
+
+    long getTotalEvents();
+
+    /**
+     * @return metrics of loggers sorted by number of events, noisiest first
+     */
+    List<LoggerMetricsSnapshot> getLoggers();
+
+    /**
+     * @return number of dropped events per registered source
+     */
+    Map<String, Long> getDroppedEvents();
+}
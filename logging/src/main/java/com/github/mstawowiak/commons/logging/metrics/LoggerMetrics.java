@@ -0,0 +1,68 @@
+package com.github.mstawowiak.commons.logging.metrics;
+
+import com.github.mstawowiak.commons.metrics.LatencyHistogram;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.event.Level;
+
+/**
+ * Metrics of one logger: number of logged events per level, latency of logging calls and number of events
+ * dropped by overflow of asynchronous logger, rate limiting or sampling.
+ */
+public final class LoggerMetrics {
+
+    private static final int LEVELS = 5;
+
+    private final String name;
+    private final LongAdder[] events = new LongAdder[LEVELS];
+    private final LatencyHistogram latency;
+    private final LongAdder dropped = new LongAdder();
+
+    LoggerMetrics(String name, int stripes) {
+        this.name = name;
+        this.latency = new LatencyHistogram(stripes);
+        for (int i = 0; i < LEVELS; i++) {
+            events[i] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record logging call.
+     *
+     * @param level level of message, one of {@code LocationAwareLogger} level constants
+     * @param nanos duration of call in nanoseconds
+     */
+    public void record(int level, long nanos) {
+        events[levelIndex(level)].increment();
+        latency.record(nanos);
+    }
+
+    /**
+     * Record event which was dropped instead of being logged.
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getEventCount(Level level) {
+        return events[levelIndex(level.toInt())].sum();
+    }
+
+    public LoggerMetricsSnapshot snapshot() {
+        return new LoggerMetricsSnapshot(name,
+                events[0].sum(), events[1].sum(), events[2].sum(), events[3].sum(), events[4].sum(),
+                latency.mean(), latency.percentile(50.0), latency.percentile(90.0),
+                latency.percentile(99.0), latency.percentile(99.9), latency.max(), dropped.sum());
+    }
+
+    private static int levelIndex(int level) {
+        return Math.min(LEVELS - 1, Math.max(0, level / Level.DEBUG.toInt()));
+    }
+}
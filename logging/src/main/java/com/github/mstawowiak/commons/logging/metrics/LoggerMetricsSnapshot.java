@@ -0,0 +1,108 @@
+package com.github.mstawowiak.commons.logging.metrics;
+
+/**
+ * Immutable snapshot of {@link LoggerMetrics}. Latencies are in nanoseconds.
+ */
+@SuppressWarnings("PMD.ExcessiveParameterList")
+public final class LoggerMetricsSnapshot {
+
+    private final String name;
+
+    private final long traceEvents;
+    private final long debugEvents;
+    private final long infoEvents;
+    private final long warnEvents;
+    private final long errorEvents;
+
+    private final double meanLatency;
+    private final long p50Latency;
+    private final long p90Latency;
+    private final long p99Latency;
+    private final long p999Latency;
+    private final long maxLatency;
+
+    private final long droppedEvents;
+
+    LoggerMetricsSnapshot(String name, long traceEvents, long debugEvents, long infoEvents, long warnEvents,
+            long errorEvents, double meanLatency, long p50Latency, long p90Latency, long p99Latency,
+            long p999Latency, long maxLatency, long droppedEvents) {
+        this.name = name;
+        this.traceEvents = traceEvents;
+        this.debugEvents = debugEvents;
+        this.infoEvents = infoEvents;
+        this.warnEvents = warnEvents;
+        this.errorEvents = errorEvents;
+        this.meanLatency = meanLatency;
+        this.p50Latency = p50Latency;
+        this.p90Latency = p90Latency;
+        this.p99Latency = p99Latency;
+        this.p999Latency = p999Latency;
+        this.maxLatency = maxLatency;
+        this.droppedEvents = droppedEvents;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTraceEvents() {
+        return traceEvents;
+    }
+
+    public long getDebugEvents() {
+        return debugEvents;
+    }
+
+    public long getInfoEvents() {
+        return infoEvents;
+    }
+
+    public long getWarnEvents() {
+        return warnEvents;
+    }
+
+    public long getErrorEvents() {
+        return errorEvents;
+    }
+
+    public long getTotalEvents() {
+        return traceEvents + debugEvents + infoEvents + warnEvents + errorEvents;
+    }
+
+    public double getMeanLatency() {
+        return meanLatency;
+    }
+
+    public long getP50Latency() {
+        return p50Latency;
+    }
+
+    public long getP90Latency() {
+        return p90Latency;
+    }
+
+    public long getP99Latency() {
+        return p99Latency;
+    }
+
+    public long getP999Latency() {
+        return p999Latency;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * @return number of events dropped by overflow of asynchronous logger, rate limiting or sampling
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    @Override
+    public String toString() {
+        return "LoggerMetrics [name: " + name + ", events: " + getTotalEvents() + ", dropped: " + droppedEvents
+                + ", p50: " + p50Latency + "ns, p99: " + p99Latency + "ns, max: " + maxLatency + "ns]";
+    }
+}
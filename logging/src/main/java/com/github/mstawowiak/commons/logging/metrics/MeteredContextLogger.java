@@ -0,0 +1,37 @@
+package com.github.mstawowiak.commons.logging.metrics;
+
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import com.github.mstawowiak.commons.logging.ForwardingContextLogger;
+
+/**
+ * {@link ContextLogger} which records number and latency of logging calls in {@link LoggerMetrics}.
+ * Calls on disabled level are not measured, so they cost the same as without metrics.
+ */
+public class MeteredContextLogger extends ForwardingContextLogger {
+
+    private final LoggerMetrics metrics;
+
+    public MeteredContextLogger(ContextLogger delegate) {
+        this(delegate, LogMetrics.global());
+    }
+
+    public MeteredContextLogger(ContextLogger delegate, LogMetrics logMetrics) {
+        super(delegate);
+        this.metrics = logMetrics.getLoggerMetrics(delegate.getName());
+    }
+
+    public LoggerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    protected boolean isTimed() {
+        return true;
+    }
+
+    @Override
+    protected void afterLog(int level, long nanos) {
+        metrics.record(level, nanos);
+        super.afterLog(level, nanos);
+    }
+}
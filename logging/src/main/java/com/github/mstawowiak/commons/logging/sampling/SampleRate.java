@@ -0,0 +1,72 @@
+package com.github.mstawowiak.commons.logging.sampling;
+
+/**
+ * Rate of contexts which are sampled in. Decision is consistent for a context,
+ * it is made by hash of context string.
+ */
+public final class SampleRate {
+
+    private static final SampleRate GLOBAL = new SampleRate(1.0);
+
+    private static final long HASH_RANGE = 1L << 32;
+
+    private volatile long threshold;
+
+    public SampleRate(double rate) {
+        set(rate);
+    }
+
+    /**
+     * @return rate shared by loggers created without explicit rate, set by {@code SampleRateProperty}
+     */
+    public static SampleRate global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @param rate fraction of sampled in contexts, from 0.0 to 1.0
+     */
+    public void set(double rate) {
+        if (Double.isNaN(rate) || rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Sample rate must be between 0.0 and 1.0: " + rate);
+        }
+        this.threshold = (long) (rate * HASH_RANGE);
+    }
+
+    public double get() {
+        return (double) threshold / HASH_RANGE;
+    }
+
+    /**
+     * @param context context of message
+     * @return true if context is sampled in, null context is never sampled in unless rate is 1.0
+     */
+    public boolean isSampled(String context) {
+        long currentThreshold = threshold;
+        if (currentThreshold >= HASH_RANGE) {
+            return true;
+        }
+        if (context == null) {
+            return false;
+        }
+        return (mix(context.hashCode()) & 0xFFFF_FFFFL) < currentThreshold;
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreads similar hash codes of similar contexts.
+     */
+    private static int mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85eb_ca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2_ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "SampleRate [" + get() + ']';
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.mstawowiak.commons.logging.sampling;
+
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import com.github.mstawowiak.commons.logging.ForwardingContextLogger;
+import com.github.mstawowiak.commons.logging.metrics.LogMetrics;
+import com.github.mstawowiak.commons.logging.metrics.LoggerMetrics;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * {@link ContextLogger} which logs messages below threshold level only for sampled in contexts.
+ * Other messages below threshold are short-circuited before any argument is prepared.
+ *
+ * Underlying logger has to be enabled for the sampled levels, e.g. {@code DEBUG}.
+ * Skipped messages on enabled levels are counted as dropped in {@link LoggerMetrics} when {@link LogMetrics}
+ * are given.
+ */
+public class SamplingContextLogger extends ForwardingContextLogger {
+
+    private final SampleRate sampleRate;
+    private final int thresholdLevel;
+    private final LoggerMetrics metrics;
+
+    /**
+     * Create logger which samples {@code TRACE} and {@code DEBUG} messages by {@link SampleRate#global()}.
+     *
+     * @param delegate decorated logger
+     */
+    public SamplingContextLogger(ContextLogger delegate) {
+        this(delegate, SampleRate.global(), Level.INFO);
+    }
+
+    /**
+     * @param delegate decorated logger
+     * @param sampleRate rate of sampled in contexts
+     * @param thresholdLevel messages below this level are sampled
+     */
+    public SamplingContextLogger(ContextLogger delegate, SampleRate sampleRate, Level thresholdLevel) {
+        this(delegate, sampleRate, thresholdLevel, null);
+    }
+
+    /**
+     * @param delegate decorated logger
+     * @param sampleRate rate of sampled in contexts
+     * @param thresholdLevel messages below this level are sampled
+     * @param logMetrics metrics which count skipped messages as dropped, may be null
+     */
+    public SamplingContextLogger(ContextLogger delegate, SampleRate sampleRate, Level thresholdLevel,
+            LogMetrics logMetrics) {
+        super(delegate);
+        this.sampleRate = sampleRate;
+        this.thresholdLevel = thresholdLevel.toInt();
+        this.metrics = logMetrics != null ? logMetrics.getLoggerMetrics(delegate.getName()) : null;
+    }
+
+    public SampleRate getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    protected boolean isEnabled(int level, Marker marker, String context) {
+        if (level < thresholdLevel && !sampleRate.isSampled(context)) {
+            if (metrics != null && super.isEnabled(level, marker, context)) {
+                metrics.recordDropped();
+            }
+            return false;
+        }
+        return super.isEnabled(level, marker, context);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.mstawowiak.commons.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Appender of tests which keeps logged events. Caller data and MDC are taken when event is appended,
+ * as appenders which write events later do.
+ */
+public class CapturingAppender extends ListAppender<ILoggingEvent> {
+
+    /**
+     * Start appender in new logger context and attach it to logger of the given class.
+     *
+     * @param type class of logger
+     * @param level level of logger
+     * @return logger which appends to this appender
+     */
+    public Logger attachTo(Class<?> type, Level level) {
+        LoggerContext loggerContext = new LoggerContext();
+        setContext(loggerContext);
+        start();
+
+        Logger logger = loggerContext.getLogger(type);
+        logger.setLevel(level);
+        logger.addAppender(this);
+        return logger;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        event.getCallerData();
+        super.append(event);
+    }
+}
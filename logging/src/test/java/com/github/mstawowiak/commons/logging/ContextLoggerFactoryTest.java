@@ -0,0 +1,44 @@
+package com.github.mstawowiak.commons.logging;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+/**
+ * Tests for {@link ContextLoggerFactory} and {@link SimpleLoggerFactory}
+ */
+public class ContextLoggerFactoryTest {
+
+    @Test
+    public void shouldReturnContextLoggerForCallingClass() {
+        ContextLogger logger = ContextLoggerFactory.getLogger();
+
+        Assert.assertEquals(ContextLoggerFactoryTest.class.getName(), logger.getName());
+        Assert.assertEquals(ContextMode.MESSAGE, logger.getContextMode());
+    }
+
+    @Test
+    public void shouldReturnCachedContextLogger() {
+        Assert.assertSame(ContextLoggerFactory.getLogger(), ContextLoggerFactory.getLogger());
+        Assert.assertSame(ContextLoggerFactory.getLogger(ContextMode.MDC),
+                ContextLoggerFactory.getLogger(ContextMode.MDC));
+        Assert.assertNotSame(ContextLoggerFactory.getLogger(ContextMode.MESSAGE),
+                ContextLoggerFactory.getLogger(ContextMode.MDC));
+    }
+
+    @Test
+    public void shouldReturnContextLoggerForCallingInnerClass() {
+        Assert.assertEquals(Inner.class.getName(), Inner.LOGGER.getName());
+    }
+
+    @Test
+    public void shouldReturnSimpleLoggerForCallingClass() {
+        Logger logger = SimpleLoggerFactory.getLogger();
+
+        Assert.assertEquals(ContextLoggerFactoryTest.class.getName(), logger.getName());
+    }
+
+    private static final class Inner {
+        private static final ContextLogger LOGGER = ContextLoggerFactory.getLogger(ContextMode.MDC);
+    }
+}
@@ -0,0 +1,232 @@
+package com.github.mstawowiak.commons.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+/**
+ * Tests for {@link ContextLogger}
+ */
+public class ContextLoggerTest {
+
+    private CapturingAppender appender;
+    private ContextLogger logger;
+    private ContextLogger mdcLogger;
+
+    @Before
+    public void setUp() {
+        appender = new CapturingAppender();
+        Logger logbackLogger = appender.attachTo(ContextLoggerTest.class, Level.INFO);
+
+        logger = new ContextLogger(logbackLogger);
+        mdcLogger = new ContextLogger(logbackLogger, ContextMode.MDC);
+    }
+
+    @Test
+    public void shouldAddContextOnTheBeginningOfMessage() {
+        logger.info("ctx-1", "message {} {}", "a", "b");
+
+        Assert.assertEquals(1, appender.list.size());
+        Assert.assertEquals("[ctx-1] message a b", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldLogMessageWithoutContext() {
+        logger.warn(null, "message");
+
+        Assert.assertEquals(1, appender.list.size());
+        Assert.assertEquals("message", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldNotLogOnDisabledLevel() {
+        logger.debug("ctx-1", "message {}", "a");
+        logger.trace("ctx-1", "message");
+
+        Assert.assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    public void shouldReuseBuilderForConsecutiveMessages() {
+        logger.info("long-context", "first message");
+        logger.error("ctx", "second");
+
+        Assert.assertEquals("[long-context] first message", appender.list.get(0).getFormattedMessage());
+        Assert.assertEquals("[ctx] second", appender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldNotEvaluateSuppliersOnDisabledLevel() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> supplier = () -> "value-" + calls.incrementAndGet();
+
+        logger.debug("ctx", "message {}", supplier);
+        logger.debug(supplier, "message {} {}", supplier, supplier);
+        logger.trace(supplier, supplier);
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    public void shouldEvaluateSuppliersOnEnabledLevel() {
+        logger.info("ctx", "message {} {}", () -> "a", () -> 1);
+        logger.warn(() -> "ctx-" + 2, "message {}", () -> "b");
+        logger.error(() -> null, () -> "message");
+
+        Assert.assertEquals("[ctx] message a 1", appender.list.get(0).getFormattedMessage());
+        Assert.assertEquals("[ctx-2] message b", appender.list.get(1).getFormattedMessage());
+        Assert.assertEquals("message", appender.list.get(2).getFormattedMessage());
+        Assert.assertEquals(ContextLoggerTest.class.getName(), appender.list.get(1).getCallerData()[0].getClassName());
+    }
+
+    @Test
+    public void shouldLogWithFluentBuilder() {
+        logger.atInfo("ctx").arg("a").arg(1).arg(2.5).log("message {} {} {}");
+        logger.atError(null).cause(new IllegalStateException("failed")).log("error");
+
+        Assert.assertEquals("[ctx] message a 1 2.5", appender.list.get(0).getFormattedMessage());
+        Assert.assertEquals(3, appender.list.get(0).getArgumentArray().length);
+        Assert.assertEquals(ContextLoggerTest.class.getName(), appender.list.get(0).getCallerData()[0].getClassName());
+        Assert.assertEquals("failed", appender.list.get(1).getThrowableProxy().getMessage());
+    }
+
+    @Test
+    public void shouldReturnSharedNoOpBuilderOnDisabledLevel() {
+        LogEventBuilder builder = logger.atDebug("ctx");
+
+        Assert.assertSame(builder, logger.atTrace("other"));
+        Assert.assertSame(builder, builder.arg("a").marker(null));
+        builder.log("message {}");
+        Assert.assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    public void shouldNotMixArgumentsOfNestedBuilders() {
+        logger.atInfo("outer").arg("a").arg(nestedLog()).log("outer {} {}");
+        logger.atWarn("next").arg("b").log("next {}");
+
+        Assert.assertEquals("[inner] inner 1", appender.list.get(0).getFormattedMessage());
+        Assert.assertEquals("[outer] outer a 2", appender.list.get(1).getFormattedMessage());
+        Assert.assertEquals("[next] next b", appender.list.get(2).getFormattedMessage());
+    }
+
+    private int nestedLog() {
+        logger.atInfo("inner").arg(1).log("inner {}");
+        return 2;
+    }
+
+    @Test
+    public void shouldReuseBuilderAfterAbandonedOne() {
+        LogEventBuilder abandoned = logger.atInfo("ctx").arg("a");
+
+        LogEventBuilder builder = logger.atInfo("ctx");
+        builder.arg("b").log("message {}");
+
+        Assert.assertNotSame(abandoned, builder);
+        Assert.assertSame(builder, logger.atInfo("ctx"));
+        Assert.assertEquals("[ctx] message b", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldLogWithBoundContext() {
+        BoundContextLogger jobLogger = logger.withContext(new String("job-42"));
+
+        jobLogger.info("started {}", 1);
+        jobLogger.debug("skipped");
+        jobLogger.atWarn().arg("a").log("warning {}");
+        mdcLogger.withContext("job-42").error("failed");
+
+        Assert.assertSame(jobLogger, logger.withContext("job-42"));
+        Assert.assertSame("job-42", jobLogger.getContext());
+        Assert.assertEquals("[job-42] started 1", appender.list.get(0).getFormattedMessage());
+        Assert.assertEquals(ContextLoggerTest.class.getName(), appender.list.get(0).getCallerData()[0].getClassName());
+        Assert.assertEquals("[job-42] warning a", appender.list.get(1).getFormattedMessage());
+        Assert.assertEquals("failed", appender.list.get(2).getFormattedMessage());
+        Assert.assertEquals("job-42", appender.list.get(2).getMDCPropertyMap().get(ContextLogger.CONTEXT_MDC_KEY));
+        Assert.assertEquals(ContextLoggerTest.class.getName(), appender.list.get(2).getCallerData()[0].getClassName());
+    }
+
+    @Test
+    public void shouldCacheBoundContextsFromManyThreads() throws InterruptedException {
+        BoundContextCache cache = new BoundContextCache(16);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    String context = "ctx-" + (i % 32);
+                    Assert.assertEquals(context, cache.get(logger, context).getContext());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertTrue(cache.size() <= 16);
+        Assert.assertNull(cache.get(logger, null).getContext());
+        Assert.assertSame(cache.get(logger, null), cache.get(logger, null));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedBoundContexts() {
+        BoundContextCache cache = new BoundContextCache(2);
+
+        BoundContextLogger first = cache.get(logger, "first");
+        cache.get(logger, "second");
+        Assert.assertSame(first, cache.get(logger, "first"));
+        cache.get(logger, "third");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertSame(first, cache.get(logger, "first"));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldPointCallerDataToCallingClass() {
+        logger.info("ctx", "message");
+
+        Assert.assertEquals(ContextLoggerTest.class.getName(),
+                appender.list.get(0).getCallerData()[0].getClassName());
+    }
+
+    @Test
+    public void shouldPassContextByMdc() {
+        mdcLogger.info("ctx-{}", "message {}", "a");
+
+        ILoggingEvent event = appender.list.get(0);
+        Assert.assertEquals("message {}", event.getMessage());
+        Assert.assertEquals("message a", event.getFormattedMessage());
+        Assert.assertEquals("ctx-{}", event.getMDCPropertyMap().get(ContextLogger.CONTEXT_MDC_KEY));
+        Assert.assertNull(MDC.get(ContextLogger.CONTEXT_MDC_KEY));
+    }
+
+    @Test
+    public void shouldRestorePreviousMdcContext() {
+        MDC.put(ContextLogger.CONTEXT_MDC_KEY, "outer");
+        try {
+            mdcLogger.error("inner", "message", new IllegalStateException());
+
+            ILoggingEvent event = appender.list.get(0);
+            Assert.assertEquals("inner", event.getMDCPropertyMap().get(ContextLogger.CONTEXT_MDC_KEY));
+            Assert.assertNotNull(event.getThrowableProxy());
+            Assert.assertEquals("outer", MDC.get(ContextLogger.CONTEXT_MDC_KEY));
+        } finally {
+            MDC.remove(ContextLogger.CONTEXT_MDC_KEY);
+        }
+    }
+
+    @Test
+    public void shouldConvertContextMode() {
+        Assert.assertEquals(ContextMode.MDC, ContextMode.toContextMode("mdc", ContextMode.MESSAGE));
+        Assert.assertEquals(ContextMode.MESSAGE, ContextMode.toContextMode("unknown", ContextMode.MESSAGE));
+        Assert.assertEquals(ContextMode.MESSAGE, ContextMode.toContextMode(null, ContextMode.MESSAGE));
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.mstawowiak.commons.logging.async;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.github.mstawowiak.commons.logging.CapturingAppender;
+import com.github.mstawowiak.commons.logging.metrics.LogMetrics;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Marker;
+
+/**
+ * Tests for {@link AsyncContextLogger} and {@link AsyncLogDispatcher}
+ */
+public class AsyncContextLoggerTest {
+
+    private final CountDownLatch consumerBlocked = new CountDownLatch(1);
+    private final CountDownLatch releaseConsumer = new CountDownLatch(1);
+
+    private CapturingAppender appender;
+    private Logger logbackLogger;
+
+    private volatile boolean blockConsumer;
+
+    @Before
+    public void setUp() {
+        appender = new CapturingAppender() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                if (blockConsumer) {
+                    consumerBlocked.countDown();
+                    awaitRelease();
+                }
+                super.append(event);
+            }
+        };
+        logbackLogger = appender.attachTo(AsyncContextLoggerTest.class, Level.DEBUG);
+    }
+
+    @Test
+    public void shouldWriteAllEventsInOrder() {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().capacity(16).batchSize(4).build().start();
+        AsyncContextLogger logger = new AsyncContextLogger(logbackLogger, dispatcher);
+
+        for (int i = 0; i < 1000; i++) {
+            logger.info("ctx", "message {}", i);
+        }
+        dispatcher.close();
+
+        Assert.assertEquals(1000, appender.list.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals("[ctx] message " + i, appender.list.get(i).getFormattedMessage());
+        }
+        Assert.assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void shouldKeepTimeAndThreadOfLoggingThread() throws InterruptedException {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().build().start();
+        AsyncContextLogger logger = new AsyncContextLogger(logbackLogger, dispatcher);
+
+        blockConsumer = true;
+        logger.info("ctx", "taken by consumer");
+        Assert.assertTrue(consumerBlocked.await(5, TimeUnit.SECONDS));
+        blockConsumer = false;
+
+        long before = System.currentTimeMillis();
+        logger.info("ctx", "buffered");
+        long after = System.currentTimeMillis();
+        Thread.sleep(50);
+
+        releaseConsumer.countDown();
+        dispatcher.close();
+
+        Assert.assertEquals(2, appender.list.size());
+        for (ILoggingEvent event : appender.list) {
+            Assert.assertEquals(Thread.currentThread().getName(), event.getThreadName());
+        }
+        long timestamp = appender.list.get(1).getTimeStamp();
+        Assert.assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    public void shouldWriteSynchronouslyWhenDispatcherIsNotRunning() {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().build();
+        AsyncContextLogger logger = new AsyncContextLogger(logbackLogger, dispatcher);
+
+        logger.warn("ctx", "message");
+
+        Assert.assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    public void shouldDropLowerLevelsOnOverflow() throws InterruptedException {
+        LogMetrics logMetrics = new LogMetrics();
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder()
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.DROP_LOWER_LEVELS)
+                .logMetrics(logMetrics)
+                .build()
+                .start();
+        AsyncContextLogger logger = new AsyncContextLogger(logbackLogger, dispatcher);
+
+        blockConsumer = true;
+        logger.info("ctx", "taken by consumer");
+        Assert.assertTrue(consumerBlocked.await(5, TimeUnit.SECONDS));
+        blockConsumer = false;
+
+        logger.info("ctx", "buffered 1");
+        logger.info("ctx", "buffered 2");
+        logger.info("ctx", "dropped");
+        logger.debug("ctx", "dropped");
+
+        releaseConsumer.countDown();
+        dispatcher.close();
+
+        Assert.assertEquals(2, dispatcher.getDroppedCount());
+        Assert.assertEquals(2, logMetrics.getLoggerMetrics(logbackLogger.getName()).getDroppedCount());
+        Assert.assertEquals(3, appender.list.size());
+        Assert.assertEquals("[ctx] buffered 2", appender.list.get(2).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldNotLoseEventsLoggedWhileClosing() throws InterruptedException {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().capacity(8).batchSize(2).build().start();
+        AsyncContextLogger logger = new AsyncContextLogger(logbackLogger, dispatcher);
+        int threads = 4;
+        int messages = 2000;
+
+        CountDownLatch started = new CountDownLatch(threads);
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            String context = "producer-" + t;
+            producers[t] = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < messages; i++) {
+                    logger.info(context, "{}", i);
+                }
+            });
+            producers[t].start();
+        }
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        dispatcher.close();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Assert.assertEquals(threads * messages, appender.list.size());
+        int[] next = new int[threads];
+        for (ILoggingEvent event : appender.list) {
+            String message = event.getFormattedMessage();
+            int producer = message.charAt("[producer-".length()) - '0';
+            Assert.assertEquals("[producer-" + producer + "] " + next[producer], message);
+            next[producer]++;
+        }
+    }
+
+    @Test
+    public void shouldCountEventsFailedToWrite() {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().build().start();
+        AsyncContextLogger logger = new AsyncContextLogger(logbackLogger, dispatcher);
+        logbackLogger.getLoggerContext().addTurboFilter(new TurboFilter() {
+            @Override
+            public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                    Throwable t) {
+                if ("failing".equals(format) && Thread.currentThread().getName().startsWith("context-logger")) {
+                    throw new IllegalStateException("write failed");
+                }
+                return FilterReply.NEUTRAL;
+            }
+        });
+
+        logger.info(null, "failing");
+        logger.info(null, "message");
+        dispatcher.close();
+
+        Assert.assertEquals(1, dispatcher.getFailedCount());
+        Assert.assertEquals(1, appender.list.size());
+        Assert.assertEquals("message", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldRoundCapacityUpToPowerOfTwo() {
+        Assert.assertEquals(1024, new AsyncLogDispatcher.Builder().capacity(1000).build().getCapacity());
+        Assert.assertEquals(2, new AsyncLogDispatcher.Builder().capacity(1).build().getCapacity());
+    }
+
+    private void awaitRelease() {
+        try {
+            releaseConsumer.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
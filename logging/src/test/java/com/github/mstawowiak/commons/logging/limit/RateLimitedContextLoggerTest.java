@@ -0,0 +1,196 @@
+package com.github.mstawowiak.commons.logging.limit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.github.mstawowiak.commons.logging.CapturingAppender;
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link RateLimitedContextLogger} and {@link LogRateLimiter}
+ */
+public class RateLimitedContextLoggerTest {
+
+    private CapturingAppender appender;
+    private ContextLogger contextLogger;
+
+    @Before
+    public void setUp() {
+        appender = new CapturingAppender();
+        Logger logbackLogger = appender.attachTo(RateLimitedContextLoggerTest.class, Level.INFO);
+
+        contextLogger = new ContextLogger(logbackLogger);
+    }
+
+    @Test
+    public void shouldLimitMessagesPerContextAndPattern() {
+        LogRateLimiter rateLimiter = new LogRateLimiter.Builder()
+                .permits(1, 1, TimeUnit.HOURS)
+                .burst(3)
+                .build();
+        ContextLogger logger = new RateLimitedContextLogger(contextLogger, rateLimiter);
+
+        for (int i = 0; i < 10; i++) {
+            logger.error("ctx-1", "failure {}", i);
+            logger.error("ctx-2", "failure {}", i);
+            logger.error("ctx-1", "other failure");
+        }
+
+        Assert.assertEquals(9, appender.list.size());
+    }
+
+    @Test
+    public void shouldNotLimitMessagesOnDisabledLevel() {
+        LogRateLimiter rateLimiter = LogRateLimiter.deduplicating(1, TimeUnit.HOURS);
+        ContextLogger logger = new RateLimitedContextLogger(contextLogger, rateLimiter);
+
+        logger.debug("ctx", "message");
+        logger.info("ctx", "message");
+
+        Assert.assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    public void shouldReportSuppressedMessages() throws InterruptedException {
+        LogRateLimiter rateLimiter = LogRateLimiter.deduplicating(50, TimeUnit.MILLISECONDS);
+        ContextLogger logger = new RateLimitedContextLogger(contextLogger, rateLimiter);
+
+        for (int i = 0; i < 5; i++) {
+            logger.warn("ctx", "failure {}", i);
+        }
+        Thread.sleep(100);
+        logger.warn("ctx", "failure {}", 5);
+
+        Assert.assertEquals(3, appender.list.size());
+        Assert.assertEquals("[ctx] failure 0", appender.list.get(0).getFormattedMessage());
+        Assert.assertEquals("[ctx] 4 similar messages suppressed: failure {}",
+                appender.list.get(1).getFormattedMessage());
+        Assert.assertEquals("[ctx] failure 5", appender.list.get(2).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldShareBucketWhenMaxKeysExceeded() {
+        LogRateLimiter rateLimiter = new LogRateLimiter.Builder()
+                .permits(1, 1, TimeUnit.HOURS)
+                .burst(1)
+                .maxKeys(1)
+                .build();
+
+        Assert.assertEquals(0, rateLimiter.tryAcquire("ctx-1", "message"));
+        Assert.assertEquals(0, rateLimiter.tryAcquire("ctx-2", "message"));
+        Assert.assertEquals(-1, rateLimiter.tryAcquire("ctx-3", "message"));
+    }
+
+    @Test
+    public void shouldReportSuppressedMessagesWhenFloodStops() throws InterruptedException {
+        LogRateLimiter rateLimiter = LogRateLimiter.deduplicating(50, TimeUnit.MILLISECONDS);
+        ContextLogger logger = new RateLimitedContextLogger(contextLogger, rateLimiter);
+
+        for (int i = 0; i < 5; i++) {
+            logger.warn("ctx", "failure {}", i);
+        }
+        Thread.sleep(100);
+        logger.info("other", "message");
+
+        Assert.assertEquals(3, appender.list.size());
+        Assert.assertEquals("[ctx] 4 similar messages suppressed: failure {}",
+                appender.list.get(1).getFormattedMessage());
+        Assert.assertEquals(Level.WARN, appender.list.get(1).getLevel());
+        Assert.assertEquals("[other] message", appender.list.get(2).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldDropIdleBuckets() throws InterruptedException {
+        LogRateLimiter rateLimiter = new LogRateLimiter.Builder()
+                .permits(1, 50, TimeUnit.MILLISECONDS)
+                .burst(1)
+                .maxKeys(2)
+                .build();
+
+        Assert.assertEquals(0, rateLimiter.tryAcquire("ctx-1", "message"));
+        Assert.assertEquals(0, rateLimiter.tryAcquire("ctx-2", "message"));
+        Assert.assertEquals(0, rateLimiter.tryAcquire("ctx-3", "message"));
+        Assert.assertEquals(-1, rateLimiter.tryAcquire("ctx-4", "message"));
+        Assert.assertEquals(2, rateLimiter.size());
+
+        Thread.sleep(100);
+        rateLimiter.sweep();
+
+        Assert.assertEquals(0, rateLimiter.size());
+        Assert.assertEquals(0, rateLimiter.tryAcquire("ctx-4", "message"));
+        Assert.assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    public void shouldDropIdleBucketsInBatches() throws InterruptedException {
+        LogRateLimiter rateLimiter = new LogRateLimiter.Builder()
+                .permits(1, 50, TimeUnit.MILLISECONDS)
+                .burst(1)
+                .build();
+
+        for (int i = 0; i < 150; i++) {
+            rateLimiter.tryAcquire("ctx-" + i, "message");
+        }
+        Assert.assertEquals(150, rateLimiter.size());
+
+        Thread.sleep(100);
+        rateLimiter.tryAcquire("other", "message");
+        Assert.assertEquals(150 - 64 + 1, rateLimiter.size());
+
+        rateLimiter.tryAcquire("other", "message");
+        rateLimiter.tryAcquire("other", "message");
+        Assert.assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    public void shouldCountEverySuppressedMessageOnce() throws InterruptedException {
+        StripedTokenBucket bucket = new StripedTokenBucket(4, TimeUnit.MILLISECONDS.toNanos(1), 1);
+        int threads = 4;
+        int iterations = 20_000;
+        AtomicLong suppressed = new AtomicLong();
+        AtomicLong reported = new AtomicLong();
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    long result = bucket.tryAcquire(System.nanoTime());
+                    if (result < 0) {
+                        suppressed.incrementAndGet();
+                    } else {
+                        reported.addAndGet(result);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Assert.assertEquals(suppressed.get(), reported.get() + bucket.unreported());
+    }
+
+    @Test
+    public void shouldPointCallerDataToCallingClass() throws InterruptedException {
+        LogRateLimiter rateLimiter = LogRateLimiter.deduplicating(50, TimeUnit.MILLISECONDS);
+        ContextLogger logger = new RateLimitedContextLogger(contextLogger, rateLimiter);
+
+        logger.info("ctx", "message");
+        logger.info("ctx", "message");
+        Thread.sleep(100);
+        logger.info("ctx", "message");
+
+        Assert.assertEquals(3, appender.list.size());
+        Assert.assertEquals(RateLimitedContextLoggerTest.class.getName(),
+                appender.list.get(0).getCallerData()[0].getClassName());
+        Assert.assertEquals(RateLimitedContextLogger.class.getName(),
+                appender.list.get(1).getCallerData()[0].getClassName());
+        Assert.assertEquals(RateLimitedContextLoggerTest.class.getName(),
+                appender.list.get(2).getCallerData()[0].getClassName());
+    }
+}
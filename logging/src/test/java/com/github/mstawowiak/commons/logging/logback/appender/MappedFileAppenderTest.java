@@ -0,0 +1,161 @@
+package com.github.mstawowiak.commons.logging.logback.appender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.status.StatusUtil;
+import ch.qos.logback.core.util.FileSize;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link MappedFileAppender}
+ */
+public class MappedFileAppenderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+
+    @Before
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        logger = loggerContext.getLogger(MappedFileAppenderTest.class);
+    }
+
+    @Test
+    public void shouldWriteEventsAndTruncateFileOnStop() throws IOException {
+        MappedFileAppender appender = appender("1MB", "64");
+
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event("message " + i));
+        }
+        appender.stop();
+
+        List<String> lines = Files.readAllLines(appender.getActiveFile(), StandardCharsets.UTF_8);
+        Assert.assertEquals(10, lines.size());
+        Assert.assertEquals("message 9", lines.get(9));
+    }
+
+    @Test
+    public void shouldRollOverBySize() throws IOException {
+        MappedFileAppender appender = appender("100", "32");
+
+        for (int i = 0; i < 50; i++) {
+            appender.doAppend(event(String.format("message %02d", i)));
+        }
+        appender.stop();
+
+        File[] files = folder.getRoot().listFiles();
+        Assert.assertTrue(files.length > 1);
+
+        List<String> lines = new ArrayList<>();
+        for (File file : sortedByAge(files)) {
+            Assert.assertTrue(file.length() <= 100);
+            lines.addAll(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(50, lines.size());
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(String.format("message %02d", i), lines.get(i));
+        }
+    }
+
+    @Test
+    public void shouldAppendToExistingFile() throws IOException {
+        MappedFileAppender appender = appender("1MB", "1KB");
+        appender.doAppend(event("first"));
+        appender.stop();
+
+        appender = appender("1MB", "1KB");
+        appender.doAppend(event("second"));
+        appender.stop();
+
+        Assert.assertEquals(Arrays.asList("first", "second"),
+                Files.readAllLines(appender.getActiveFile(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldKeepWritingAfterFailedRollover() throws IOException {
+        MappedFileAppender appender = appender("100", "32");
+        for (int i = 0; i < 8; i++) {
+            appender.doAppend(event(String.format("message %02d", i)));
+        }
+
+        // rolled file cannot be moved and active file cannot be opened again
+        Files.delete(appender.getActiveFile());
+        Files.delete(folder.getRoot().toPath());
+        for (int i = 8; i < 12; i++) {
+            appender.doAppend(event(String.format("message %02d", i)));
+        }
+        Assert.assertEquals(Status.ERROR, new StatusUtil(loggerContext).getHighestLevel(0));
+
+        Files.createDirectories(folder.getRoot().toPath());
+        appender.doAppend(event("recovered"));
+        appender.stop();
+
+        Assert.assertEquals(Collections.singletonList("recovered"),
+                Files.readAllLines(appender.getActiveFile(), StandardCharsets.UTF_8));
+    }
+
+    private MappedFileAppender appender(String maxFileSize, String regionSize) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+
+        MappedFileAppender appender = new MappedFileAppender();
+        appender.setContext(loggerContext);
+        appender.setName("mapped");
+        appender.setEncoder(encoder);
+        appender.setDirectory(folder.getRoot().getPath());
+        appender.setFileName("test.log");
+        appender.setMaxFileSize(FileSize.valueOf(maxFileSize));
+        appender.setRegionSize(FileSize.valueOf(regionSize));
+        appender.start();
+
+        Assert.assertTrue(appender.isStarted());
+        return appender;
+    }
+
+    private LoggingEvent event(String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, Level.INFO, message, null, null);
+    }
+
+    /**
+     * Rolled files are named by start date and sequence within the same second, active file is the newest.
+     */
+    private static List<File> sortedByAge(File[] files) {
+        return Arrays.stream(files)
+                .sorted(Comparator.comparing((File file) -> "test.log".equals(file.getName()))
+                        .thenComparing(MappedFileAppenderTest::baseName)
+                        .thenComparingInt(MappedFileAppenderTest::sequence))
+                .collect(Collectors.toList());
+    }
+
+    private static String baseName(File file) {
+        return file.getName().substring(0, file.getName().indexOf(".log"));
+    }
+
+    private static int sequence(File file) {
+        String name = file.getName();
+        return name.endsWith(".log") ? 0 : Integer.parseInt(name.substring(name.lastIndexOf('.') + 1));
+    }
+}
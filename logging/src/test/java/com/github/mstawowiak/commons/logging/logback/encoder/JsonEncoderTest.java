@@ -0,0 +1,95 @@
+package com.github.mstawowiak.commons.logging.logback.encoder;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link JsonEncoder}
+ */
+public class JsonEncoderTest {
+
+    private Logger logger;
+    private JsonEncoder encoder;
+
+    @Before
+    public void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+        logger = loggerContext.getLogger("com.example.Service");
+
+        encoder = new JsonEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+    }
+
+    @Test
+    public void shouldEncodeEventWithContextAsSeparateField() {
+        LoggingEvent event = event("Order {} of {} created", null, 42L, "customer");
+        Map<String, String> mdc = new HashMap<>();
+        mdc.put(ContextLogger.CONTEXT_MDC_KEY, "request-1");
+        event.setMDCPropertyMap(mdc);
+        event.setTimeStamp(1_500_000_000_000L);
+        event.setThreadName("main");
+
+        String json = encode(event);
+
+        Assert.assertEquals("{\"timestamp\":1500000000000,\"level\":\"INFO\",\"logger\":\"com.example.Service\","
+                + "\"thread\":\"main\",\"context\":\"request-1\",\"message\":\"Order 42 of customer created\","
+                + "\"arguments\":[\"42\",\"customer\"]}" + System.lineSeparator(), json);
+    }
+
+    @Test
+    public void shouldFormatMessageLikeSlf4j() {
+        LoggingEvent event = event("a {} b \\{} c \\\\{} d {}", null, 1, new int[]{2, 3}, "unused");
+
+        Assert.assertTrue(encode(event).contains("\"message\":\"a 1 b {} c \\\\[2, 3] d unused\""));
+    }
+
+    @Test
+    public void shouldEscapeAndEncodeInUtf8() {
+        LoggingEvent event = event("\"quoted\"\n\tza\u017c\u00f3\u0142\u0107 \uD83D\uDE00 \u0001", null);
+
+        Assert.assertTrue(encode(event)
+                .contains("\"message\":\"\\\"quoted\\\"\\n\\tza\u017c\u00f3\u0142\u0107 \uD83D\uDE00 \\u0001\""));
+    }
+
+    @Test
+    public void shouldEncodeThrowableWithCause() {
+        IllegalStateException throwable = new IllegalStateException("outer", new IllegalArgumentException("inner"));
+        LoggingEvent event = event("failure", throwable);
+
+        String json = encode(event);
+
+        Assert.assertTrue(json.contains("\"throwable\":\"java.lang.IllegalStateException: outer\\n\\tat "
+                + JsonEncoderTest.class.getName() + ".shouldEncodeThrowableWithCause(JsonEncoderTest.java:"));
+        Assert.assertTrue(json.contains("\\nCaused by: java.lang.IllegalArgumentException: inner"));
+        Assert.assertFalse(json.contains("\n\t"));
+    }
+
+    @Test
+    public void shouldWriteOtherMdcProperties() {
+        LoggingEvent event = event("message", null);
+        Map<String, String> mdc = new HashMap<>();
+        mdc.put("user", "john");
+        event.setMDCPropertyMap(mdc);
+
+        Assert.assertTrue(encode(event).contains(",\"mdc\":{\"user\":\"john\"}}"));
+    }
+
+    private LoggingEvent event(String message, Throwable throwable, Object... args) {
+        return new LoggingEvent(Logger.class.getName(), logger, Level.INFO, message, throwable,
+                args.length > 0 ? args : null);
+    }
+
+    private String encode(LoggingEvent event) {
+        return new String(encoder.encode(event), StandardCharsets.UTF_8);
+    }
+}
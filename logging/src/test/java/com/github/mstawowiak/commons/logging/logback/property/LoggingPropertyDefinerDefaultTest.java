@@ -28,4 +28,11 @@ public class LoggingPropertyDefinerDefaultTest {
 
         Assert.assertEquals("OFF", property.getPropertyValue());
     }
+
+    @Test
+    public void shouldLoadCorrectDefaultSampleRate() {
+        SampleRateProperty property = new SampleRateProperty();
+
+        Assert.assertEquals("1.0", property.getPropertyValue());
+    }
 }
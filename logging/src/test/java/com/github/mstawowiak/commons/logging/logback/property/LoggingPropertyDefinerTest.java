@@ -1,6 +1,7 @@
 package com.github.mstawowiak.commons.logging.logback.property;
 
 import ch.qos.logback.classic.Level;
+import com.github.mstawowiak.commons.logging.sampling.SampleRate;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -16,6 +17,7 @@ public class LoggingPropertyDefinerTest {
         System.setProperty(LoggingPathProperty.LOGGING_PATH_KEY, "/app/logs");
         System.setProperty(AppLevelProperty.APP_LEVEL_KEY, Level.DEBUG.levelStr);
         System.setProperty(WebserviceLevelProperty.WEBSERVICE_LEVEL_KEY, Level.INFO.levelStr);
+        System.setProperty(SampleRateProperty.SAMPLE_RATE_KEY, "0.25");
     }
 
     @AfterClass
@@ -23,6 +25,8 @@ public class LoggingPropertyDefinerTest {
         System.clearProperty(LoggingPathProperty.LOGGING_PATH_KEY);
         System.clearProperty(AppLevelProperty.APP_LEVEL_KEY);
         System.clearProperty(WebserviceLevelProperty.WEBSERVICE_LEVEL_KEY);
+        System.clearProperty(SampleRateProperty.SAMPLE_RATE_KEY);
+        SampleRate.global().set(1.0);
     }
 
     @Test
@@ -46,4 +50,22 @@ public class LoggingPropertyDefinerTest {
         Assert.assertEquals("INFO", property.getPropertyValue());
     }
 
+    @Test
+    public void shouldLoadCorrectSampleRate() {
+        SampleRateProperty property = new SampleRateProperty();
+
+        Assert.assertEquals("0.25", property.getPropertyValue());
+        Assert.assertEquals(0.25, SampleRate.global().get(), 0.0001);
+    }
+
+    @Test
+    public void shouldSetSampleRateOnlyWhenValueIsResolved() {
+        SampleRateProperty property = new SampleRateProperty();
+        property.getPropertyValue();
+
+        SampleRate.global().set(0.5);
+        Assert.assertEquals("0.25", property.getPropertyValue());
+        Assert.assertEquals(0.5, SampleRate.global().get(), 0.0001);
+    }
+
 }
@@ -0,0 +1,135 @@
+package com.github.mstawowiak.commons.logging.logback.property;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.status.StatusUtil;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for classes which extends {@link AbstractPropertyDefiner} with watched properties file
+ */
+public class LoggingPropertyDefinerWatchTest {
+
+    private static final long TIMEOUT_MILLIS = 30_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldLoadValueFromPropertiesFile() throws IOException {
+        File file = writeProperties(folder.newFile("logging.properties"),
+                LoggingPathProperty.LOGGING_PATH_KEY, "/var/log/app");
+
+        LoggingPathProperty property = new LoggingPathProperty();
+        property.setFile(file.getPath());
+
+        Assert.assertEquals("/var/log/app", property.getPropertyValue());
+    }
+
+    @Test
+    public void shouldUseDefaultWhenPropertyIsNotInFile() throws IOException {
+        File file = writeProperties(folder.newFile("logging.properties"), "other.key", "value");
+
+        WebserviceLevelProperty property = new WebserviceLevelProperty();
+        property.setFile(file.getPath());
+
+        Assert.assertEquals("OFF", property.getPropertyValue());
+    }
+
+    @Test
+    public void shouldUpdateLoggerLevelWhenFileChanges() throws IOException, InterruptedException {
+        File file = writeProperties(folder.newFile("logging.properties"), AppLevelProperty.APP_LEVEL_KEY, "INFO");
+
+        LoggerContext loggerContext = new LoggerContext();
+        AppLevelProperty property = new AppLevelProperty();
+        property.setContext(loggerContext);
+        property.setLoggers("com.example, com.example.ws");
+        property.setFile(file.getPath());
+
+        Assert.assertEquals("INFO", property.getPropertyValue());
+
+        writeProperties(file, AppLevelProperty.APP_LEVEL_KEY, "DEBUG");
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!"DEBUG".equals(property.getPropertyValue()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Assert.assertEquals("DEBUG", property.getPropertyValue());
+        Assert.assertEquals(Level.DEBUG, loggerContext.getLogger("com.example").getLevel());
+        Assert.assertEquals(Level.DEBUG, loggerContext.getLogger("com.example.ws").getLevel());
+    }
+
+    @Test
+    public void shouldUpdateAllDefinersOfSamePropertyWhenFileChanges() throws IOException, InterruptedException {
+        File file = writeProperties(folder.newFile("logging.properties"), AppLevelProperty.APP_LEVEL_KEY, "INFO");
+
+        LoggerContext loggerContext = new LoggerContext();
+        AppLevelProperty first = appLevelProperty(loggerContext, "com.example.first", file);
+        AppLevelProperty second = appLevelProperty(loggerContext, "com.example.second", file);
+
+        Assert.assertEquals("INFO", first.getPropertyValue());
+        Assert.assertEquals("INFO", second.getPropertyValue());
+
+        writeProperties(file, AppLevelProperty.APP_LEVEL_KEY, "WARN");
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!("WARN".equals(first.getPropertyValue()) && "WARN".equals(second.getPropertyValue()))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Assert.assertEquals(Level.WARN, loggerContext.getLogger("com.example.first").getLevel());
+        Assert.assertEquals(Level.WARN, loggerContext.getLogger("com.example.second").getLevel());
+    }
+
+    @Test
+    public void shouldUseDefaultAndReportErrorWhenFileCannotBeWatched() {
+        LoggerContext loggerContext = new LoggerContext();
+        WebserviceLevelProperty property = new WebserviceLevelProperty();
+        property.setContext(loggerContext);
+        property.setFile(new File(folder.getRoot(), "missing/logging.properties").getPath());
+
+        Assert.assertEquals("OFF", property.getPropertyValue());
+        Assert.assertNull(property.getPropertiesFile());
+        Assert.assertEquals(Status.ERROR, new StatusUtil(loggerContext).getHighestLevel(0));
+    }
+
+    @Test
+    public void shouldStopWatchingWhenLoggerContextStops() throws IOException {
+        File file = writeProperties(folder.newFile("logging.properties"), AppLevelProperty.APP_LEVEL_KEY, "INFO");
+
+        LoggerContext loggerContext = new LoggerContext();
+        AppLevelProperty property = appLevelProperty(loggerContext, "com.example", file);
+        Assert.assertEquals("INFO", property.getPropertyValue());
+
+        WatchedPropertiesFile watchedFile = property.getPropertiesFile();
+        Assert.assertTrue(watchedFile.isWatching());
+
+        loggerContext.stop();
+
+        Assert.assertFalse(watchedFile.isWatching());
+        Assert.assertNull(property.getPropertiesFile());
+    }
+
+    private static AppLevelProperty appLevelProperty(LoggerContext loggerContext, String loggers, File file) {
+        AppLevelProperty property = new AppLevelProperty();
+        property.setContext(loggerContext);
+        property.setLoggers(loggers);
+        property.setFile(file.getPath());
+        return property;
+    }
+
+    private static File writeProperties(File file, String key, String value) throws IOException {
+        Files.write(file.toPath(), (key + '=' + value).getBytes(StandardCharsets.ISO_8859_1));
+        return file;
+    }
+}
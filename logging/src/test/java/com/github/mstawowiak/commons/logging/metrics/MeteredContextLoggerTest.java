@@ -0,0 +1,108 @@
+package com.github.mstawowiak.commons.logging.metrics;
+
+import ch.qos.logback.classic.Logger;
+import com.github.mstawowiak.commons.logging.CapturingAppender;
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import com.github.mstawowiak.commons.logging.limit.LogRateLimiter;
+import com.github.mstawowiak.commons.logging.limit.RateLimitedContextLogger;
+import com.github.mstawowiak.commons.logging.sampling.SampleRate;
+import com.github.mstawowiak.commons.logging.sampling.SamplingContextLogger;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.event.Level;
+
+/**
+ * Tests for {@link MeteredContextLogger} and {@link LogMetrics}
+ */
+public class MeteredContextLoggerTest {
+
+    private CapturingAppender appender;
+    private LogMetrics logMetrics;
+    private MeteredContextLogger logger;
+
+    @Before
+    public void setUp() {
+        appender = new CapturingAppender();
+        Logger logbackLogger = appender.attachTo(MeteredContextLoggerTest.class, ch.qos.logback.classic.Level.INFO);
+
+        logMetrics = new LogMetrics();
+        logger = new MeteredContextLogger(new ContextLogger(logbackLogger), logMetrics);
+    }
+
+    @Test
+    public void shouldCountOnlyEnabledLevels() {
+        logger.debug("ctx", "debug");
+        logger.info("ctx", "info");
+        logger.info("ctx", "info {}", 1);
+        logger.error("ctx", "error", new IllegalStateException());
+
+        LoggerMetrics metrics = logMetrics.getLoggerMetrics(MeteredContextLoggerTest.class.getName());
+        Assert.assertSame(metrics, logger.getMetrics());
+        Assert.assertEquals(0, metrics.getEventCount(Level.DEBUG));
+        Assert.assertEquals(2, metrics.getEventCount(Level.INFO));
+        Assert.assertEquals(1, metrics.getEventCount(Level.ERROR));
+        Assert.assertEquals(3, appender.list.size());
+
+        LoggerMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(3, snapshot.getTotalEvents());
+        Assert.assertTrue(snapshot.getMaxLatency() > 0);
+        Assert.assertTrue(snapshot.getP50Latency() <= snapshot.getP99Latency());
+        Assert.assertTrue(snapshot.getP99Latency() <= snapshot.getMaxLatency());
+    }
+
+    @Test
+    public void shouldReportDroppedCountersAndLoggers() {
+        logger.warn("ctx", "warn");
+        logMetrics.registerDroppedCounter("test", () -> 7L);
+
+        Assert.assertEquals(1, logMetrics.getTotalEvents());
+        Assert.assertEquals(1, logMetrics.getLoggers().size());
+        Assert.assertEquals(Long.valueOf(7L), logMetrics.getDroppedEvents().get("test"));
+    }
+
+    @Test
+    public void shouldCountDroppedEventsPerLogger() {
+        ContextLogger contextLogger = logger.getDelegate();
+        ContextLogger sampled = new SamplingContextLogger(contextLogger, new SampleRate(0.0), Level.WARN, logMetrics);
+        ContextLogger rateLimited = new RateLimitedContextLogger(contextLogger,
+                LogRateLimiter.deduplicating(1, TimeUnit.MINUTES), logMetrics);
+
+        sampled.info("ctx", "skipped");
+        sampled.debug("ctx", "disabled level");
+        rateLimited.info("ctx", "repeated");
+        rateLimited.info("ctx", "repeated");
+        rateLimited.info("ctx", "repeated");
+
+        LoggerMetrics metrics = logMetrics.getLoggerMetrics(MeteredContextLoggerTest.class.getName());
+        Assert.assertEquals(3, metrics.getDroppedCount());
+        Assert.assertEquals(3, metrics.snapshot().getDroppedEvents());
+        Assert.assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    public void shouldRegisterGlobalMetricsInJmx() throws Exception {
+        LogMetrics.global().getLoggerMetrics("jmx").record(Level.INFO.toInt(), 100);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(LogMetrics.OBJECT_NAME);
+
+        Assert.assertTrue((Long) server.getAttribute(objectName, "TotalEvents") >= 1);
+        Assert.assertTrue(((CompositeData[]) server.getAttribute(objectName, "Loggers")).length >= 1);
+        Assert.assertTrue(LogMetrics.global().isRegistered());
+        Assert.assertFalse(logMetrics.isRegistered());
+    }
+
+    @Test
+    public void shouldPointCallerDataToCallingClass() {
+        logger.info("ctx", "message");
+
+        Assert.assertEquals(MeteredContextLoggerTest.class.getName(),
+                appender.list.get(0).getCallerData()[0].getClassName());
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.mstawowiak.commons.logging.sampling;
+
+import ch.qos.logback.classic.Logger;
+import com.github.mstawowiak.commons.logging.CapturingAppender;
+import com.github.mstawowiak.commons.logging.ContextLogger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.event.Level;
+
+/**
+ * Tests for {@link SamplingContextLogger} and {@link SampleRate}
+ */
+public class SamplingContextLoggerTest {
+
+    private CapturingAppender appender;
+    private ContextLogger contextLogger;
+
+    @Before
+    public void setUp() {
+        appender = new CapturingAppender();
+        Logger logbackLogger = appender.attachTo(SamplingContextLoggerTest.class, ch.qos.logback.classic.Level.DEBUG);
+
+        contextLogger = new ContextLogger(logbackLogger);
+    }
+
+    @Test
+    public void shouldLogOnlyLevelsAboveThresholdWhenNothingIsSampled() {
+        ContextLogger logger = new SamplingContextLogger(contextLogger, new SampleRate(0.0), Level.INFO);
+
+        logger.debug("ctx", "debug");
+        logger.info("ctx", "info");
+
+        Assert.assertEquals(1, appender.list.size());
+        Assert.assertEquals("[ctx] info", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void shouldLogAllWhenEverythingIsSampled() {
+        ContextLogger logger = new SamplingContextLogger(contextLogger, new SampleRate(1.0), Level.INFO);
+
+        logger.debug("ctx", "debug");
+        logger.debug(null, "debug");
+
+        Assert.assertEquals(2, appender.list.size());
+    }
+
+    @Test
+    public void shouldSampleConsistentFractionOfContexts() {
+        SampleRate sampleRate = new SampleRate(0.1);
+
+        int sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            String context = "request-" + i;
+            if (sampleRate.isSampled(context)) {
+                sampled++;
+                Assert.assertTrue(sampleRate.isSampled(context));
+            }
+        }
+
+        Assert.assertEquals(10_000, sampled, 1_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectRateOutOfRange() {
+        new SampleRate(1.5);
+    }
+
+    @Test
+    public void shouldPointCallerDataToCallingClass() {
+        ContextLogger logger = new SamplingContextLogger(contextLogger, new SampleRate(1.0), Level.INFO);
+
+        logger.debug("ctx", "message");
+
+        Assert.assertEquals(SamplingContextLoggerTest.class.getName(),
+                appender.list.get(0).getCallerData()[0].getClassName());
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.mstawowiak.commons.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldComputePercentilesWithBoundedRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram(2);
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        Assert.assertEquals(10_000, histogram.count());
+        Assert.assertEquals(10_000_000, histogram.max());
+        assertWithin(5_000_000, histogram.percentile(50.0));
+        assertWithin(9_900_000, histogram.percentile(99.0));
+        Assert.assertEquals(5_000_500.0, histogram.mean(), 0.001);
+    }
+
+    @Test
+    public void shouldMapEveryValueToBucketContainingIt() {
+        for (long value : new long[] {0, 1, 7, 8, 15, 16, 1000, 123_456_789L, Long.MAX_VALUE / 2}) {
+            int index = LatencyHistogram.index(value);
+            Assert.assertTrue(value <= LatencyHistogram.upperBound(index) || value > 1L << 40);
+            Assert.assertTrue(index == 0 || value > LatencyHistogram.upperBound(index - 1));
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        Assert.assertTrue(actual + " not within 12.5% of " + expected,
+                Math.abs(actual - expected) <= expected / 8);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.X509KeyManager;
+import javax.security.auth.x500.X500Principal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of alias selection by {@link AliasSelectorKeyManager} against scanning aliases of source key manager.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AliasSelectorKeyManagerBenchmark {
+
+    private static final String ALIAS = "mykey";
+
+    private X509KeyManager sourceKeyManager;
+    private AliasSelectorKeyManager keyManager;
+
+    private String keyType;
+    private Principal[] issuers;
+
+    @Setup
+    public void setUp() throws Exception {
+        SSLKeystore keystore = SSLKeystore.fromFile("src/test/resources/ssl/keystore.jks", "123456",
+                KeyStoreType.JKS.name());
+
+        KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        factory.init(keystore.getKeyStore(), keystore.getPassword());
+
+        sourceKeyManager = (X509KeyManager) factory.getKeyManagers()[0];
+        keyManager = new AliasSelectorKeyManager(sourceKeyManager, ALIAS);
+        keyType = sourceKeyManager.getPrivateKey(ALIAS).getAlgorithm();
+        issuers = new Principal[] {
+            new X500Principal(sourceKeyManager.getCertificateChain(ALIAS)[0].getIssuerX500Principal().getName()),
+            new X500Principal("CN=Other CA, O=Example")
+        };
+    }
+
+    @Benchmark
+    public boolean scanServerAliases() {
+        String[] aliases = sourceKeyManager.getServerAliases(keyType, issuers);
+        return aliases != null && Arrays.asList(aliases).contains(ALIAS);
+    }
+
+    @Benchmark
+    public String chooseServerAlias() {
+        return keyManager.chooseServerAlias(keyType, issuers, null);
+    }
+}
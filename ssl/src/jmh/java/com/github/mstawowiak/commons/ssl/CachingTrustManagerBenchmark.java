@@ -0,0 +1,91 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of server certificate validation by default PKIX trust manager and by {@link CachingTrustManager}
+ * for chain validated before, for chain issued by intermediate CA of trusted root and for certificate trusted
+ * directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachingTrustManagerBenchmark {
+
+    private static final String AUTH_TYPE = "RSA";
+
+    private X509ExtendedTrustManager trustManager;
+    private CachingTrustManager cachingTrustManager;
+
+    private X509Certificate[] chain;
+    private X509Certificate[] trustedChain;
+
+    @Setup
+    public void setUp() throws Exception {
+        SSLKeystore truststore = SSLKeystore.fromFile("src/test/resources/ssl/upstream-truststore.jks", "123456",
+                KeyStoreType.JKS.name());
+        SSLKeystore hostsTruststore = SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                KeyStoreType.JKS.name());
+        truststore.getKeyStore().setCertificateEntry("localhost",
+                hostsTruststore.getKeyStore().getCertificate("localhost"));
+
+        TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init(truststore.getKeyStore());
+        trustManager = (X509ExtendedTrustManager) factory.getTrustManagers()[0];
+        cachingTrustManager = new CachingTrustManager(trustManager, 1000, TimeUnit.HOURS.toMillis(1));
+
+        chain = chain("src/test/resources/ssl/upstream.jks", "upstream");
+        trustedChain = chain("src/test/resources/ssl/hosts.jks", "localhost");
+        cachingTrustManager.checkServerTrusted(chain, AUTH_TYPE);
+        cachingTrustManager.checkServerTrusted(trustedChain, AUTH_TYPE);
+    }
+
+    @Benchmark
+    public X509Certificate[] checkServerTrusted() throws CertificateException {
+        trustManager.checkServerTrusted(chain, AUTH_TYPE);
+        return chain;
+    }
+
+    @Benchmark
+    public X509Certificate[] cachedCheckServerTrusted() throws CertificateException {
+        cachingTrustManager.checkServerTrusted(chain, AUTH_TYPE);
+        return chain;
+    }
+
+    @Benchmark
+    public X509Certificate[] checkTrustedCertificate() throws CertificateException {
+        trustManager.checkServerTrusted(trustedChain, AUTH_TYPE);
+        return trustedChain;
+    }
+
+    @Benchmark
+    public X509Certificate[] cachedCheckTrustedCertificate() throws CertificateException {
+        cachingTrustManager.checkServerTrusted(trustedChain, AUTH_TYPE);
+        return trustedChain;
+    }
+
+    private static X509Certificate[] chain(String path, String alias) throws Exception {
+        Certificate[] certificates = SSLKeystore.fromFile(path, "123456", KeyStoreType.JKS.name())
+                .getKeyStore().getCertificateChain(alias);
+        return Arrays.copyOf(certificates, certificates.length, X509Certificate[].class);
+    }
+}
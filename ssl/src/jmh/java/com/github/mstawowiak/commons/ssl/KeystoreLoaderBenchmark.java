@@ -0,0 +1,108 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of loading PKCS12 keystores at startup: sequential {@link SSLKeystore#fromFile(String, String, String)}
+ * against parallel {@link KeystoreLoader} with empty and warm cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeystoreLoaderBenchmark {
+
+    private static final String PASSWORD = "123456";
+    private static final String TYPE = KeyStoreType.PKCS12.name();
+
+    @Param({"16"})
+    private int keystores;
+
+    private Path directory;
+    private List<String> paths;
+    private KeystoreLoader warmLoader;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyStore source = SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", PASSWORD,
+                KeyStoreType.JKS.name()).getKeyStore();
+        KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(PASSWORD.toCharArray());
+
+        directory = Files.createTempDirectory("ssl-loader-benchmark");
+        paths = new ArrayList<>();
+        for (int i = 0; i < keystores; i++) {
+            // each store gets new salt, so contents differ
+            KeyStore keyStore = KeyStore.getInstance(TYPE);
+            keyStore.load(null, null);
+            keyStore.setEntry("localhost", source.getEntry("localhost", protection), protection);
+
+            Path file = directory.resolve("tenant-" + i + ".p12");
+            try (OutputStream os = Files.newOutputStream(file)) {
+                keyStore.store(os, PASSWORD.toCharArray());
+            }
+            paths.add(file.toString());
+        }
+
+        warmLoader = new KeystoreLoader(ForkJoinPool.commonPool());
+        loadAll(warmLoader);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SSLKeystore> sequential() {
+        return paths.stream()
+                .map(path -> SSLKeystore.fromFile(path, PASSWORD, TYPE))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<SSLKeystore> parallel() {
+        return loadAll(new KeystoreLoader(ForkJoinPool.commonPool()));
+    }
+
+    @Benchmark
+    public List<SSLKeystore> cached() {
+        return loadAll(warmLoader);
+    }
+
+    private List<SSLKeystore> loadAll(KeystoreLoader loader) {
+        List<CompletableFuture<SSLKeystore>> futures = paths.stream()
+                .map(path -> loader.loadAsync(path, PASSWORD, TYPE))
+                .collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.SocketException;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * Loopback TLS server for handshake benchmarks, answers one byte on each connection.
+ */
+final class LoopbackServer implements AutoCloseable {
+
+    private final SSLServerSocket serverSocket;
+    private final Thread thread;
+
+    LoopbackServer(SSLConfiguration configuration) throws IOException {
+        serverSocket = (SSLServerSocket) configuration.getServerSocketFactory()
+                .createServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        thread = new Thread(this::serve, "ssl-loopback-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Connect to server and exchange one byte, so that handshake including TLS 1.3 session tickets completes.
+     *
+     * @param configuration client configuration
+     * @param invalidate invalidate session to force full handshake on next connection
+     * @return negotiated protocol
+     */
+    String connect(SSLConfiguration configuration, boolean invalidate) throws IOException {
+        try (SSLSocket socket = (SSLSocket) configuration.getSocketFactory()
+                .createSocket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+            exchange(socket, true);
+            if (invalidate) {
+                socket.getSession().invalidate();
+            }
+            return socket.getSession().getProtocol();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serve() {
+        while (!serverSocket.isClosed()) {
+            try (SSLSocket socket = (SSLSocket) serverSocket.accept()) {
+                exchange(socket, false);
+            } catch (SocketException ex) {
+                // server socket closed
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private static void exchange(SSLSocket socket, boolean client) throws IOException {
+        socket.setTcpNoDelay(true);
+        InputStream in = socket.getInputStream();
+        OutputStream out = socket.getOutputStream();
+        if (client) {
+            out.write(1);
+            out.flush();
+            in.read();
+        } else {
+            in.read();
+            out.write(1);
+            out.flush();
+        }
+    }
+}
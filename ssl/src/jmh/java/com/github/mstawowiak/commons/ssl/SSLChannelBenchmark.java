@@ -0,0 +1,155 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of loopback throughput of {@link SSLChannel} against {@link SSLSocket} streams, each operation
+ * writes 1 MiB, so operations per second are MiB/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SSLChannelBenchmark {
+
+    private static final int CHUNK = 64 * 1024;
+    private static final int CHUNKS_PER_MIB = 16;
+
+    private ServerSocketChannel serverChannel;
+    private SSLServerSocket serverSocket;
+    private Thread channelServer;
+    private Thread socketServer;
+
+    private SSLChannel channel;
+    private SSLSocket socket;
+    private OutputStream socketOutput;
+
+    private ByteBuffer chunkBuffer;
+    private byte[] heapChunk;
+
+    @Setup
+    public void setUp() throws IOException {
+        SSLConfiguration serverConfiguration = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name()))
+                .keyAlias("localhost")
+                .build();
+        SSLConfiguration clientConfiguration = new SSLConfiguration.Builder()
+                .truststore(SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                        KeyStoreType.JKS.name()))
+                .build();
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        channelServer = start("ssl-channel-benchmark-server", () -> drain(serverChannel, serverConfiguration));
+
+        serverSocket = (SSLServerSocket) serverConfiguration.getServerSocketFactory()
+                .createServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        socketServer = start("ssl-socket-benchmark-server", () -> drain(serverSocket));
+
+        channel = new SSLChannel.Builder()
+                .channel(SocketChannel.open(serverChannel.getLocalAddress()))
+                .configuration(clientConfiguration)
+                .clientMode(true)
+                .peer("localhost", serverChannel.socket().getLocalPort())
+                .build();
+        channel.handshake();
+
+        socket = (SSLSocket) clientConfiguration.getSocketFactory()
+                .createSocket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        socket.startHandshake();
+        socketOutput = socket.getOutputStream();
+
+        chunkBuffer = ByteBuffer.allocate(CHUNK);
+        heapChunk = new byte[CHUNK];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        channel.close();
+        socket.close();
+        serverChannel.close();
+        serverSocket.close();
+        channelServer.join();
+        socketServer.join();
+    }
+
+    @Benchmark
+    public int sslChannel() throws IOException {
+        int written = 0;
+        for (int i = 0; i < CHUNKS_PER_MIB; i++) {
+            chunkBuffer.clear();
+            while (chunkBuffer.hasRemaining()) {
+                written += channel.write(chunkBuffer);
+            }
+        }
+        return written;
+    }
+
+    @Benchmark
+    public int sslSocket() throws IOException {
+        for (int i = 0; i < CHUNKS_PER_MIB; i++) {
+            socketOutput.write(heapChunk);
+        }
+        socketOutput.flush();
+        return CHUNK * CHUNKS_PER_MIB;
+    }
+
+    private static Thread start(String name, Runnable server) {
+        Thread thread = new Thread(server, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void drain(ServerSocketChannel serverChannel, SSLConfiguration configuration) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK);
+        try (SSLChannel channel = new SSLChannel.Builder()
+                .channel(serverChannel.accept())
+                .configuration(configuration)
+                .build()) {
+            while (channel.read(buffer) >= 0) {
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            // client or server closed
+        }
+    }
+
+    private static void drain(SSLServerSocket serverSocket) {
+        byte[] buffer = new byte[CHUNK];
+        try (SSLSocket socket = (SSLSocket) serverSocket.accept()) {
+            InputStream input = socket.getInputStream();
+            while (input.read(buffer) >= 0) {
+                // discard
+            }
+        } catch (SocketException ex) {
+            // client or server closed
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link SSLConfiguration#toString()} with truststore of JVM CA certificates, as logged by frameworks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SSLConfigurationToStringBenchmark {
+
+    private SSLConfiguration configuration;
+
+    @Setup
+    public void setUp() {
+        String cacerts = Paths.get(System.getProperty("java.home"), "lib", "security", "cacerts").toString();
+        configuration = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456",
+                        KeyStoreType.JKS.name()))
+                .truststore(SSLKeystore.fromFile(cacerts, "changeit", null))
+                .build();
+    }
+
+    @Benchmark
+    public String configurationToString() {
+        return configuration.toString();
+    }
+}
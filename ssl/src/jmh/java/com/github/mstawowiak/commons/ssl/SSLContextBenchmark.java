@@ -0,0 +1,52 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of creating new {@link SSLContext} against getting shared one from {@link SSLConfiguration}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SSLContextBenchmark {
+
+    private SSLKeystore keystore;
+    private SSLKeystore truststore;
+
+    @Setup
+    public void setUp() {
+        keystore = SSLKeystore.fromFile("src/test/resources/ssl/keystore.jks", "123456", KeyStoreType.JKS.name());
+        truststore = SSLKeystore.fromFile("src/test/resources/ssl/truststore.jks", "123456", KeyStoreType.JKS.name());
+    }
+
+    @Benchmark
+    public SSLContext createSSLContext() {
+        return configuration().createSSLContext();
+    }
+
+    @Benchmark
+    public SSLContext sharedSSLContext() {
+        return configuration().getSSLContext();
+    }
+
+    private SSLConfiguration configuration() {
+        return new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .truststore(truststore)
+                .build();
+    }
+}
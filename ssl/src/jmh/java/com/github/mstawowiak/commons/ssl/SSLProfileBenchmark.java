@@ -0,0 +1,65 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of handshake latency against loopback server for each {@link TLSProfile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SSLProfileBenchmark {
+
+    @Param({"MODERN", "COMPATIBLE"})
+    private TLSProfile profile;
+
+    private SSLConfiguration clientConfiguration;
+    private LoopbackServer server;
+
+    @Setup
+    public void setUp() throws IOException {
+        SSLConfiguration serverConfiguration = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name()))
+                .keyAlias("localhost")
+                .profile(profile)
+                .build();
+        clientConfiguration = new SSLConfiguration.Builder()
+                .truststore(SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                        KeyStoreType.JKS.name()))
+                .profile(profile)
+                .build();
+
+        server = new LoopbackServer(serverConfiguration);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public String fullHandshake() throws IOException {
+        return server.connect(clientConfiguration, true);
+    }
+
+    @Benchmark
+    public String resumedHandshake() throws IOException {
+        return server.connect(clientConfiguration, false);
+    }
+}
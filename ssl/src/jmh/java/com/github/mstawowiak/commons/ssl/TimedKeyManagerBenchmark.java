@@ -0,0 +1,62 @@
+package com.github.mstawowiak.commons.ssl;
+
+import com.github.mstawowiak.commons.ssl.metrics.SSLMetrics;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.X509KeyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of overhead of {@link TimedKeyManager} on alias selection by {@link AliasSelectorKeyManager}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimedKeyManagerBenchmark {
+
+    private static final String ALIAS = "mykey";
+
+    private AliasSelectorKeyManager keyManager;
+    private TimedKeyManager timedKeyManager;
+
+    private String keyType;
+    private Principal[] issuers;
+
+    @Setup
+    public void setUp() throws Exception {
+        SSLKeystore keystore = SSLKeystore.fromFile("src/test/resources/ssl/keystore.jks", "123456",
+                KeyStoreType.JKS.name());
+
+        KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        factory.init(keystore.getKeyStore(), keystore.getPassword());
+
+        X509KeyManager sourceKeyManager = (X509KeyManager) factory.getKeyManagers()[0];
+        keyManager = new AliasSelectorKeyManager(sourceKeyManager, ALIAS);
+        timedKeyManager = new TimedKeyManager(keyManager, SSLMetrics.global().getContextMetrics("benchmark"));
+        keyType = sourceKeyManager.getPrivateKey(ALIAS).getAlgorithm();
+        issuers = null;
+    }
+
+    @Benchmark
+    public String chooseServerAlias() {
+        return keyManager.chooseServerAlias(keyType, issuers, null);
+    }
+
+    @Benchmark
+    public String timedChooseServerAlias() {
+        return timedKeyManager.chooseServerAlias(keyType, issuers, null);
+    }
+}
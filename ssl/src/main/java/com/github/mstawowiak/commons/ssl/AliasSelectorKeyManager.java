@@ -5,33 +5,46 @@ import java.security.Principal;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.X509ExtendedKeyManager;
 import javax.net.ssl.X509KeyManager;
 
+/**
+ * Key manager which chooses configured alias when it is eligible for requested key type and issuers.
+ *
+ * Eligibility is computed once per key type and issuers and cached until source key manager is replaced.
+ */
 @SuppressWarnings("PMD.UseVarargs")
 public class AliasSelectorKeyManager extends X509ExtendedKeyManager {
 
-    private final X509KeyManager sourceKeyManager;
+    private static final int MAX_CACHED_ELIGIBILITIES = 1024;
+
+    private volatile Source source;
     private final String alias;
 
     public AliasSelectorKeyManager(X509KeyManager keyManager, String alias) {
-        this.sourceKeyManager = keyManager;
+        this.source = new Source(keyManager);
         this.alias = alias;
     }
 
+    /**
+     * Replace source key manager, e.g. after keystore reload. Handshakes in progress keep the previous one.
+     */
+    void setSourceKeyManager(X509KeyManager keyManager) {
+        this.source = new Source(keyManager);
+    }
+
     public String chooseClientAlias(String[] keyTypes, Principal[] issuers, Socket socket) {
+        Source current = source;
         if (alias == null || alias.isEmpty()) {
-            return sourceKeyManager.chooseClientAlias(keyTypes, issuers, socket);
+            return current.keyManager.chooseClientAlias(keyTypes, issuers, socket);
         }
 
         for (String keyType : keyTypes) {
-            String[] clientAliases = getClientAliases(keyType, issuers);
-            if (clientAliases == null) {
-                continue;
-            }
-
-            if (Arrays.asList(clientAliases).contains(alias)) {
+            if (current.isEligible(true, keyType, issuers, alias)) {
                 return alias;
             }
         }
@@ -40,33 +53,29 @@ public class AliasSelectorKeyManager extends X509ExtendedKeyManager {
     }
 
     public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+        Source current = source;
         if (alias == null || alias.isEmpty()) {
-            return sourceKeyManager.chooseServerAlias(keyType, issuers, socket);
-        }
-
-        String[] serverAliases = getServerAliases(keyType, issuers);
-        if (serverAliases == null || !Arrays.asList(serverAliases).contains(alias)) {
-            return null;
+            return current.keyManager.chooseServerAlias(keyType, issuers, socket);
         }
 
-        return alias;
+        return current.isEligible(false, keyType, issuers, alias) ? alias : null;
     }
 
     public X509Certificate[] getCertificateChain(String alias) {
-        return sourceKeyManager.getCertificateChain(alias);
+        return source.keyManager.getCertificateChain(alias);
     }
 
     @Override
     public String[] getClientAliases(String keyType, Principal[] issuers) {
-        return sourceKeyManager.getClientAliases(keyType, issuers);
+        return source.keyManager.getClientAliases(keyType, issuers);
     }
 
     public PrivateKey getPrivateKey(String alias) {
-        return sourceKeyManager.getPrivateKey(alias);
+        return source.keyManager.getPrivateKey(alias);
     }
 
     public String[] getServerAliases(String keyType, Principal[] issuers) {
-        return sourceKeyManager.getServerAliases(keyType, issuers);
+        return source.keyManager.getServerAliases(keyType, issuers);
     }
 
     @Override
@@ -79,4 +88,68 @@ public class AliasSelectorKeyManager extends X509ExtendedKeyManager {
         return chooseServerAlias(keyType, issuers, null);
     }
 
+    /**
+     * Source key manager with eligibility of alias computed from it, replaced together on reload.
+     */
+    private static final class Source {
+
+        private final X509KeyManager keyManager;
+        private final ConcurrentMap<EligibilityKey, Boolean> eligibilities = new ConcurrentHashMap<>();
+
+        Source(X509KeyManager keyManager) {
+            this.keyManager = keyManager;
+        }
+
+        boolean isEligible(boolean client, String keyType, Principal[] issuers, String alias) {
+            EligibilityKey key = new EligibilityKey(client, keyType, issuers);
+
+            Boolean eligible = eligibilities.get(key);
+            if (eligible == null) {
+                String[] aliases = client
+                        ? keyManager.getClientAliases(keyType, issuers)
+                        : keyManager.getServerAliases(keyType, issuers);
+                eligible = aliases != null && Arrays.asList(aliases).contains(alias);
+
+                if (eligibilities.size() >= MAX_CACHED_ELIGIBILITIES) {
+                    eligibilities.clear();
+                }
+                eligibilities.put(key, eligible);
+            }
+            return eligible;
+        }
+    }
+
+    private static final class EligibilityKey {
+
+        private final boolean client;
+        private final String keyType;
+        private final Principal[] issuers;
+        private final int hash;
+
+        EligibilityKey(boolean client, String keyType, Principal[] issuers) {
+            this.client = client;
+            this.keyType = keyType;
+            this.issuers = issuers;
+            this.hash = 31 * (31 * Boolean.hashCode(client) + Objects.hashCode(keyType)) + Arrays.hashCode(issuers);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EligibilityKey)) {
+                return false;
+            }
+            EligibilityKey other = (EligibilityKey) obj;
+            return client == other.client
+                    && Objects.equals(keyType, other.keyType)
+                    && Arrays.equals(issuers, other.issuers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
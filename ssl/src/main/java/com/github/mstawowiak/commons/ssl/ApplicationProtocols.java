@@ -0,0 +1,53 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * Application protocol (ALPN) getters of {@link SSLSocket} and {@link SSLEngine} available since Java 9
+ * (and later Java 8 updates), called by reflection on sockets and engines wrapped for metrics.
+ */
+final class ApplicationProtocols {
+
+    private static final Method SOCKET_PROTOCOL = method(SSLSocket.class, "getApplicationProtocol");
+    private static final Method SOCKET_HANDSHAKE_PROTOCOL = method(SSLSocket.class, "getHandshakeApplicationProtocol");
+    private static final Method ENGINE_PROTOCOL = method(SSLEngine.class, "getApplicationProtocol");
+    private static final Method ENGINE_HANDSHAKE_PROTOCOL = method(SSLEngine.class, "getHandshakeApplicationProtocol");
+
+    private ApplicationProtocols() {
+    }
+
+    static String of(SSLSocket socket, boolean handshake) {
+        return invoke(handshake ? SOCKET_HANDSHAKE_PROTOCOL : SOCKET_PROTOCOL, socket);
+    }
+
+    static String of(SSLEngine engine, boolean handshake) {
+        return invoke(handshake ? ENGINE_HANDSHAKE_PROTOCOL : ENGINE_PROTOCOL, engine);
+    }
+
+    private static String invoke(Method method, Object target) {
+        if (method == null) {
+            throw new UnsupportedOperationException("Application protocols are not supported");
+        }
+        try {
+            return (String) method.invoke(target);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new SSLConfigurationException("Failed to get application protocol: " + ex.getMessage(), ex);
+        } catch (IllegalAccessException ex) {
+            throw new SSLConfigurationException("Failed to get application protocol: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static Method method(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+/**
+ * Trust manager which remembers chains validated by source trust manager, so handshakes with known peers
+ * skip building and verifying of certification path.
+ *
+ * Chains are keyed by SHA-256 fingerprint of their certificates, authentication type, side of connection and,
+ * when endpoint identification algorithm is set for the socket or engine, the algorithm and host names of peer
+ * which source trust manager verifies, so a cached chain was already verified for the same host. Validated chain
+ * is kept until time to live passes or any of its certificates expires, at most {@code maxSize} chains,
+ * approximately least recently used are evicted first. Failed validations are not cached.
+ * Revocation status and algorithm constraints of cached chain are checked again only after it is evicted.
+ *
+ * Lookups do not lock. Use counter advances only when a chain is added, a hit marks the chain with the current
+ * counter and writes only when the mark changes, so hits of hot chains are read-only.
+ */
+@SuppressWarnings("PMD.UseVarargs")
+public class CachingTrustManager extends X509ExtendedTrustManager {
+
+    private final X509ExtendedTrustManager delegate;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<ChainKey, Entry> validated = new ConcurrentHashMap<>();
+    private final AtomicLong uses = new AtomicLong();
+
+    /**
+     * @param delegate source trust manager which validates chains and verifies host names
+     * @param maxSize maximum number of cached chains
+     * @param ttlMillis time to live of cached chain in milliseconds
+     */
+    public CachingTrustManager(X509ExtendedTrustManager delegate, int maxSize, long ttlMillis) {
+        this(delegate, maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    CachingTrustManager(X509ExtendedTrustManager delegate, int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive: " + ttlMillis);
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        ChainKey key = ChainKey.of(chain, authType, false, identity(socket, false));
+        if (!isValidated(key)) {
+            delegate.checkClientTrusted(chain, authType, socket);
+            validated(key, chain);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        ChainKey key = ChainKey.of(chain, authType, true, identity(socket, true));
+        if (!isValidated(key)) {
+            delegate.checkServerTrusted(chain, authType, socket);
+            validated(key, chain);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        ChainKey key = ChainKey.of(chain, authType, false, identity(engine, false));
+        if (!isValidated(key)) {
+            delegate.checkClientTrusted(chain, authType, engine);
+            validated(key, chain);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        ChainKey key = ChainKey.of(chain, authType, true, identity(engine, true));
+        if (!isValidated(key)) {
+            delegate.checkServerTrusted(chain, authType, engine);
+            validated(key, chain);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        ChainKey key = ChainKey.of(chain, authType, false, null);
+        if (!isValidated(key)) {
+            delegate.checkClientTrusted(chain, authType);
+            validated(key, chain);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        ChainKey key = ChainKey.of(chain, authType, true, null);
+        if (!isValidated(key)) {
+            delegate.checkServerTrusted(chain, authType);
+            validated(key, chain);
+        }
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+
+    /**
+     * @return number of cached chains, including expired ones not evicted yet
+     */
+    public int size() {
+        return validated.size();
+    }
+
+    /**
+     * Forget all validated chains, e.g. after truststore reload.
+     */
+    public void clear() {
+        validated.clear();
+    }
+
+    private boolean isValidated(ChainKey key) {
+        if (key == null) {
+            return false;
+        }
+        Entry entry = validated.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.expires <= clock.getAsLong()) {
+            validated.remove(key, entry);
+            return false;
+        }
+        long now = uses.get();
+        if (entry.used != now) {
+            entry.used = now;
+        }
+        return true;
+    }
+
+    private void validated(ChainKey key, X509Certificate[] chain) {
+        if (key == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long expires = now + ttlMillis;
+        for (X509Certificate certificate : chain) {
+            expires = Math.min(expires, certificate.getNotAfter().getTime());
+        }
+        if (expires > now) {
+            validated.put(key, new Entry(expires, uses.getAndIncrement()));
+            while (validated.size() > maxSize) {
+                evictLeastRecentlyUsed();
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<ChainKey, Entry> oldest = null;
+        for (Map.Entry<ChainKey, Entry> candidate : validated.entrySet()) {
+            if (oldest == null || candidate.getValue().used < oldest.getValue().used) {
+                oldest = candidate;
+            }
+        }
+        if (oldest != null) {
+            validated.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    /**
+     * Identity verified by source trust manager for connected socket, as for engine.
+     */
+    private static String identity(Socket socket, boolean server) {
+        if (socket instanceof SSLSocket && socket.isConnected()) {
+            SSLSocket sslSocket = (SSLSocket) socket;
+            return identity(sslSocket.getSSLParameters().getEndpointIdentificationAlgorithm(),
+                    sslSocket.getHandshakeSession(), server);
+        }
+        return null;
+    }
+
+    private static String identity(SSLEngine engine, boolean server) {
+        if (engine != null) {
+            return identity(engine.getSSLParameters().getEndpointIdentificationAlgorithm(),
+                    engine.getHandshakeSession(), server);
+        }
+        return null;
+    }
+
+    /**
+     * Endpoint identification algorithm with host names which source trust manager verifies certificate against:
+     * host name requested by SNI and peer host for certificate of server, peer host for certificate of client.
+     *
+     * @return identity, null when host name is not verified
+     */
+    private static String identity(String algorithm, SSLSession session, boolean server) {
+        if (algorithm == null || algorithm.isEmpty() || session == null) {
+            return null;
+        }
+        String requestedHostname = server ? requestedHostname(session) : null;
+        return algorithm + '\n' + requestedHostname + '\n' + session.getPeerHost();
+    }
+
+    private static String requestedHostname(SSLSession session) {
+        if (session instanceof ExtendedSSLSession) {
+            for (SNIServerName serverName : ((ExtendedSSLSession) session).getRequestedServerNames()) {
+                if (serverName instanceof SNIHostName) {
+                    return ((SNIHostName) serverName).getAsciiName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * SHA-256 of encoded certificates of chain, authentication type, side of connection and identity of peer.
+     */
+    private static final class ChainKey {
+
+        private final byte[] digest;
+        private final int hash;
+
+        private ChainKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        /**
+         * @return key of chain, null for empty chain which is left to source trust manager to reject
+         */
+        static ChainKey of(X509Certificate[] chain, String authType, boolean server, String identity)
+                throws CertificateException {
+            if (chain == null || chain.length == 0 || authType == null) {
+                return null;
+            }
+            try {
+                MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+                for (X509Certificate certificate : chain) {
+                    byte[] encoded = certificate.getEncoded();
+                    messageDigest.update(ByteBuffer.allocate(4).putInt(encoded.length).array());
+                    messageDigest.update(encoded);
+                }
+                messageDigest.update((byte) (server ? 1 : 0));
+                messageDigest.update(authType.getBytes(StandardCharsets.UTF_8));
+                if (identity != null) {
+                    messageDigest.update((byte) 0);
+                    messageDigest.update(identity.getBytes(StandardCharsets.UTF_8));
+                }
+
+                return new ChainKey(messageDigest.digest());
+            } catch (NoSuchAlgorithmException ex) {
+                throw new CertificateException("Failed to fingerprint certificate chain: " + ex.getMessage(), ex);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ChainKey && Arrays.equals(digest, ((ChainKey) obj).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long expires;
+        private volatile long used;
+
+        Entry(long expires, long used) {
+            this.expires = expires;
+            this.used = used;
+        }
+    }
+}
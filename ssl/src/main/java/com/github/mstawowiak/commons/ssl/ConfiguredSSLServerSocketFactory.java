@@ -0,0 +1,65 @@
+package com.github.mstawowiak.commons.ssl;
+
+import com.github.mstawowiak.commons.ssl.metrics.SSLContextMetrics;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLServerSocketFactory;
+
+/**
+ * Server socket factory which applies {@link ConnectionParameters} to created server sockets and records
+ * handshakes of accepted sockets in {@link SSLContextMetrics} when metrics are enabled.
+ */
+final class ConfiguredSSLServerSocketFactory extends SSLServerSocketFactory {
+
+    private final SSLServerSocketFactory delegate;
+    private final ConnectionParameters parameters;
+    private final SSLContextMetrics metrics;
+
+    ConfiguredSSLServerSocketFactory(SSLServerSocketFactory delegate, ConnectionParameters parameters,
+            SSLContextMetrics metrics) {
+        this.delegate = delegate;
+        this.parameters = parameters;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        String[] cipherSuites = parameters.getCipherSuites();
+        return cipherSuites != null ? cipherSuites.clone() : delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public ServerSocket createServerSocket() throws IOException {
+        return configure(delegate.createServerSocket());
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        return configure(delegate.createServerSocket(port));
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+        return configure(delegate.createServerSocket(port, backlog));
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+        return configure(delegate.createServerSocket(port, backlog, address));
+    }
+
+    private ServerSocket configure(ServerSocket serverSocket) throws IOException {
+        if (!(serverSocket instanceof SSLServerSocket)) {
+            return serverSocket;
+        }
+        SSLServerSocket sslServerSocket = parameters.applyTo((SSLServerSocket) serverSocket);
+        return metrics != null ? new TimedSSLServerSocket(sslServerSocket, metrics) : sslServerSocket;
+    }
+}
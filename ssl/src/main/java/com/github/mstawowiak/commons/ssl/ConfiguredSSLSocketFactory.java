@@ -0,0 +1,82 @@
+package com.github.mstawowiak.commons.ssl;
+
+import com.github.mstawowiak.commons.ssl.metrics.SSLContextMetrics;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Socket factory which applies {@link ConnectionParameters} to created sockets and records their handshakes
+ * in {@link SSLContextMetrics} when metrics are enabled.
+ */
+final class ConfiguredSSLSocketFactory extends SSLSocketFactory {
+
+    private final SSLSocketFactory delegate;
+    private final ConnectionParameters parameters;
+    private final SSLContextMetrics metrics;
+
+    ConfiguredSSLSocketFactory(SSLSocketFactory delegate, ConnectionParameters parameters,
+            SSLContextMetrics metrics) {
+        this.delegate = delegate;
+        this.parameters = parameters;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        String[] cipherSuites = parameters.getCipherSuites();
+        return cipherSuites != null ? cipherSuites.clone() : delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return configure(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+        return configure(delegate.createSocket(socket, host, port, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, InputStream consumed, boolean autoClose) throws IOException {
+        return configure(delegate.createSocket(socket, consumed, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return configure(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        return configure(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return configure(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+            throws IOException {
+        return configure(delegate.createSocket(address, port, localAddress, localPort));
+    }
+
+    private Socket configure(Socket socket) {
+        if (!(socket instanceof SSLSocket)) {
+            return socket;
+        }
+        SSLSocket sslSocket = parameters.applyTo((SSLSocket) socket);
+        return metrics != null ? new TimedSSLSocket(sslSocket, metrics) : sslSocket;
+    }
+}
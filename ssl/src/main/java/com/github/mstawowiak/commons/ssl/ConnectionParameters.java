@@ -0,0 +1,155 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * Parameters of {@link SSLConfiguration} applied to each socket and engine: enabled protocols, cipher suites
+ * in order of preference (honored by servers too) and named groups. Default cipher suites may be ordered
+ * to prefer ECDHE key exchange.
+ *
+ * Named groups are set by {@code SSLParameters.setNamedGroups} available since Java 20.
+ */
+final class ConnectionParameters {
+
+    private static final Method SET_NAMED_GROUPS = namedGroupsSetter();
+
+    private final String[] protocols;
+    private final String[] cipherSuites;
+    private final boolean preferEcdhe;
+    private final String[] namedGroups;
+
+    ConnectionParameters(List<String> protocols, List<String> cipherSuites, boolean preferEcdhe,
+            List<String> namedGroups) {
+        this.protocols = protocols != null ? protocols.toArray(new String[0]) : null;
+        this.cipherSuites = cipherSuites != null ? cipherSuites.toArray(new String[0]) : null;
+        this.preferEcdhe = preferEcdhe;
+        this.namedGroups = namedGroups != null ? namedGroups.toArray(new String[0]) : null;
+    }
+
+    /**
+     * Get parameters with protocols and cipher suites limited to the ones supported by context, order is kept.
+     */
+    ConnectionParameters supportedBy(SSLContext sslContext) {
+        SSLParameters supported = sslContext.getSupportedSSLParameters();
+        List<String> supportedProtocols = protocols != null
+                ? supportedOf(protocols, supported.getProtocols(), "protocols")
+                : null;
+
+        List<String> supportedSuites;
+        if (cipherSuites != null) {
+            supportedSuites = supportedOf(cipherSuites, supported.getCipherSuites(), "cipher suites");
+        } else if (preferEcdhe) {
+            supportedSuites = Arrays.asList(orderByKeyExchange(sslContext.getDefaultSSLParameters().getCipherSuites()));
+        } else {
+            supportedSuites = null;
+        }
+
+        return new ConnectionParameters(supportedProtocols, supportedSuites, false,
+                namedGroups != null ? Arrays.asList(namedGroups) : null);
+    }
+
+    private static List<String> supportedOf(String[] values, String[] supportedValues, String description) {
+        Set<String> supported = new LinkedHashSet<>(Arrays.asList(supportedValues));
+
+        String[] supportedOf = Arrays.stream(values).filter(supported::contains).toArray(String[]::new);
+        if (supportedOf.length == 0) {
+            throw new SSLConfigurationException("None of " + description + " is supported: "
+                    + String.join(", ", values), null);
+        }
+        return Arrays.asList(supportedOf);
+    }
+
+    /**
+     * Stable order of cipher suites by key exchange: TLS 1.3 suites (always ephemeral), ECDHE, DHE, others.
+     */
+    static String[] orderByKeyExchange(String[] suites) {
+        return Arrays.stream(suites)
+                .sorted(Comparator.comparingInt(ConnectionParameters::keyExchangeRank))
+                .toArray(String[]::new);
+    }
+
+    private static int keyExchangeRank(String suite) {
+        if (!suite.contains("_WITH_")) {
+            return suite.startsWith("TLS_EMPTY_") ? 3 : 0;
+        } else if (suite.startsWith("TLS_ECDHE_")) {
+            return 1;
+        } else if (suite.startsWith("TLS_DHE_")) {
+            return 2;
+        }
+        return 3;
+    }
+
+    boolean isDefault() {
+        return protocols == null && cipherSuites == null && !preferEcdhe && namedGroups == null;
+    }
+
+    /**
+     * @return true if named groups can be set per connection
+     */
+    static boolean isNamedGroupsSupported() {
+        return SET_NAMED_GROUPS != null;
+    }
+
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    String[] getCipherSuites() {
+        return cipherSuites;
+    }
+
+    SSLParameters applyTo(SSLParameters parameters) {
+        if (protocols != null) {
+            parameters.setProtocols(protocols.clone());
+        }
+        if (cipherSuites != null) {
+            parameters.setCipherSuites(cipherSuites.clone());
+            parameters.setUseCipherSuitesOrder(true);
+        }
+        if (namedGroups != null) {
+            try {
+                SET_NAMED_GROUPS.invoke(parameters, (Object) namedGroups.clone());
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                throw new SSLConfigurationException("Failed to set named groups: " + ex.getMessage(), ex);
+            }
+        }
+        return parameters;
+    }
+
+    SSLEngine applyTo(SSLEngine engine) {
+        if (!isDefault()) {
+            engine.setSSLParameters(applyTo(engine.getSSLParameters()));
+        }
+        return engine;
+    }
+
+    SSLSocket applyTo(SSLSocket socket) {
+        if (!isDefault()) {
+            socket.setSSLParameters(applyTo(socket.getSSLParameters()));
+        }
+        return socket;
+    }
+
+    SSLServerSocket applyTo(SSLServerSocket serverSocket) {
+        if (!isDefault()) {
+            serverSocket.setSSLParameters(applyTo(serverSocket.getSSLParameters()));
+        }
+        return serverSocket;
+    }
+
+    private static Method namedGroupsSetter() {
+        try {
+            return SSLParameters.class.getMethod("setNamedGroups", String[].class);
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+}
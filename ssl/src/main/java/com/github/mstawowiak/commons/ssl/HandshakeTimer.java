@@ -0,0 +1,70 @@
+package com.github.mstawowiak.commons.ssl;
+
+import com.github.mstawowiak.commons.ssl.metrics.SSLContextMetrics;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLSession;
+
+/**
+ * Records first handshake of socket or engine in {@link SSLContextMetrics}, measured from the first handshake
+ * message, so time of connecting and waiting for peer before it is not counted. Session created before start
+ * of handshake was resumed.
+ *
+ * Handshake is recorded by thread which finishes it, no listener thread is started.
+ */
+final class HandshakeTimer {
+
+    private final SSLContextMetrics metrics;
+
+    private volatile boolean started;
+    private volatile boolean finished;
+    private long startNanos;
+    private long startMillis;
+
+    HandshakeTimer(SSLContextMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    synchronized void start(long nanos, long millis) {
+        if (!started) {
+            startNanos = nanos;
+            startMillis = millis;
+            started = true;
+        }
+    }
+
+    synchronized void finish(SSLSession session) {
+        if (started && !finished) {
+            finished = true;
+            metrics.recordHandshake(System.nanoTime() - startNanos, session.getCreationTime() < startMillis);
+        }
+    }
+
+    /**
+     * Start handshake when engine consumed or produced first handshake message and finish it when engine
+     * reports it finished.
+     *
+     * @param result result of wrap or unwrap
+     * @param nanos nano time before the call of engine
+     * @param millis time before the call of engine
+     * @param engine engine which produced the result
+     * @return the result
+     */
+    SSLEngineResult record(SSLEngineResult result, long nanos, long millis, SSLEngine engine) {
+        if (!started && (result.bytesConsumed() > 0 || result.bytesProduced() > 0)) {
+            start(nanos, millis);
+        }
+        if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED) {
+            finish(engine.getSession());
+        }
+        return result;
+    }
+}
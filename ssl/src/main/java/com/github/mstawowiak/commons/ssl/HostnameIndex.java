@@ -0,0 +1,221 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.Principal;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+
+/**
+ * Index of key aliases by host names of their certificates (DNS subject alternative names, or common name
+ * when there are none). Wildcard names ({@code *.example.com}) match exactly one leftmost label.
+ *
+ * When many certificates have the same host name, e.g. during rotation, currently valid certificates issued by
+ * requested issuers are preferred, then other currently valid certificates, and certificates expiring later
+ * are preferred among equal ones.
+ */
+final class HostnameIndex {
+
+    private static final int DNS_NAME = 2;
+    private static final String WILDCARD_PREFIX = "*.";
+
+    private final Map<String, List<Entry>> exactNames = new HashMap<>();
+    private final Map<String, List<Entry>> wildcardNames = new HashMap<>();
+    private final Map<String, String> keyAlgorithms = new HashMap<>();
+
+    private HostnameIndex() {
+    }
+
+    static HostnameIndex of(KeyStore keyStore) {
+        HostnameIndex index = new HostnameIndex();
+        try {
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (keyStore.isKeyEntry(alias) && certificate instanceof X509Certificate) {
+                    index.add(alias, (X509Certificate) certificate, keyStore.getCertificateChain(alias));
+                }
+            }
+        } catch (KeyStoreException ex) {
+            throw new SSLConfigurationException("Failed to index keystore aliases: " + ex.getMessage(), ex);
+        }
+        index.exactNames.values().forEach(entries -> entries.sort(Entry.LATEST_EXPIRY_FIRST));
+        index.wildcardNames.values().forEach(entries -> entries.sort(Entry.LATEST_EXPIRY_FIRST));
+        return index;
+    }
+
+    /**
+     * Find alias for host name and key type.
+     *
+     * @param hostname requested host name
+     * @param keyType key type requested by handshake, e.g. {@code RSA} or {@code EC_EC}
+     * @param issuers issuers accepted by peer, or null when any issuer is accepted
+     * @return alias or null when there is no certificate of the key type for the host name
+     */
+    String find(String hostname, String keyType, Principal[] issuers) {
+        return find(entries(hostname), keyType, issuers, System.currentTimeMillis());
+    }
+
+    boolean contains(String hostname) {
+        return entries(hostname) != null;
+    }
+
+    boolean matches(String alias, String keyType) {
+        String keyAlgorithm = keyAlgorithms.get(alias);
+        return keyAlgorithm != null && matchesKeyType(keyAlgorithm, keyType);
+    }
+
+    private void add(String alias, X509Certificate certificate, Certificate[] chain) {
+        String keyAlgorithm = certificate.getPublicKey().getAlgorithm();
+        keyAlgorithms.put(alias, keyAlgorithm);
+
+        Set<Principal> chainIssuers = new HashSet<>();
+        for (Certificate chainCertificate : chain != null ? chain : new Certificate[] {certificate}) {
+            if (chainCertificate instanceof X509Certificate) {
+                chainIssuers.add(((X509Certificate) chainCertificate).getIssuerX500Principal());
+            }
+        }
+
+        Entry entry = new Entry(alias, keyAlgorithm, certificate, chainIssuers);
+        for (String name : hostnames(certificate)) {
+            if (name.startsWith(WILDCARD_PREFIX)) {
+                wildcardNames.computeIfAbsent(name.substring(WILDCARD_PREFIX.length()), key -> new ArrayList<>())
+                        .add(entry);
+            } else {
+                exactNames.computeIfAbsent(name, key -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    private List<Entry> entries(String hostname) {
+        String name = normalize(hostname);
+
+        List<Entry> entries = exactNames.get(name);
+        if (entries == null) {
+            int dot = name.indexOf('.');
+            if (dot > 0) {
+                entries = wildcardNames.get(name.substring(dot + 1));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Entries are sorted by expiry, so first entry of the best rank expires latest.
+     */
+    private static String find(List<Entry> entries, String keyType, Principal[] issuers, long now) {
+        if (entries == null) {
+            return null;
+        }
+
+        Set<Principal> acceptedIssuers = issuers != null && issuers.length > 0
+                ? new HashSet<>(Arrays.asList(issuers)) : null;
+        Entry best = null;
+        int bestRank = -1;
+        for (Entry entry : entries) {
+            if (matchesKeyType(entry.keyAlgorithm, keyType)) {
+                int rank = entry.rank(acceptedIssuers, now);
+                if (rank > bestRank) {
+                    best = entry;
+                    bestRank = rank;
+                }
+            }
+        }
+        return best != null ? best.alias : null;
+    }
+
+    private static boolean matchesKeyType(String keyAlgorithm, String keyType) {
+        return keyType == null || keyType.equals(keyAlgorithm) || keyType.startsWith(keyAlgorithm + "_");
+    }
+
+    private static Set<String> hostnames(X509Certificate certificate) {
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            Collection<List<?>> alternativeNames = certificate.getSubjectAlternativeNames();
+            if (alternativeNames != null) {
+                for (List<?> alternativeName : alternativeNames) {
+                    if (((Integer) alternativeName.get(0)) == DNS_NAME) {
+                        names.add(normalize((String) alternativeName.get(1)));
+                    }
+                }
+            }
+        } catch (CertificateParsingException ex) {
+            throw new SSLConfigurationException("Failed to read certificate names: " + ex.getMessage(), ex);
+        }
+
+        if (names.isEmpty()) {
+            String commonName = commonName(certificate);
+            if (commonName != null) {
+                names.add(normalize(commonName));
+            }
+        }
+        return names;
+    }
+
+    private static String commonName(X509Certificate certificate) {
+        try {
+            for (Rdn rdn : new LdapName(certificate.getSubjectX500Principal().getName()).getRdns()) {
+                if ("CN".equalsIgnoreCase(rdn.getType())) {
+                    return rdn.getValue().toString();
+                }
+            }
+        } catch (InvalidNameException ex) {
+            throw new SSLConfigurationException("Failed to read certificate subject: " + ex.getMessage(), ex);
+        }
+        return null;
+    }
+
+    private static String normalize(String hostname) {
+        String name = hostname.toLowerCase(Locale.ROOT);
+        return name.endsWith(".") ? name.substring(0, name.length() - 1) : name;
+    }
+
+    private static final class Entry {
+
+        private static final Comparator<Entry> LATEST_EXPIRY_FIRST =
+                Comparator.comparingLong((Entry entry) -> entry.notAfter).reversed();
+
+        private static final int VALID = 2;
+        private static final int ACCEPTED_ISSUER = 1;
+
+        private final String alias;
+        private final String keyAlgorithm;
+        private final long notBefore;
+        private final long notAfter;
+        private final Set<Principal> issuers;
+
+        Entry(String alias, String keyAlgorithm, X509Certificate certificate, Set<Principal> issuers) {
+            this.alias = alias;
+            this.keyAlgorithm = keyAlgorithm;
+            this.notBefore = certificate.getNotBefore().getTime();
+            this.notAfter = certificate.getNotAfter().getTime();
+            this.issuers = issuers;
+        }
+
+        /**
+         * Validity outranks issuer, so expired certificate is chosen only when there is no valid one.
+         */
+        int rank(Set<Principal> acceptedIssuers, long now) {
+            int rank = notBefore <= now && now <= notAfter ? VALID : 0;
+            if (acceptedIssuers == null || !Collections.disjoint(issuers, acceptedIssuers)) {
+                rank += ACCEPTED_ISSUER;
+            }
+            return rank;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of keystore entries for logging and diagnostics: number of aliases, key type and expiry
+ * of certificate of each alias. Computed once per loaded keystore by {@link SSLKeystore#getDiagnostics()},
+ * changes made through {@link SSLKeystore#getKeyStore()} afterwards are not reflected.
+ */
+public final class KeystoreDiagnostics {
+
+    private static final int MAX_LISTED_ALIASES = 10;
+
+    private final KeyStore source;
+
+    private final String path;
+    private final String type;
+    private final List<Entry> entries;
+    private final int keyEntries;
+    private final int certificateEntries;
+    private final Entry earliestExpiring;
+
+    private final String summary;
+
+    private KeystoreDiagnostics(String path, KeyStore source, List<Entry> entries) {
+        this.source = source;
+        this.path = path;
+        this.type = source.getType();
+        this.entries = Collections.unmodifiableList(entries);
+
+        int keys = 0;
+        Entry earliest = null;
+        for (Entry entry : entries) {
+            if (entry.entryType != EntryType.TRUSTED_CERTIFICATE) {
+                keys++;
+            }
+            if (entry.notAfter != null && (earliest == null || entry.notAfter.isBefore(earliest.notAfter))) {
+                earliest = entry;
+            }
+        }
+        this.keyEntries = keys;
+        this.certificateEntries = entries.size() - keys;
+        this.earliestExpiring = earliest;
+        this.summary = summarize();
+    }
+
+    static KeystoreDiagnostics of(String path, KeyStore keyStore) {
+        try {
+            List<String> aliases = Collections.list(keyStore.aliases());
+            Collections.sort(aliases);
+
+            List<Entry> entries = new ArrayList<>(aliases.size());
+            for (String alias : aliases) {
+                entries.add(Entry.of(keyStore, alias));
+            }
+            return new KeystoreDiagnostics(path, keyStore, entries);
+        } catch (KeyStoreException ex) {
+            throw new SSLConfigurationException("Failed to read keystore entries: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @return true when this snapshot was taken of given keystore instance
+     */
+    boolean isOf(KeyStore keyStore) {
+        return source == keyStore;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return entries sorted by alias
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int getAliasCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of private and secret key entries
+     */
+    public int getKeyEntryCount() {
+        return keyEntries;
+    }
+
+    /**
+     * @return number of trusted certificate entries
+     */
+    public int getCertificateEntryCount() {
+        return certificateEntries;
+    }
+
+    /**
+     * @return entry with certificate expiring first, null when there are no certificates
+     */
+    public Entry getEarliestExpiring() {
+        return earliestExpiring;
+    }
+
+    /**
+     * @return description of keystore without leading name, computed once
+     */
+    String summary() {
+        return summary;
+    }
+
+    @Override
+    public String toString() {
+        return "KeystoreDiagnostics [" + summary + ']';
+    }
+
+    private String summarize() {
+        StringBuilder sb = new StringBuilder(100);
+        if (path != null) {
+            sb.append("path: ").append(path).append(", ");
+        }
+        sb.append("type: ").append(type);
+
+        sb.append(", aliases: ");
+        for (int i = 0; i < entries.size() && i < MAX_LISTED_ALIASES; i++) {
+            sb.append(i > 0 ? ", " : "").append(entries.get(i).alias);
+        }
+        if (entries.size() > MAX_LISTED_ALIASES) {
+            sb.append(", ... (").append(entries.size() - MAX_LISTED_ALIASES).append(" more)");
+        }
+
+        sb.append(", keyEntries: ").append(keyEntries)
+                .append(", certificateEntries: ").append(certificateEntries);
+        if (earliestExpiring != null) {
+            sb.append(", earliestExpiry: ").append(earliestExpiring.notAfter)
+                    .append(" (").append(earliestExpiring.alias).append(')');
+        }
+        return sb.toString();
+    }
+
+    public enum EntryType {
+        PRIVATE_KEY,
+        SECRET_KEY,
+        TRUSTED_CERTIFICATE
+    }
+
+    /**
+     * Alias of keystore with type of entry, and key algorithm and expiry of its certificate.
+     */
+    public static final class Entry {
+
+        private final String alias;
+        private final EntryType entryType;
+        private final String keyType;
+        private final Instant notAfter;
+
+        private Entry(String alias, EntryType entryType, String keyType, Instant notAfter) {
+            this.alias = alias;
+            this.entryType = entryType;
+            this.keyType = keyType;
+            this.notAfter = notAfter;
+        }
+
+        static Entry of(KeyStore keyStore, String alias) throws KeyStoreException {
+            Certificate certificate = keyStore.getCertificate(alias);
+
+            EntryType entryType;
+            if (keyStore.isCertificateEntry(alias)) {
+                entryType = EntryType.TRUSTED_CERTIFICATE;
+            } else {
+                entryType = certificate != null ? EntryType.PRIVATE_KEY : EntryType.SECRET_KEY;
+            }
+
+            String keyType = certificate != null ? certificate.getPublicKey().getAlgorithm() : null;
+            Instant notAfter = certificate instanceof X509Certificate
+                    ? ((X509Certificate) certificate).getNotAfter().toInstant()
+                    : null;
+            return new Entry(alias, entryType, keyType, notAfter);
+        }
+
+        public String getAlias() {
+            return alias;
+        }
+
+        public EntryType getEntryType() {
+            return entryType;
+        }
+
+        /**
+         * @return algorithm of public key of certificate, e.g. {@code RSA} or {@code EC}, null for secret keys
+         */
+        public String getKeyType() {
+            return keyType;
+        }
+
+        /**
+         * @return expiry of certificate, null for secret keys and non X.509 certificates
+         */
+        public Instant getNotAfter() {
+            return notAfter;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry [alias: " + alias + ", entryType: " + entryType + ", keyType: " + keyType
+                    + ", notAfter: " + notAfter + ']';
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Watcher of keystore files. One daemon thread watches all directories with {@link WatchService}
+ * and reloads keystores when their files change, so parsing never happens on handshake threads.
+ * Keystores are held weakly, so watching does not keep unused keystores reachable.
+ */
+final class KeystoreFileWatcher {
+
+    private static final KeystoreFileWatcher INSTANCE = new KeystoreFileWatcher();
+
+    private final ConcurrentMap<Path, List<WeakReference<SSLKeystore>>> keystores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, FileTime> modificationTimes = new ConcurrentHashMap<>();
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+
+    private volatile WatchService watchService;
+
+    private KeystoreFileWatcher() {
+    }
+
+    static void watch(SSLKeystore keystore) {
+        INSTANCE.register(keystore);
+    }
+
+    /**
+     * @return true when directory is registered with watch service
+     */
+    static boolean isWatching(Path directory) {
+        return INSTANCE.directories.contains(directory.toAbsolutePath().normalize());
+    }
+
+    private void register(SSLKeystore keystore) {
+        Path file = FileSystems.getDefault().getPath(keystore.getPath()).toAbsolutePath().normalize();
+        Path directory = file.getParent();
+
+        keystores.compute(file, (key, fileKeystores) -> {
+            List<WeakReference<SSLKeystore>> registered =
+                    fileKeystores != null ? fileKeystores : new CopyOnWriteArrayList<>();
+            registered.add(new WeakReference<>(keystore));
+            modificationTimes.putIfAbsent(file, modificationTime(file));
+            return registered;
+        });
+
+        if (directories.add(directory)) {
+            try {
+                directory.register(watchService(), StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException ex) {
+                directories.remove(directory);
+                throw new UncheckedIOException("Failed to watch keystore file " + file, ex);
+            }
+        }
+    }
+
+    private synchronized WatchService watchService() throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+
+            Thread watcher = new Thread(this::watch, "ssl-keystore-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        return watchService;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path) {
+                        changed(directory.resolve((Path) event.context()));
+                    }
+                }
+
+                // key of deleted directory is no longer valid, directory is registered again by next keystore
+                if (!key.reset()) {
+                    directories.remove(directory);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // stop watching
+        }
+    }
+
+    /**
+     * Reload keystores of changed file. File which is still being written usually fails to parse,
+     * previous keystore is kept then, failure is passed to handler of keystore and reload is repeated
+     * on next event of the file.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void changed(Path file) {
+        List<WeakReference<SSLKeystore>> fileKeystores = keystores.get(file);
+        if (fileKeystores == null) {
+            return;
+        }
+
+        FileTime modificationTime = modificationTime(file);
+        if (modificationTime == null || modificationTime.equals(modificationTimes.get(file))) {
+            return;
+        }
+
+        boolean reloaded = true;
+        for (WeakReference<SSLKeystore> reference : fileKeystores) {
+            SSLKeystore keystore = reference.get();
+            if (keystore == null) {
+                fileKeystores.remove(reference);
+                continue;
+            }
+            try {
+                keystore.reload();
+            } catch (RuntimeException ex) {
+                reloaded = false;
+                keystore.reloadFailed(ex);
+            }
+        }
+        if (reloaded) {
+            modificationTimes.put(file, modificationTime);
+        }
+        keystores.computeIfPresent(file, (key, registered) -> {
+            if (!registered.isEmpty()) {
+                return registered;
+            }
+            modificationTimes.remove(file);
+            return null;
+        });
+    }
+
+    private static FileTime modificationTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+}
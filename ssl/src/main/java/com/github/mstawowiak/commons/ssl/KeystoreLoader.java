@@ -0,0 +1,217 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loader of keystore files which parses them in parallel and shares parsed keystores.
+ *
+ * Files are memory-mapped, hashed and parsed without copying into heap buffers. Keystores are cached by path,
+ * modification time and size, so unchanged files are not read again, and by SHA-256 of content, password
+ * and type, so identical stores at different paths are parsed once.
+ * Keystores of identical stores at different paths have their own path and share parsed {@link KeyStore},
+ * so {@link SSLConfiguration}s built from them share {@link javax.net.ssl.SSLContext}.
+ *
+ * Keystores and their passwords are cached only as long as returned keystores are reachable.
+ * Returned keystores must not be modified.
+ */
+public final class KeystoreLoader {
+
+    private static final KeystoreLoader DEFAULT = new KeystoreLoader(ForkJoinPool.commonPool());
+
+    private final Executor executor;
+
+    private final ConcurrentMap<Path, FileEntry> files = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ContentKey, WeakReference<SSLKeystore>> contents = new ConcurrentHashMap<>();
+
+    public KeystoreLoader(ForkJoinPool pool) {
+        this.executor = pool;
+    }
+
+    /**
+     * @return loader using {@link ForkJoinPool#commonPool()}
+     */
+    public static KeystoreLoader getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Load keystore from file in calling thread.
+     *
+     * @param path path of keystore file
+     * @param password password of keystore
+     * @param type type of keystore, default type when null
+     * @return shared keystore
+     */
+    public SSLKeystore load(String path, String password, String type) {
+        Path file = Paths.get(path).toAbsolutePath().normalize();
+        String keyStoreType = type != null ? type : KeyStore.getDefaultType();
+        char[] passwordChars = password.toCharArray();
+
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            long size = Files.size(file);
+
+            FileEntry entry = files.get(file);
+            SSLKeystore cached = entry != null ? entry.keystore(modified, size, passwordChars, keyStoreType) : null;
+            if (cached != null) {
+                return cached;
+            }
+
+            ByteBuffer content = SSLKeystore.map(file.toString());
+            ContentKey contentKey = ContentKey.of(content, passwordChars, keyStoreType);
+
+            SSLKeystore shared = cachedContent(contentKey);
+            if (shared == null) {
+                shared = shareContent(contentKey, SSLKeystore.parse(path, content, passwordChars, keyStoreType));
+            }
+            SSLKeystore keystore = path.equals(shared.getPath()) ? shared : shared.withPath(path);
+
+            files.values().removeIf(FileEntry::isCleared);
+            files.put(file, new FileEntry(modified, size, keystore));
+
+            return keystore;
+        } catch (IOException ex) {
+            throw new SSLConfigurationException("Failed to load keystore/truststore from file: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Load keystore from file in pool of loader, start many loads to parse keystores in parallel.
+     *
+     * @param path path of keystore file
+     * @param password password of keystore
+     * @param type type of keystore, default type when null
+     * @return future of shared keystore, completed exceptionally with {@link SSLConfigurationException}
+     */
+    public CompletableFuture<SSLKeystore> loadAsync(String path, String password, String type) {
+        return CompletableFuture.supplyAsync(() -> load(path, password, type), executor);
+    }
+
+    /**
+     * @return number of cached files, including ones of unreachable keystores not removed yet
+     */
+    public int size() {
+        return files.size();
+    }
+
+    public void clear() {
+        files.clear();
+        contents.clear();
+    }
+
+    private SSLKeystore cachedContent(ContentKey contentKey) {
+        WeakReference<SSLKeystore> reference = contents.get(contentKey);
+        return reference != null ? reference.get() : null;
+    }
+
+    /**
+     * Cache parsed keystore or get the one cached meanwhile by other thread.
+     */
+    private SSLKeystore shareContent(ContentKey contentKey, SSLKeystore keystore) {
+        SSLKeystore[] shared = new SSLKeystore[1];
+        contents.compute(contentKey, (key, reference) -> {
+            SSLKeystore cached = reference != null ? reference.get() : null;
+            if (cached != null) {
+                shared[0] = cached;
+                return reference;
+            }
+            shared[0] = keystore;
+            return new WeakReference<>(keystore);
+        });
+        contents.values().removeIf(reference -> reference.get() == null);
+        return shared[0];
+    }
+
+    /**
+     * Keystore loaded from file, password and type are compared with the ones of keystore.
+     */
+    private static final class FileEntry {
+
+        private final long modified;
+        private final long size;
+        private final WeakReference<SSLKeystore> keystore;
+
+        FileEntry(long modified, long size, SSLKeystore keystore) {
+            this.modified = modified;
+            this.size = size;
+            this.keystore = new WeakReference<>(keystore);
+        }
+
+        /**
+         * @return keystore when file is unchanged and was loaded with the same password and type, otherwise null
+         */
+        SSLKeystore keystore(long modified, long size, char[] password, String type) {
+            SSLKeystore current = keystore.get();
+            if (current != null
+                    && this.modified == modified
+                    && this.size == size
+                    && Arrays.equals(current.getPassword(), password)
+                    && Objects.equals(current.getType(), type)) {
+                return current;
+            }
+            return null;
+        }
+
+        boolean isCleared() {
+            return keystore.get() == null;
+        }
+    }
+
+    /**
+     * SHA-256 of keystore content, password and type.
+     */
+    private static final class ContentKey {
+
+        private final byte[] digest;
+        private final int hash;
+
+        private ContentKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        static ContentKey of(ByteBuffer content, char[] password, String type) {
+            try {
+                MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+                ByteBuffer passwordBytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+                messageDigest.update(ByteBuffer.allocate(8).putInt(content.remaining())
+                        .putInt(passwordBytes.remaining()).array());
+                messageDigest.update(content.duplicate());
+                messageDigest.update(passwordBytes);
+                Arrays.fill(passwordBytes.array(), (byte) 0);
+                messageDigest.update(type.getBytes(StandardCharsets.UTF_8));
+
+                return new ContentKey(messageDigest.digest());
+            } catch (NoSuchAlgorithmException ex) {
+                throw new SSLConfigurationException("Failed to hash keystore: " + ex.getMessage(), ex);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ContentKey && Arrays.equals(digest, ((ContentKey) obj).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.crypto.Cipher;
+import javax.crypto.EncryptedPrivateKeyInfo;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Reader of PEM encoded certificates and private keys: PKCS#8 ({@code PRIVATE KEY}), encrypted PKCS#8
+ * ({@code ENCRYPTED PRIVATE KEY}) and PKCS#1 RSA ({@code RSA PRIVATE KEY}) keys.
+ */
+final class PemReader {
+
+    private static final Pattern PRIVATE_KEY = Pattern.compile(
+            "-----BEGIN ((?:ENCRYPTED |RSA )?PRIVATE KEY)-----([A-Za-z0-9+/=\\s]+)-----END \\1-----");
+
+    private static final String PBES2 = "PBES2";
+    private static final String PBES2_OID = "1.2.840.113549.1.5.13";
+
+    private static final String[] KEY_ALGORITHMS = {"RSA", "EC", "Ed25519", "Ed448", "DSA"};
+
+    /**
+     * DER of PKCS#8 algorithm identifier of RSA: SEQUENCE { OID 1.2.840.113549.1.1.1, NULL }.
+     */
+    private static final byte[] RSA_ALGORITHM_IDENTIFIER = {
+        0x30, 0x0D, 0x06, 0x09, 0x2A, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xF7, 0x0D, 0x01, 0x01, 0x01, 0x05, 0x00
+    };
+
+    private PemReader() {
+    }
+
+    static List<X509Certificate> readCertificates(String pem) {
+        try {
+            Collection<? extends Certificate> certificates = CertificateFactory.getInstance("X.509")
+                    .generateCertificates(new ByteArrayInputStream(pem.getBytes(StandardCharsets.US_ASCII)));
+
+            List<X509Certificate> x509Certificates = new ArrayList<>(certificates.size());
+            for (Certificate certificate : certificates) {
+                x509Certificates.add((X509Certificate) certificate);
+            }
+            if (x509Certificates.isEmpty()) {
+                throw new SSLConfigurationException("No certificate in PEM", null);
+            }
+            return x509Certificates;
+        } catch (CertificateException ex) {
+            throw new SSLConfigurationException("Failed to read certificates from PEM: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @param pem PEM with private key
+     * @param password password of encrypted key, may be {@code null} for not encrypted key
+     * @return private key
+     */
+    static PrivateKey readPrivateKey(String pem, char[] password) {
+        Matcher matcher = PRIVATE_KEY.matcher(pem);
+        if (!matcher.find()) {
+            throw new SSLConfigurationException("No PKCS#8 or PKCS#1 RSA private key in PEM", null);
+        }
+        String type = matcher.group(1);
+        byte[] der = Base64.getMimeDecoder().decode(matcher.group(2));
+
+        try {
+            if (type.startsWith("ENCRYPTED")) {
+                return toPrivateKey(decrypt(der, password));
+            } else if (type.startsWith("RSA")) {
+                return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(rsaToPkcs8(der)));
+            }
+            return toPrivateKey(new PKCS8EncodedKeySpec(der));
+        } catch (GeneralSecurityException | IOException ex) {
+            throw new SSLConfigurationException("Failed to read private key from PEM: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static KeySpec decrypt(byte[] der, char[] password) throws GeneralSecurityException, IOException {
+        if (password == null) {
+            throw new InvalidKeySpecException("Password is required for encrypted private key");
+        }
+        EncryptedPrivateKeyInfo info = new EncryptedPrivateKeyInfo(der);
+        // PBES2 parameters name actual algorithm, e.g. PBEWithHmacSHA256AndAES_256
+        String algorithm = PBES2.equals(info.getAlgName()) || PBES2_OID.equals(info.getAlgName())
+                ? info.getAlgParameters().toString()
+                : info.getAlgName();
+        SecretKey key = SecretKeyFactory.getInstance(algorithm).generateSecret(new PBEKeySpec(password));
+
+        Cipher cipher = Cipher.getInstance(algorithm);
+        cipher.init(Cipher.DECRYPT_MODE, key, info.getAlgParameters());
+        return info.getKeySpec(cipher);
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private static PrivateKey toPrivateKey(KeySpec keySpec) throws InvalidKeySpecException {
+        for (String algorithm : KEY_ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePrivate(keySpec);
+            } catch (GeneralSecurityException ex) {
+                // try next algorithm
+            }
+        }
+        throw new InvalidKeySpecException("Unsupported algorithm of private key");
+    }
+
+    /**
+     * Wrap PKCS#1 RSA private key in PKCS#8: SEQUENCE { INTEGER 0, algorithm identifier, OCTET STRING key }.
+     */
+    private static byte[] rsaToPkcs8(byte[] pkcs1) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(pkcs1.length + 32);
+        content.write(0x02);
+        content.write(0x01);
+        content.write(0x00);
+        content.write(RSA_ALGORITHM_IDENTIFIER, 0, RSA_ALGORITHM_IDENTIFIER.length);
+        writeDer(content, 0x04, pkcs1);
+
+        ByteArrayOutputStream pkcs8 = new ByteArrayOutputStream(content.size() + 4);
+        writeDer(pkcs8, 0x30, content.toByteArray());
+        return pkcs8.toByteArray();
+    }
+
+    private static void writeDer(ByteArrayOutputStream out, int tag, byte[] value) {
+        out.write(tag);
+        int length = value.length;
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int bytes = (32 - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        out.write(value, 0, value.length);
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * Trust manager which delegates to replaceable trust manager, used for truststores reloaded
+ * by {@link SSLKeystore#watchFile(String, String, String)}.
+ */
+@SuppressWarnings("PMD.UseVarargs")
+class ReloadableTrustManager extends X509ExtendedTrustManager {
+
+    private volatile X509TrustManager delegate;
+
+    ReloadableTrustManager(X509TrustManager delegate) {
+        this.delegate = delegate;
+    }
+
+    void setDelegate(X509TrustManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        X509TrustManager trustManager = delegate;
+        if (trustManager instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) trustManager).checkClientTrusted(chain, authType, socket);
+        } else {
+            trustManager.checkClientTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        X509TrustManager trustManager = delegate;
+        if (trustManager instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) trustManager).checkServerTrusted(chain, authType, socket);
+        } else {
+            trustManager.checkServerTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        X509TrustManager trustManager = delegate;
+        if (trustManager instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) trustManager).checkClientTrusted(chain, authType, engine);
+        } else {
+            trustManager.checkClientTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        X509TrustManager trustManager = delegate;
+        if (trustManager instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) trustManager).checkServerTrusted(chain, authType, engine);
+        } else {
+            trustManager.checkServerTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.net.Socket;
+import java.security.KeyStore;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.function.Supplier;
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509KeyManager;
+
+/**
+ * Key manager which chooses server alias by host name requested with SNI, so one {@link javax.net.ssl.SSLContext}
+ * can serve many host names. Aliases are looked up in index of certificate host names, including wildcards,
+ * built once per keystore.
+ *
+ * Known host name gets only its own certificates, so handshake can fall back to other key type. Among them
+ * currently valid certificates, issued by issuers accepted by peer and expiring latest are preferred, so
+ * certificate can be rotated by adding new alias before expired one is removed.
+ * When no host name is requested or it is unknown, default alias is chosen if given, otherwise
+ * the choice is left to source key manager. Client aliases are always chosen by source key manager.
+ */
+@SuppressWarnings("PMD.UseVarargs")
+public class SNIKeyManager extends X509ExtendedKeyManager {
+
+    private volatile Source source;
+    private final String defaultAlias;
+
+    public SNIKeyManager(X509KeyManager keyManager, KeyStore keyStore, String defaultAlias) {
+        this.source = new Source(keyManager, HostnameIndex.of(keyStore));
+        this.defaultAlias = defaultAlias;
+    }
+
+    /**
+     * Replace source key manager and rebuild index, e.g. after keystore reload.
+     */
+    void setSource(X509KeyManager keyManager, KeyStore keyStore) {
+        this.source = new Source(keyManager, HostnameIndex.of(keyStore));
+    }
+
+    @Override
+    public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+        Source current = source;
+        SSLSession session = socket instanceof SSLSocket ? ((SSLSocket) socket).getHandshakeSession() : null;
+        return chooseServerAlias(current, keyType, issuers, session,
+                () -> current.keyManager.chooseServerAlias(keyType, issuers, socket));
+    }
+
+    @Override
+    public String chooseEngineServerAlias(String keyType, Principal[] issuers, SSLEngine engine) {
+        Source current = source;
+        SSLSession session = engine != null ? engine.getHandshakeSession() : null;
+        return chooseServerAlias(current, keyType, issuers, session, () -> {
+            X509KeyManager keyManager = current.keyManager;
+            return keyManager instanceof X509ExtendedKeyManager
+                    ? ((X509ExtendedKeyManager) keyManager).chooseEngineServerAlias(keyType, issuers, engine)
+                    : keyManager.chooseServerAlias(keyType, issuers, null);
+        });
+    }
+
+    @Override
+    public String chooseClientAlias(String[] keyTypes, Principal[] issuers, Socket socket) {
+        return source.keyManager.chooseClientAlias(keyTypes, issuers, socket);
+    }
+
+    @Override
+    public String chooseEngineClientAlias(String[] keyTypes, Principal[] issuers, SSLEngine engine) {
+        X509KeyManager keyManager = source.keyManager;
+        return keyManager instanceof X509ExtendedKeyManager
+                ? ((X509ExtendedKeyManager) keyManager).chooseEngineClientAlias(keyTypes, issuers, engine)
+                : keyManager.chooseClientAlias(keyTypes, issuers, null);
+    }
+
+    @Override
+    public String[] getClientAliases(String keyType, Principal[] issuers) {
+        return source.keyManager.getClientAliases(keyType, issuers);
+    }
+
+    @Override
+    public String[] getServerAliases(String keyType, Principal[] issuers) {
+        return source.keyManager.getServerAliases(keyType, issuers);
+    }
+
+    @Override
+    public X509Certificate[] getCertificateChain(String alias) {
+        return source.keyManager.getCertificateChain(alias);
+    }
+
+    @Override
+    public PrivateKey getPrivateKey(String alias) {
+        return source.keyManager.getPrivateKey(alias);
+    }
+
+    private String chooseServerAlias(Source current, String keyType, Principal[] issuers, SSLSession session,
+            Supplier<String> sourceChoice) {
+        String hostname = requestedHostname(session);
+        if (hostname != null && current.index.contains(hostname)) {
+            return current.index.find(hostname, keyType, issuers);
+        }
+        if (defaultAlias != null) {
+            return current.index.matches(defaultAlias, keyType) ? defaultAlias : null;
+        }
+        return sourceChoice.get();
+    }
+
+    private static String requestedHostname(SSLSession session) {
+        if (session instanceof ExtendedSSLSession) {
+            for (SNIServerName serverName : ((ExtendedSSLSession) session).getRequestedServerNames()) {
+                if (serverName instanceof SNIHostName) {
+                    return ((SNIHostName) serverName).getAsciiName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Source key manager with index of its keystore, replaced together on reload.
+     */
+    private static final class Source {
+
+        private final X509KeyManager keyManager;
+        private final HostnameIndex index;
+
+        Source(X509KeyManager keyManager, HostnameIndex index) {
+            this.keyManager = keyManager;
+            this.index = index;
+        }
+    }
+}
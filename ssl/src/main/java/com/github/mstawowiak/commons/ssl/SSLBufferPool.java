@@ -0,0 +1,100 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool of buffers for {@link SSLChannel}. Capacities are rounded up to power of two and each capacity
+ * keeps at most {@code maxBuffers} released buffers, buffers above are left to garbage collector.
+ * <p>
+ * Heap buffers are the default: JDK ciphers copy direct buffers through temporary arrays on every record, so heap
+ * buffers allocate less per byte while the socket channel keeps its own direct buffer cache for I/O.
+ */
+public final class SSLBufferPool {
+
+    private static final int MAX_SIZE_CLASS = 30;
+    private static final int DEFAULT_MAX_BUFFERS = 256;
+
+    private static final SSLBufferPool DEFAULT = new SSLBufferPool(DEFAULT_MAX_BUFFERS);
+
+    private final int maxBuffers;
+    private final boolean direct;
+    private final AtomicReferenceArray<Queue<ByteBuffer>> sizeClasses = new AtomicReferenceArray<>(MAX_SIZE_CLASS + 1);
+
+    public SSLBufferPool(int maxBuffers) {
+        this(maxBuffers, false);
+    }
+
+    public SSLBufferPool(int maxBuffers, boolean direct) {
+        if (maxBuffers < 0) {
+            throw new IllegalArgumentException("Max buffers must not be negative: " + maxBuffers);
+        }
+        this.maxBuffers = maxBuffers;
+        this.direct = direct;
+    }
+
+    public static SSLBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param minCapacity minimal capacity of buffer
+     * @return cleared buffer with capacity at least {@code minCapacity}
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int sizeClass = sizeClass(minCapacity);
+        Queue<ByteBuffer> buffers = sizeClasses.get(sizeClass);
+        ByteBuffer buffer = buffers != null ? buffers.poll() : null;
+        if (buffer == null) {
+            return direct ? ByteBuffer.allocateDirect(1 << sizeClass) : ByteBuffer.allocate(1 << sizeClass);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return buffer acquired from this pool, buffer must not be used afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != direct || buffer.isReadOnly()
+                || Integer.bitCount(buffer.capacity()) != 1 || maxBuffers == 0) {
+            return;
+        }
+        int sizeClass = Integer.numberOfTrailingZeros(buffer.capacity());
+        Queue<ByteBuffer> buffers = sizeClasses.get(sizeClass);
+        if (buffers == null) {
+            sizeClasses.compareAndSet(sizeClass, null, new ArrayBlockingQueue<>(maxBuffers));
+            buffers = sizeClasses.get(sizeClass);
+        }
+        buffers.offer(buffer);
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * @return number of pooled buffers
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < sizeClasses.length(); i++) {
+            Queue<ByteBuffer> buffers = sizeClasses.get(i);
+            size += buffers != null ? buffers.size() : 0;
+        }
+        return size;
+    }
+
+    private static int sizeClass(int capacity) {
+        if (capacity <= 1) {
+            return 0;
+        }
+        int sizeClass = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            throw new IllegalArgumentException("Buffer capacity too large: " + capacity);
+        }
+        return sizeClass;
+    }
+}
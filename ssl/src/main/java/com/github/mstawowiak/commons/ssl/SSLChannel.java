@@ -0,0 +1,462 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+
+/**
+ * TLS over {@link SocketChannel} driven by {@link SSLEngine} of {@link SSLConfiguration}, in blocking
+ * or non-blocking mode of the socket channel.
+ *
+ * Network and application buffers are taken from {@link SSLBufferPool} sized from packet and application
+ * buffer sizes of session, returned to the pool on {@link #close()}. Large reads are decrypted directly into
+ * buffer of caller.
+ *
+ * In non-blocking mode {@link #handshake()}, {@link #read(ByteBuffer)} and {@link #write(ByteBuffer)} return
+ * without progress when socket is not ready or delegated tasks of engine are running on executor, see
+ * {@link #pendingTasks()}. Encrypted data which could not be written is kept until {@link #flush()}.
+ *
+ * Instances are not thread safe.
+ */
+public final class SSLChannel implements ByteChannel {
+
+    private static final CompletableFuture<Void> NO_TASKS = CompletableFuture.completedFuture(null);
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final SocketChannel channel;
+    private final SSLEngine engine;
+    private final Executor executor;
+    private final SSLBufferPool pool;
+
+    private ByteBuffer netIn;
+    private ByteBuffer netOut;
+    private ByteBuffer appIn;
+
+    private CompletableFuture<Void> tasks = NO_TASKS;
+
+    private boolean handshakeStarted;
+    private boolean handshakeFinished;
+
+    private boolean inboundClosed;
+    private boolean closed;
+
+    private SSLChannel(SSLChannel.Builder builder) {
+        this.channel = builder.channel;
+        this.engine = builder.peerHost != null
+                ? builder.configuration.createSSLEngine(builder.peerHost, builder.peerPort)
+                : builder.configuration.createSSLEngine();
+        this.engine.setUseClientMode(builder.clientMode);
+        this.executor = builder.executor;
+        this.pool = builder.bufferPool;
+
+        SSLSession session = engine.getSession();
+        this.netIn = pool.acquire(session.getPacketBufferSize());
+        this.netOut = pool.acquire(session.getPacketBufferSize());
+        this.netOut.flip();
+        this.appIn = pool.acquire(session.getApplicationBufferSize());
+    }
+
+    public static class Builder {
+
+        private SocketChannel channel;
+        private SSLConfiguration configuration;
+
+        private boolean clientMode;
+        private String peerHost;
+        private int peerPort = -1;
+
+        private Executor executor;
+        private SSLBufferPool bufferPool = SSLBufferPool.getDefault();
+
+        public Builder channel(SocketChannel channel) {
+            this.channel = channel;
+            return this;
+        }
+
+        public Builder configuration(SSLConfiguration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        public Builder clientMode(boolean clientMode) {
+            this.clientMode = clientMode;
+            return this;
+        }
+
+        /**
+         * Host name and port of peer, used by client for SNI, hostname verification and session resumption.
+         */
+        public Builder peer(String peerHost, int peerPort) {
+            this.peerHost = peerHost;
+            this.peerPort = peerPort;
+            return this;
+        }
+
+        /**
+         * Executor of delegated tasks of engine (e.g. certificate validation), tasks run in calling thread
+         * when not set.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder bufferPool(SSLBufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        @SuppressWarnings("PMD.AccessorClassGeneration")
+        public SSLChannel build() {
+            if (channel == null || configuration == null) {
+                throw new IllegalArgumentException("Channel and configuration are required");
+            }
+            return new SSLChannel(this);
+        }
+    }
+
+    public SSLEngine getEngine() {
+        return engine;
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    public boolean isHandshakeFinished() {
+        return handshakeFinished;
+    }
+
+    /**
+     * @return future completed when delegated tasks running on executor are done
+     */
+    public CompletableFuture<Void> pendingTasks() {
+        return tasks;
+    }
+
+    /**
+     * Make progress of handshake, started by first call, blocks until finished in blocking mode.
+     *
+     * @return {@code true} when initial handshake is finished
+     * @throws IOException when handshake fails or channel is closed by peer
+     */
+    public boolean handshake() throws IOException {
+        ensureOpen();
+        if (handshakeFinished) {
+            return true;
+        }
+        if (!handshakeStarted) {
+            handshakeStarted = true;
+            engine.beginHandshake();
+        }
+        return processHandshake();
+    }
+
+    /**
+     * Read and decrypt application data.
+     *
+     * @param dst destination buffer
+     * @return number of bytes read, 0 when no data is available in non-blocking mode, -1 at end of stream
+     * @throws IOException when reading or decryption fails
+     */
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!handshake()) {
+            return 0;
+        }
+        if (appIn.position() > 0) {
+            return drainApplicationData(dst);
+        }
+        if (inboundClosed) {
+            return -1;
+        }
+
+        while (true) {
+            boolean direct = dst.remaining() >= engine.getSession().getApplicationBufferSize();
+            ByteBuffer target = direct ? dst : appIn;
+            int start = target.position();
+
+            netIn.flip();
+            SSLEngineResult result = engine.unwrap(netIn, target);
+            netIn.compact();
+
+            switch (result.getStatus()) {
+                case OK:
+                    if (!processPostHandshake(result.getHandshakeStatus())) {
+                        return direct ? target.position() - start : drainApplicationData(dst);
+                    }
+                    if (target.position() > start) {
+                        return direct ? target.position() - start : drainApplicationData(dst);
+                    }
+                    break;
+                case BUFFER_UNDERFLOW:
+                    netIn = ensureCapacity(netIn, engine.getSession().getPacketBufferSize());
+                    int count = channel.read(netIn);
+                    if (count < 0) {
+                        inboundClosed = true;
+                        return -1;
+                    } else if (count == 0) {
+                        return 0;
+                    }
+                    break;
+                case BUFFER_OVERFLOW:
+                    appIn = ensureCapacity(appIn, appIn.position() + engine.getSession().getApplicationBufferSize());
+                    break;
+                case CLOSED:
+                    inboundClosed = true;
+                    return target.position() > start ? target.position() - start : -1;
+                default:
+                    throw new SSLException("Unexpected status of unwrap: " + result.getStatus());
+            }
+        }
+    }
+
+    /**
+     * Encrypt and write application data.
+     *
+     * @param src source buffer
+     * @return number of consumed bytes, 0 when encrypted data cannot be written in non-blocking mode
+     * @throws IOException when writing or encryption fails
+     */
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!handshake() || !flush()) {
+            return 0;
+        }
+
+        int consumed = 0;
+        while (src.hasRemaining()) {
+            netOut.clear();
+            SSLEngineResult result = engine.wrap(src, netOut);
+            netOut.flip();
+            consumed += result.bytesConsumed();
+
+            switch (result.getStatus()) {
+                case OK:
+                    break;
+                case BUFFER_OVERFLOW:
+                    netOut = ensureCapacity(netOut, engine.getSession().getPacketBufferSize());
+                    netOut.flip();
+                    break;
+                case CLOSED:
+                    throw new SSLException("Engine is closed");
+                default:
+                    throw new SSLException("Unexpected status of wrap: " + result.getStatus());
+            }
+            if (!flush() || !processPostHandshake(result.getHandshakeStatus())) {
+                break;
+            }
+        }
+        return consumed;
+    }
+
+    /**
+     * Write pending encrypted data.
+     *
+     * @return {@code true} when all encrypted data is written
+     * @throws IOException when writing fails
+     */
+    public boolean flush() throws IOException {
+        while (netOut.hasRemaining()) {
+            if (channel.write(netOut) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed && channel.isOpen();
+    }
+
+    /**
+     * Send close notification when possible, close socket channel and return buffers to the pool.
+     */
+    @Override
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            engine.closeOutbound();
+            if (channel.isOpen() && flush()) {
+                netOut.clear();
+                engine.wrap(EMPTY, netOut);
+                netOut.flip();
+                flush();
+            }
+        } catch (IOException ex) {
+            // peer may be already gone, close notification is best effort
+        } finally {
+            channel.close();
+            pool.release(netIn);
+            pool.release(netOut);
+            pool.release(appIn);
+            netIn = null;
+            netOut = null;
+            appIn = null;
+        }
+    }
+
+    private boolean processHandshake() throws IOException {
+        while (true) {
+            if (!completeTasks() || !flush()) {
+                return false;
+            }
+
+            HandshakeStatus status = engine.getHandshakeStatus();
+            switch (status) {
+                case NOT_HANDSHAKING:
+                case FINISHED:
+                    finishHandshake();
+                    return true;
+                case NEED_TASK:
+                    runTasks();
+                    break;
+                case NEED_WRAP:
+                    wrapHandshake();
+                    break;
+                case NEED_UNWRAP:
+                    if (!unwrapHandshake()) {
+                        return false;
+                    }
+                    break;
+                default:
+                    throw new SSLException("Unexpected handshake status: " + status);
+            }
+        }
+    }
+
+    /**
+     * Process handshake messages after initial handshake, e.g. TLS 1.3 session tickets and key updates.
+     */
+    private boolean processPostHandshake(HandshakeStatus status) throws IOException {
+        if (status == HandshakeStatus.NOT_HANDSHAKING || status == HandshakeStatus.FINISHED) {
+            return true;
+        }
+        return processHandshake();
+    }
+
+    private void finishHandshake() {
+        handshakeFinished = true;
+    }
+
+    private void wrapHandshake() throws IOException {
+        netOut.clear();
+        SSLEngineResult result = engine.wrap(EMPTY, netOut);
+        netOut.flip();
+
+        if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+            netOut = ensureCapacity(netOut, engine.getSession().getPacketBufferSize());
+            netOut.flip();
+        } else if (result.getStatus() == SSLEngineResult.Status.CLOSED && !netOut.hasRemaining()) {
+            throw new SSLException("Engine closed during handshake");
+        }
+    }
+
+    private boolean unwrapHandshake() throws IOException {
+        netIn.flip();
+        SSLEngineResult result = engine.unwrap(netIn, appIn);
+        netIn.compact();
+
+        switch (result.getStatus()) {
+            case OK:
+                return true;
+            case BUFFER_UNDERFLOW:
+                netIn = ensureCapacity(netIn, engine.getSession().getPacketBufferSize());
+                int count = channel.read(netIn);
+                if (count < 0) {
+                    throw new EOFException("Channel closed by peer during handshake");
+                }
+                return count > 0;
+            case BUFFER_OVERFLOW:
+                appIn = ensureCapacity(appIn, appIn.position() + engine.getSession().getApplicationBufferSize());
+                return true;
+            case CLOSED:
+                throw new SSLException("Engine closed during handshake");
+            default:
+                throw new SSLException("Unexpected status of unwrap: " + result.getStatus());
+        }
+    }
+
+    private void runTasks() {
+        if (executor == null) {
+            Runnable task;
+            while ((task = engine.getDelegatedTask()) != null) {
+                task.run();
+            }
+            return;
+        }
+        tasks = CompletableFuture.runAsync(() -> {
+            Runnable task;
+            while ((task = engine.getDelegatedTask()) != null) {
+                task.run();
+            }
+        }, executor);
+    }
+
+    /**
+     * @return {@code true} when there are no running tasks, waits for them in blocking mode
+     */
+    private boolean completeTasks() throws IOException {
+        if (tasks == NO_TASKS) {
+            return true;
+        }
+        if (!tasks.isDone() && !channel.isBlocking()) {
+            return false;
+        }
+        try {
+            tasks.join();
+        } catch (CompletionException ex) {
+            throw new SSLException("Delegated task failed", ex.getCause());
+        } finally {
+            tasks = NO_TASKS;
+        }
+        return true;
+    }
+
+    private int drainApplicationData(ByteBuffer dst) {
+        appIn.flip();
+        int count = Math.min(appIn.remaining(), dst.remaining());
+        int limit = appIn.limit();
+        appIn.limit(appIn.position() + count);
+        dst.put(appIn);
+        appIn.limit(limit);
+        appIn.compact();
+        return count;
+    }
+
+    /**
+     * Get buffer with at least {@code capacity}, content of buffer in write mode is kept.
+     */
+    private ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        if (buffer.capacity() >= capacity) {
+            return buffer;
+        }
+        ByteBuffer larger = pool.acquire(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        pool.release(buffer);
+        return larger;
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -1,37 +1,118 @@
 package com.github.mstawowiak.commons.ssl;
 
+import com.github.mstawowiak.commons.ssl.metrics.SSLContextMetrics;
+import com.github.mstawowiak.commons.ssl.metrics.SSLMetrics;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.UnrecoverableKeyException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
 import javax.net.ssl.X509KeyManager;
-
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * SSL configuration from keystore and truststore.
+ *
+ * {@link #getSSLContext()} initializes {@link SSLContext} and its socket factories once and shares them
+ * between configurations with the same keystore, truststore, protocol, key alias, certificate verification
+ * and session and connection settings.
+ *
+ * Creating context does not change JVM wide settings. Session tickets are controlled by JSSE system properties
+ * {@code jdk.tls.server.enableSessionTicketExtension} and {@code jdk.tls.client.enableSessionTicketExtension},
+ * read once by JSSE, so they are set on command line or by {@link #setJvmSessionTickets(boolean)} at startup.
+ *
+ * With {@link Builder#metrics(String)} key and trust managers are decorated to record latency of key selection
+ * and certificate validation, sockets and server sockets created by {@link #getSocketFactory()} and
+ * {@link #getServerSocketFactory()} and engines created by {@link #createSSLEngine()} record their first handshake,
+ * in {@link SSLMetrics#global()} exposed by JMX. Without metrics nothing is decorated.
+ *
+ * With {@link Builder#verifiedChainCache(int, int)} trust managers remember validated certificate chains
+ * of peers, see {@link CachingTrustManager}, the cache is cleared when watched truststore is reloaded.
+ */
 public class SSLConfiguration {
 
+    static final String SERVER_SESSION_TICKETS_PROPERTY = "jdk.tls.server.enableSessionTicketExtension";
+    static final String CLIENT_SESSION_TICKETS_PROPERTY = "jdk.tls.client.enableSessionTicketExtension";
+
+    /**
+     * Contexts by configuration, created once per key while other keys are not blocked. Entry lives as long as
+     * any configuration which uses its context is reachable.
+     */
+    private static final ConcurrentMap<ContextKey, CompletableFuture<SharedContextReference>> SHARED_CONTEXTS =
+            new ConcurrentHashMap<>();
+    private static final ReferenceQueue<SharedContext> RELEASED_CONTEXTS = new ReferenceQueue<>();
+
     private final SSLKeystore keystore;
     private final SSLKeystore truststore;
 
     private final TLSProtocol protocol;
 
     private final String keyAlias;
+    private final boolean sniKeySelection;
 
     private final boolean verifyCertificate;
     private final boolean verifyHostname;
 
+    private final Integer sessionCacheSize;
+    private final Integer sessionTimeout;
+
+    private final TLSProfile profile;
+    private final List<String> cipherSuites;
+    private final boolean preferEcdhe;
+    private final List<String> namedGroups;
+
+    private final String metrics;
+
+    private final Integer verifiedChainCacheSize;
+    private final Integer verifiedChainCacheTtl;
+
+    private final ContextKey contextKey;
+    private volatile SharedContext sharedContext;
+    private volatile Description description;
+
     private SSLConfiguration(SSLConfiguration.Builder builder) {
         this.keystore = builder.keystore;
         this.truststore = builder.truststore;
         this.protocol = builder.protocol;
         this.keyAlias = builder.keyAlias;
+        this.sniKeySelection = builder.sniKeySelection;
         this.verifyCertificate = builder.verifyCertificate;
         this.verifyHostname = builder.verifyHostname;
+        this.sessionCacheSize = builder.sessionCacheSize;
+        this.sessionTimeout = builder.sessionTimeout;
+        this.profile = builder.profile;
+        this.cipherSuites = builder.cipherSuites;
+        this.preferEcdhe = builder.preferEcdhe;
+        this.namedGroups = builder.namedGroups;
+        this.metrics = builder.metrics;
+        this.verifiedChainCacheSize = builder.verifiedChainCacheSize;
+        this.verifiedChainCacheTtl = builder.verifiedChainCacheTtl;
+        this.contextKey = new ContextKey(keystore, truststore, protocol, keyAlias, sniKeySelection,
+                verifyCertificate, sessionCacheSize, sessionTimeout,
+                profile, cipherSuites, preferEcdhe, namedGroups, metrics,
+                verifiedChainCacheSize, verifiedChainCacheTtl);
     }
 
     public static class Builder {
@@ -42,10 +123,24 @@ public class SSLConfiguration {
         private TLSProtocol protocol = TLSProtocol.getDefault();
 
         private String keyAlias;
+        private boolean sniKeySelection;
 
         private boolean verifyCertificate = true;
         private boolean verifyHostname = true;
 
+        private Integer sessionCacheSize;
+        private Integer sessionTimeout;
+
+        private TLSProfile profile;
+        private List<String> cipherSuites;
+        private boolean preferEcdhe;
+        private List<String> namedGroups;
+
+        private String metrics;
+
+        private Integer verifiedChainCacheSize;
+        private Integer verifiedChainCacheTtl;
+
         public Builder keystore(SSLKeystore keystore) {
             this.keystore = keystore;
             return this;
@@ -66,6 +161,15 @@ public class SSLConfiguration {
             return this;
         }
 
+        /**
+         * Choose server key by host name requested with SNI ({@link SNIKeyManager}),
+         * key alias is then used when no host name matches.
+         */
+        public Builder sniKeySelection(boolean sniKeySelection) {
+            this.sniKeySelection = sniKeySelection;
+            return this;
+        }
+
         public Builder verifyCertificate(boolean verifyCertificate) {
             this.verifyCertificate = verifyCertificate;
             return this;
@@ -76,6 +180,101 @@ public class SSLConfiguration {
             return this;
         }
 
+        /**
+         * Maximum number of sessions in client and server session cache, 0 means no limit.
+         */
+        public Builder sessionCacheSize(int sessionCacheSize) {
+            if (sessionCacheSize < 0) {
+                throw new IllegalArgumentException("Session cache size must not be negative: " + sessionCacheSize);
+            }
+            this.sessionCacheSize = sessionCacheSize;
+            return this;
+        }
+
+        /**
+         * Timeout in seconds of sessions in client and server session cache, 0 means no limit.
+         */
+        public Builder sessionTimeout(int sessionTimeout) {
+            if (sessionTimeout < 0) {
+                throw new IllegalArgumentException("Session timeout must not be negative: " + sessionTimeout);
+            }
+            this.sessionTimeout = sessionTimeout;
+            return this;
+        }
+
+        /**
+         * Enable protocols and cipher suites of profile, sets {@link TLSProtocol#TLS} protocol of context
+         * so that all protocols of profile can be negotiated. Cipher suites when set replace the ones of profile.
+         */
+        public Builder profile(TLSProfile profile) {
+            this.profile = profile;
+            this.protocol = TLSProtocol.TLS;
+            return this;
+        }
+
+        /**
+         * Cipher suites in order of preference, which is honored by server too.
+         * Suites not supported by provider are skipped.
+         */
+        public Builder cipherSuites(String... cipherSuites) {
+            this.cipherSuites = Collections.unmodifiableList(Arrays.asList(cipherSuites.clone()));
+            return this;
+        }
+
+        /**
+         * Order default cipher suites to prefer ECDHE key exchange, then DHE, over static RSA key exchange,
+         * not used when cipher suites are set.
+         */
+        public Builder preferEcdhe(boolean preferEcdhe) {
+            this.preferEcdhe = preferEcdhe;
+            return this;
+        }
+
+        /**
+         * Named groups (elliptic curves and finite field groups) for key exchange in order of preference,
+         * set per connection by {@code SSLParameters.setNamedGroups} available since Java 20. On older versions
+         * named groups apply to the whole JVM, so they are set by {@code jdk.tls.namedGroups} on command line.
+         *
+         * @throws UnsupportedOperationException when named groups cannot be set per connection
+         */
+        public Builder namedGroups(String... namedGroups) {
+            if (!ConnectionParameters.isNamedGroupsSupported()) {
+                throw new UnsupportedOperationException("Named groups cannot be set per connection before Java 20, "
+                        + "set jdk.tls.namedGroups system property on command line instead");
+            }
+            this.namedGroups = Collections.unmodifiableList(Arrays.asList(namedGroups.clone()));
+            return this;
+        }
+
+        /**
+         * Record metrics of key selection, certificate validation and handshakes under given name
+         * in {@link SSLMetrics#global()}.
+         */
+        public Builder metrics(String metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Remember certificate chains of peers validated by trust manager, so repeated handshakes with the same
+         * peers skip certification path validation. Chains are cached per verified host name of peer, so a host
+         * name is always verified by trust manager before its first cached use.
+         *
+         * @param maxSize maximum number of cached chains, least recently used are evicted
+         * @param ttl time to live in seconds of cached chain, shortened to expiry of its certificates
+         */
+        public Builder verifiedChainCache(int maxSize, int ttl) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("Verified chain cache size must be positive: " + maxSize);
+            }
+            if (ttl <= 0) {
+                throw new IllegalArgumentException("Verified chain cache time to live must be positive: " + ttl);
+            }
+            this.verifiedChainCacheSize = maxSize;
+            this.verifiedChainCacheTtl = ttl;
+            return this;
+        }
+
         @SuppressWarnings("PMD.AccessorClassGeneration")
         public SSLConfiguration build() {
             return new SSLConfiguration(this);
@@ -94,6 +293,10 @@ public class SSLConfiguration {
         return protocol;
     }
 
+    public boolean isSniKeySelection() {
+        return sniKeySelection;
+    }
+
     public boolean isVerifyCertificate() {
         return verifyCertificate;
     }
@@ -102,6 +305,82 @@ public class SSLConfiguration {
         return verifyHostname;
     }
 
+    public Integer getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    public Integer getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    public TLSProfile getProfile() {
+        return profile;
+    }
+
+    public List<String> getCipherSuites() {
+        return cipherSuites;
+    }
+
+    public boolean isPreferEcdhe() {
+        return preferEcdhe;
+    }
+
+    public List<String> getNamedGroups() {
+        return namedGroups;
+    }
+
+    public String getMetrics() {
+        return metrics;
+    }
+
+    public Integer getVerifiedChainCacheSize() {
+        return verifiedChainCacheSize;
+    }
+
+    public Integer getVerifiedChainCacheTtl() {
+        return verifiedChainCacheTtl;
+    }
+
+    /**
+     * @return metrics of this configuration, {@code null} when metrics are not enabled
+     */
+    public SSLContextMetrics getContextMetrics() {
+        return metrics != null ? SSLMetrics.global().getContextMetrics(metrics) : null;
+    }
+
+    /**
+     * Get initialized {@link SSLContext}, created once per distinct configuration.
+     *
+     * @return shared SSL context
+     */
+    public SSLContext getSSLContext() {
+        return sharedContext().sslContext;
+    }
+
+    public SSLSocketFactory getSocketFactory() {
+        return sharedContext().socketFactory;
+    }
+
+    public SSLServerSocketFactory getServerSocketFactory() {
+        return sharedContext().serverSocketFactory;
+    }
+
+    public SSLEngine createSSLEngine() {
+        SharedContext context = sharedContext();
+        return context.configure(context.sslContext.createSSLEngine());
+    }
+
+    public SSLEngine createSSLEngine(String peerHost, int peerPort) {
+        SharedContext context = sharedContext();
+        return context.configure(context.sslContext.createSSLEngine(peerHost, peerPort));
+    }
+
+    /**
+     * Create new {@link SSLContext}, use {@link #getSSLContext()} to share already initialized one.
+     * Profile, cipher suites and named groups are applied only by sockets and engines created by this configuration.
+     *
+     * @return new SSL context
+     */
     public SSLContext createSSLContext() {
         SSLContext sslContext;
         try {
@@ -119,103 +398,388 @@ public class SSLConfiguration {
             throw new SSLConfigurationException("Failed to initialize SSL context: " + ex.getMessage(), ex);
         }
 
+        configureSessionContext(sslContext.getClientSessionContext());
+        configureSessionContext(sslContext.getServerSessionContext());
+
         return sslContext;
     }
 
-    private KeyManager[] createKeyManagers() {
+    private void configureSessionContext(SSLSessionContext sessionContext) {
+        if (sessionContext == null) {
+            return;
+        }
+        if (sessionCacheSize != null) {
+            sessionContext.setSessionCacheSize(sessionCacheSize);
+        }
+        if (sessionTimeout != null) {
+            sessionContext.setSessionTimeout(sessionTimeout);
+        }
+    }
+
+    private ConnectionParameters connectionParameters() {
+        if (profile == null) {
+            return new ConnectionParameters(null, cipherSuites, preferEcdhe, namedGroups);
+        }
+        return new ConnectionParameters(profile.getProtocols(),
+                cipherSuites != null ? cipherSuites : profile.getCipherSuites(), preferEcdhe, namedGroups);
+    }
+
+    /**
+     * Enable or disable stateless session resumption with session tickets (RFC 5077) for the whole JVM, the same
+     * as setting {@code jdk.tls.server.enableSessionTicketExtension} and
+     * {@code jdk.tls.client.enableSessionTicketExtension} on command line. JSSE reads them once, so this takes
+     * effect only when called before the first TLS connection of JVM.
+     *
+     * @param enabled true to enable session tickets
+     */
+    public static void setJvmSessionTickets(boolean enabled) {
+        System.setProperty(SERVER_SESSION_TICKETS_PROPERTY, Boolean.toString(enabled));
+        System.setProperty(CLIENT_SESSION_TICKETS_PROPERTY, Boolean.toString(enabled));
+    }
+
+    private SharedContext sharedContext() {
+        SharedContext context = sharedContext;
+        if (context == null) {
+            context = sharedContext(contextKey);
+            sharedContext = context;
+        }
+        return context;
+    }
+
+    /**
+     * Get context of equal configuration or create it. Only callers with equal key wait for the context
+     * being created, failed creation is left to the next caller.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private SharedContext sharedContext(ContextKey key) {
+        expungeReleasedContexts();
+        while (true) {
+            CompletableFuture<SharedContextReference> created = new CompletableFuture<>();
+            CompletableFuture<SharedContextReference> existing = SHARED_CONTEXTS.putIfAbsent(key, created);
+            if (existing == null) {
+                try {
+                    SSLContext sslContext = createSSLContext();
+                    SharedContext context = new SharedContext(sslContext,
+                            connectionParameters().supportedBy(sslContext), getContextMetrics());
+                    created.complete(new SharedContextReference(context, key, created));
+                    return context;
+                } catch (RuntimeException | Error ex) {
+                    SHARED_CONTEXTS.remove(key, created);
+                    created.completeExceptionally(ex);
+                    throw ex;
+                }
+            }
+
+            SharedContext context = null;
+            try {
+                context = existing.join().get();
+            } catch (CompletionException ex) {
+                // creation by other caller failed, try again
+            }
+            if (context != null) {
+                return context;
+            }
+            SHARED_CONTEXTS.remove(key, existing);
+        }
+    }
+
+    private static void expungeReleasedContexts() {
+        Reference<? extends SharedContext> released;
+        while ((released = RELEASED_CONTEXTS.poll()) != null) {
+            SharedContextReference reference = (SharedContextReference) released;
+            SHARED_CONTEXTS.remove(reference.key, reference.future);
+        }
+    }
+
+    KeyManager[] createKeyManagers() {
         if (keystore == null) {
             return null;
         }
-        try {
-            KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
-            factory.init(keystore.getKeyStore(), keystore.getPassword());
 
-            KeyManager[] keyManagers = factory.getKeyManagers();
-            for (int i = 0; i < keyManagers.length; i++) {
-                KeyManager manager = keyManagers[i];
+        KeyManager[] keyManagers = keyManagersOf(keystore);
+        for (int i = 0; i < keyManagers.length; i++) {
+            KeyManager manager = keyManagers[i];
 
-                if (manager instanceof X509KeyManager) {
-                    keyManagers[i++] = new AliasSelectorKeyManager((X509KeyManager) manager, keyAlias);
+            if (manager instanceof X509KeyManager && sniKeySelection) {
+                SNIKeyManager keyManager =
+                        new SNIKeyManager((X509KeyManager) manager, keystore.getKeyStore(), keyAlias);
+                if (keystore.isWatched()) {
+                    keystore.addReloadListener(keyManager, SSLConfiguration::reloadKeyManager);
                 }
+                keyManagers[i] = keyManager;
+            } else if (manager instanceof X509KeyManager) {
+                AliasSelectorKeyManager keyManager = new AliasSelectorKeyManager((X509KeyManager) manager, keyAlias);
+                if (keystore.isWatched()) {
+                    keystore.addReloadListener(keyManager, SSLConfiguration::reloadKeyManager);
+                }
+                keyManagers[i] = keyManager;
             }
 
-            return keyManagers;
-        } catch (KeyStoreException | NoSuchAlgorithmException | UnrecoverableKeyException ex) {
-            throw new SSLConfigurationException("Failed to set keystore: " + ex.getMessage(), ex);
+            if (metrics != null && keyManagers[i] instanceof X509KeyManager) {
+                keyManagers[i] = new TimedKeyManager((X509KeyManager) keyManagers[i], getContextMetrics());
+            }
         }
+
+        return keyManagers;
     }
 
-    private TrustManager[] createTrustManagers() {
+    TrustManager[] createTrustManagers() {
+        TrustManager[] trustManagers;
         if (!verifyCertificate) {
-           return new TrustManager[]{new NaiveTrustManager()};
-        } else if (truststore == null) {
+            trustManagers = new TrustManager[]{new NaiveTrustManager()};
+        } else if (truststore == null && metrics == null && verifiedChainCacheSize == null) {
             return null;
+        } else {
+            trustManagers = configuredTrustManagers();
+        }
+
+        if (metrics != null) {
+            SSLContextMetrics contextMetrics = getContextMetrics();
+            for (int i = 0; i < trustManagers.length; i++) {
+                if (trustManagers[i] instanceof X509TrustManager) {
+                    trustManagers[i] = new TimedTrustManager((X509TrustManager) trustManagers[i], contextMetrics);
+                }
+            }
+        }
+        return trustManagers;
+    }
+
+    private TrustManager[] configuredTrustManagers() {
+        TrustManager[] trustManagers = trustManagersOf(truststore);
+        if (truststore != null && truststore.isWatched()) {
+            for (int i = 0; i < trustManagers.length; i++) {
+                TrustManager manager = trustManagers[i];
+
+                if (manager instanceof X509TrustManager) {
+                    ReloadableTrustManager trustManager = new ReloadableTrustManager((X509TrustManager) manager);
+                    truststore.addReloadListener(trustManager, SSLConfiguration::reloadTrustManager);
+                    trustManagers[i] = trustManager;
+                }
+            }
+        }
+
+        if (verifiedChainCacheSize != null) {
+            for (int i = 0; i < trustManagers.length; i++) {
+                if (trustManagers[i] instanceof X509ExtendedTrustManager) {
+                    CachingTrustManager trustManager = new CachingTrustManager(
+                            (X509ExtendedTrustManager) trustManagers[i],
+                            verifiedChainCacheSize, TimeUnit.SECONDS.toMillis(verifiedChainCacheTtl));
+                    if (truststore != null && truststore.isWatched()) {
+                        truststore.addReloadListener(trustManager, (manager, reloaded) -> manager.clear());
+                    }
+                    trustManagers[i] = trustManager;
+                }
+            }
+        }
+
+        return trustManagers;
+    }
+
+    private static KeyManager[] keyManagersOf(SSLKeystore keystore) {
+        try {
+            KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            factory.init(keystore.getKeyStore(), keystore.getPassword());
+
+            return factory.getKeyManagers();
+        } catch (KeyStoreException | NoSuchAlgorithmException | UnrecoverableKeyException ex) {
+            throw new SSLConfigurationException("Failed to set keystore: " + ex.getMessage(), ex);
         }
+    }
 
+    /**
+     * @param truststore truststore, {@code null} for default truststore of JVM
+     */
+    private static TrustManager[] trustManagersOf(SSLKeystore truststore) {
         try {
             TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
-            tmf.init(truststore.getKeyStore());
+            tmf.init(truststore != null ? truststore.getKeyStore() : null);
             return tmf.getTrustManagers();
         } catch (KeyStoreException | NoSuchAlgorithmException e) {
             throw new SSLConfigurationException("Failed to set truststore: " + e.getMessage(), e);
         }
     }
 
+    private static void reloadKeyManager(AliasSelectorKeyManager keyManager, SSLKeystore keystore) {
+        keyManager.setSourceKeyManager(x509KeyManagerOf(keystore));
+    }
+
+    private static void reloadKeyManager(SNIKeyManager keyManager, SSLKeystore keystore) {
+        keyManager.setSource(x509KeyManagerOf(keystore), keystore.getKeyStore());
+    }
+
+    private static X509KeyManager x509KeyManagerOf(SSLKeystore keystore) {
+        for (KeyManager manager : keyManagersOf(keystore)) {
+            if (manager instanceof X509KeyManager) {
+                return (X509KeyManager) manager;
+            }
+        }
+        throw new SSLConfigurationException("No X509 key manager for keystore " + keystore.getPath(), null);
+    }
+
+    private static void reloadTrustManager(ReloadableTrustManager trustManager, SSLKeystore truststore) {
+        for (TrustManager manager : trustManagersOf(truststore)) {
+            if (manager instanceof X509TrustManager) {
+                trustManager.setDelegate((X509TrustManager) manager);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Description is built once and again only after reload of keystore or truststore,
+     * aliases of stores are summarized by {@link KeystoreDiagnostics}.
+     */
     @Override
     public String toString() {
+        KeystoreDiagnostics keystoreDiagnostics = keystore != null ? keystore.getDiagnostics() : null;
+        KeystoreDiagnostics truststoreDiagnostics = truststore != null ? truststore.getDiagnostics() : null;
+
+        Description current = description;
+        if (current == null || !current.describes(keystoreDiagnostics, truststoreDiagnostics)) {
+            current = new Description(keystoreDiagnostics, truststoreDiagnostics,
+                    describe(keystoreDiagnostics, truststoreDiagnostics));
+            description = current;
+        }
+        return current.text;
+    }
+
+    private String describe(KeystoreDiagnostics keystoreDiagnostics, KeystoreDiagnostics truststoreDiagnostics) {
         return new StringBuilder("SSLConfiguration [").append(System.lineSeparator())
-                .append("keyStore: ").append(getKeyStoreAsString())
-                .append("trustStore: ").append(getTrustStoreAsString())
+                .append("keyStore: ").append(storeAsString("KeyStore", "no keyStore", keystoreDiagnostics))
+                .append("trustStore: ").append(storeAsString("TrustStore", "no trustStore", truststoreDiagnostics))
                 .append("protocol: ").append(protocol.getValue()).append(System.lineSeparator())
                 .append("keyAlias: ").append(keyAlias != null ? keyAlias : "").append(System.lineSeparator())
+                .append("sniKeySelection: ").append(sniKeySelection).append(System.lineSeparator())
                 .append("verifyCertificate: ").append(verifyCertificate).append(System.lineSeparator())
-                .append("verifyHostname: ").append(verifyHostname)
+                .append("verifyHostname: ").append(verifyHostname).append(System.lineSeparator())
+                .append("sessionCacheSize: ").append(sessionCacheSize != null ? sessionCacheSize : "")
+                .append(System.lineSeparator())
+                .append("sessionTimeout: ").append(sessionTimeout != null ? sessionTimeout : "")
+                .append(System.lineSeparator())
+                .append("profile: ").append(profile != null ? profile : "").append(System.lineSeparator())
+                .append("cipherSuites: ").append(cipherSuites != null ? String.join(", ", cipherSuites) : "")
+                .append(System.lineSeparator())
+                .append("preferEcdhe: ").append(preferEcdhe).append(System.lineSeparator())
+                .append("namedGroups: ").append(namedGroups != null ? String.join(", ", namedGroups) : "")
+                .append(System.lineSeparator())
+                .append("metrics: ").append(metrics != null ? metrics : "").append(System.lineSeparator())
+                .append("verifiedChainCache: ").append(verifiedChainCacheSize != null
+                        ? verifiedChainCacheSize + " chains, " + verifiedChainCacheTtl + " s" : "")
                 .append(']').toString();
     }
 
-    @SuppressWarnings("PMD.EmptyCatchBlock")
-    private String getKeyStoreAsString() {
-        StringBuilder sb = new StringBuilder(100);
+    private static String storeAsString(String name, String absent, KeystoreDiagnostics diagnostics) {
+        if (diagnostics == null) {
+            return absent + System.lineSeparator();
+        }
+        return name + " [" + diagnostics.summary() + ']' + System.lineSeparator();
+    }
 
-        if (keystore != null) {
-            sb.append("KeyStore [");
-            if (keystore.getPath() != null) {
-                sb.append("path: ").append(keystore.getPath()).append(", ");
+    /**
+     * Initialized {@link SSLContext} with its socket factories, which are not cached by all providers.
+     */
+    private static final class SharedContext {
+
+        private final SSLContext sslContext;
+        private final ConnectionParameters parameters;
+        private final SSLSocketFactory socketFactory;
+        private final SSLServerSocketFactory serverSocketFactory;
+        private final SSLContextMetrics metrics;
+
+        SharedContext(SSLContext sslContext, ConnectionParameters parameters, SSLContextMetrics metrics) {
+            this.sslContext = sslContext;
+            this.parameters = parameters;
+            this.metrics = metrics;
+            if (parameters.isDefault() && metrics == null) {
+                this.socketFactory = sslContext.getSocketFactory();
+            } else {
+                this.socketFactory =
+                        new ConfiguredSSLSocketFactory(sslContext.getSocketFactory(), parameters, metrics);
             }
-            sb.append("type: ").append(keystore.getType());
-
-            try {
-                String aliases = String.join(", ", Collections.list(keystore.getKeyStore().aliases()));
-                sb.append(", aliases: ").append(aliases);
-            } catch (KeyStoreException ex) {
+            if (parameters.isDefault() && metrics == null) {
+                this.serverSocketFactory = sslContext.getServerSocketFactory();
+            } else {
+                this.serverSocketFactory = new ConfiguredSSLServerSocketFactory(sslContext.getServerSocketFactory(),
+                        parameters, metrics);
             }
-            sb.append(']').append(System.lineSeparator());
-        } else {
-            sb.append("no keyStore").append(System.lineSeparator());
         }
-        return sb.toString();
+
+        SSLEngine configure(SSLEngine engine) {
+            SSLEngine configured = parameters.applyTo(engine);
+            return metrics != null ? new TimedSSLEngine(configured, metrics) : configured;
+        }
     }
 
-    @SuppressWarnings("PMD.EmptyCatchBlock")
-    private String getTrustStoreAsString() {
-        StringBuilder sb = new StringBuilder(100);
+    /**
+     * Weak reference to shared context, every configuration which uses the context holds it strongly.
+     */
+    private static final class SharedContextReference extends WeakReference<SharedContext> {
 
-        if (truststore != null) {
-            sb.append("TrustStore [");
-            if (truststore.getPath() != null) {
-                sb.append("path: ").append(truststore.getPath()).append(", ");
-            }
-            sb.append("type: ").append(truststore.getType());
+        private final ContextKey key;
+        private final CompletableFuture<SharedContextReference> future;
 
-            try {
-                String aliases = String.join(", ", Collections.list(truststore.getKeyStore().aliases()));
-                sb.append(", aliases: ").append(aliases);
-            } catch (KeyStoreException ex) {
+        SharedContextReference(SharedContext context, ContextKey key,
+                CompletableFuture<SharedContextReference> future) {
+            super(context, RELEASED_CONTEXTS);
+            this.key = key;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Text of {@link #toString()} with diagnostics of stores it was built from.
+     */
+    private static final class Description {
+
+        private final KeystoreDiagnostics keystore;
+        private final KeystoreDiagnostics truststore;
+        private final String text;
+
+        Description(KeystoreDiagnostics keystore, KeystoreDiagnostics truststore, String text) {
+            this.keystore = keystore;
+            this.truststore = truststore;
+            this.text = text;
+        }
+
+        boolean describes(KeystoreDiagnostics keystore, KeystoreDiagnostics truststore) {
+            return this.keystore == keystore && this.truststore == truststore;
+        }
+    }
+
+    /**
+     * Part of configuration which {@link SSLContext} depends on, keystores are compared by identity of their
+     * parsed content, so keystores of identical files loaded by {@link KeystoreLoader} share context.
+     */
+    private static final class ContextKey {
+
+        private final SSLKeystore keystore;
+        private final SSLKeystore truststore;
+        private final Object[] settings;
+
+        ContextKey(SSLKeystore keystore, SSLKeystore truststore, Object... settings) {
+            this.keystore = keystore != null ? keystore.getOrigin() : null;
+            this.truststore = truststore != null ? truststore.getOrigin() : null;
+            this.settings = settings;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
             }
-            sb.append(']').append(System.lineSeparator());
-        } else {
-            sb.append("no trustStore").append(System.lineSeparator());
+            if (!(obj instanceof ContextKey)) {
+                return false;
+            }
+            ContextKey other = (ContextKey) obj;
+            return keystore == other.keystore
+                    && truststore == other.truststore
+                    && Arrays.equals(settings, other.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(keystore), System.identityHashCode(truststore),
+                    Arrays.hashCode(settings));
         }
-        return sb.toString();
     }
 }
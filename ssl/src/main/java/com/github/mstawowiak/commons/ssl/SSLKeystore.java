@@ -2,43 +2,186 @@ package com.github.mstawowiak.commons.ssl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
 import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public final class SSLKeystore {
 
     static final String KEY_STORE_PROPERTY = "javax.net.ssl.keyStore";
     static final String TRUST_STORE_PROPERTY = "javax.net.ssl.trustStore";
 
-    private final KeyStore keyStore;
+    private volatile KeyStore keyStore;
+    private volatile KeystoreDiagnostics diagnostics;
     private final char[] password;
+    private final String keyStoreType;
 
     private final String path;
 
-    private SSLKeystore(String path, String password, String type) {
-        String keyStoreType = type != null ? type : KeyStore.getDefaultType();
+    private final boolean watched;
+    private final SSLKeystore origin;
+    private final List<ReloadListener<?>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Consumer<? super RuntimeException> reloadFailureHandler;
 
+    private SSLKeystore(String path, String password, String type, boolean watched) {
         this.path = path;
         this.password = password.toCharArray();
+        this.keyStoreType = type != null ? type : KeyStore.getDefaultType();
+        this.watched = watched;
+        this.origin = this;
+        this.keyStore = load(path, this.password, keyStoreType);
+    }
+
+    private SSLKeystore(String path, char[] password, String type, KeyStore keyStore) {
+        this.path = path;
+        this.password = password;
+        this.keyStoreType = type;
+        this.watched = false;
+        this.origin = this;
+        this.keyStore = keyStore;
+    }
+
+    private SSLKeystore(String path, SSLKeystore origin) {
+        this.path = path;
+        this.password = origin.password;
+        this.keyStoreType = origin.keyStoreType;
+        this.watched = false;
+        this.origin = origin;
+        this.keyStore = origin.keyStore;
+    }
+
+    public static SSLKeystore fromFile(String path, String password, String type) {
+        return new SSLKeystore(path, password, type, false);
+    }
+
+    /**
+     * Load keystore from file and reload it when the file changes. Key and trust managers of
+     * {@link SSLConfiguration} built from this keystore switch to reloaded keys for new handshakes.
+     *
+     * @param path path of keystore file
+     * @param password password of keystore
+     * @param type type of keystore, default type when null
+     * @return watched keystore
+     */
+    public static SSLKeystore watchFile(String path, String password, String type) {
+        return watchFile(path, password, type, null);
+    }
+
+    /**
+     * Load keystore from file and reload it when the file changes, see {@link #watchFile(String, String, String)}.
+     * Previous keystore is kept when the changed file cannot be loaded, e.g. while it is still being written.
+     *
+     * @param path path of keystore file
+     * @param password password of keystore
+     * @param type type of keystore, default type when null
+     * @param reloadFailureHandler called on watcher thread with failure of reload, may be null
+     * @return watched keystore
+     */
+    public static SSLKeystore watchFile(String path, String password, String type,
+            Consumer<? super RuntimeException> reloadFailureHandler) {
+        SSLKeystore keystore = new SSLKeystore(path, password, type, true);
+        keystore.reloadFailureHandler = reloadFailureHandler;
+        KeystoreFileWatcher.watch(keystore);
+
+        return keystore;
+    }
+
+    /**
+     * Load keystore from content in memory, e.g. received from secret store, without writing it to disk.
+     *
+     * @param content keystore file content, remaining bytes are read and position is not changed
+     * @param password password of keystore
+     * @param type type of keystore, default type when null
+     * @return keystore
+     */
+    public static SSLKeystore fromBytes(ByteBuffer content, String password, String type) {
+        return parse(null, content, password.toCharArray(), type != null ? type : KeyStore.getDefaultType());
+    }
+
+    /**
+     * Load keystore from memory-mapped file, which is parsed directly from page cache without copying
+     * into heap buffers.
+     *
+     * @param path path of keystore file
+     * @param password password of keystore
+     * @param type type of keystore, default type when null
+     * @return keystore
+     */
+    public static SSLKeystore fromMappedFile(String path, String password, String type) {
+        return parse(path, map(path), password.toCharArray(), type != null ? type : KeyStore.getDefaultType());
+    }
+
+    /**
+     * Create keystore with single key entry from PEM encoded private key and certificate chain.
+     * Supported keys are PKCS#8 ({@code PRIVATE KEY}), encrypted PKCS#8 ({@code ENCRYPTED PRIVATE KEY})
+     * and PKCS#1 RSA ({@code RSA PRIVATE KEY}).
+     *
+     * @param alias alias of key entry
+     * @param privateKeyPem PEM with private key
+     * @param certificateChainPem PEM with certificate chain, starting with certificate of the key
+     * @param password password of encrypted private key and of created key entry
+     * @return in-memory PKCS12 keystore
+     */
+    public static SSLKeystore fromPem(String alias, String privateKeyPem, String certificateChainPem,
+            String password) {
+        char[] passwordChars = password.toCharArray();
+        PrivateKey privateKey = PemReader.readPrivateKey(privateKeyPem, passwordChars);
+        List<X509Certificate> chain = PemReader.readCertificates(certificateChainPem);
+
+        KeyStore keyStore = emptyKeyStore();
         try {
-            KeyStore loadedKeyStore = KeyStore.getInstance(keyStoreType);
+            keyStore.setKeyEntry(alias, privateKey, passwordChars, chain.toArray(new X509Certificate[0]));
+        } catch (KeyStoreException ex) {
+            throw new SSLConfigurationException("Failed to add key from PEM: " + ex.getMessage(), ex);
+        }
+        return new SSLKeystore(null, passwordChars, keyStore.getType(), keyStore);
+    }
 
-            try (InputStream is = Files.newInputStream(Paths.get(path))) {
-                loadedKeyStore.load(is, this.password);
-            }
+    /**
+     * Create truststore from PEM encoded certificates, aliases are {@code cert-0}, {@code cert-1}, ...
+     *
+     * @param certificatesPem PEM with trusted certificates
+     * @return in-memory PKCS12 truststore with empty password
+     */
+    public static SSLKeystore fromPemCertificates(String certificatesPem) {
+        List<X509Certificate> certificates = PemReader.readCertificates(certificatesPem);
 
-            this.keyStore = loadedKeyStore;
-        } catch (CertificateException | IOException | KeyStoreException | NoSuchAlgorithmException e) {
-            throw new SSLConfigurationException("Failed to load keystore/truststore from file: " + e.getMessage(), e);
+        KeyStore keyStore = emptyKeyStore();
+        try {
+            for (int i = 0; i < certificates.size(); i++) {
+                keyStore.setCertificateEntry("cert-" + i, certificates.get(i));
+            }
+        } catch (KeyStoreException ex) {
+            throw new SSLConfigurationException("Failed to add certificate from PEM: " + ex.getMessage(), ex);
         }
+        return new SSLKeystore(null, new char[0], keyStore.getType(), keyStore);
     }
 
-    public static SSLKeystore fromFile(String path, String password, String type) {
-        return new SSLKeystore(path, password, type);
+    /**
+     * Load keystore from file through {@link KeystoreLoader#getDefault()}, which shares parsed content
+     * of keystores with the same content, password and type.
+     *
+     * @param path path of keystore file
+     * @param password password of keystore
+     * @param type type of keystore, default type when null
+     * @return keystore of the path, sharing parsed content
+     */
+    public static SSLKeystore fromFileCached(String path, String password, String type) {
+        return KeystoreLoader.getDefault().load(path, password, type);
     }
 
     public static SSLKeystore keystoreFromSystemProperties() {
@@ -53,7 +196,8 @@ public final class SSLKeystore {
         return new SSLKeystore(
                 System.getProperty(property),
                 System.getProperty(property + "Password"),
-                System.getProperty(property + "Type"));
+                System.getProperty(property + "Type"),
+                false);
     }
 
     public KeyStore getKeyStore() {
@@ -72,4 +216,141 @@ public final class SSLKeystore {
     public String getPath() {
         return path;
     }
+
+    public boolean isWatched() {
+        return watched;
+    }
+
+    /**
+     * Keystore of other path with the same parsed content, used by {@link KeystoreLoader} for identical files.
+     */
+    SSLKeystore withPath(String otherPath) {
+        return new SSLKeystore(otherPath, origin);
+    }
+
+    /**
+     * @return keystore whose parsed content is shared by this keystore, this keystore when content is not shared
+     */
+    SSLKeystore getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return snapshot of entries, computed on first call and again after reload of watched keystore
+     */
+    public KeystoreDiagnostics getDiagnostics() {
+        KeyStore current = keyStore;
+        KeystoreDiagnostics snapshot = diagnostics;
+        if (snapshot == null || !snapshot.isOf(current)) {
+            snapshot = KeystoreDiagnostics.of(path, current);
+            diagnostics = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Register listener called after reload. Listener is kept only as long as its target is reachable,
+     * so it must not capture the target itself.
+     *
+     * @param target object updated by listener, e.g. key manager
+     * @param listener action called with target and reloaded keystore
+     */
+    <T> void addReloadListener(T target, BiConsumer<T, SSLKeystore> listener) {
+        listeners.add(new ReloadListener<>(target, listener));
+    }
+
+    /**
+     * Parse keystore file again and notify listeners. Previous keystore is kept when the file cannot be parsed.
+     */
+    void reload() {
+        keyStore = load(path, password, keyStoreType);
+
+        for (ReloadListener<?> listener : listeners) {
+            if (!listener.reloaded(this)) {
+                listeners.remove(listener);
+            }
+        }
+    }
+
+    /**
+     * Pass failure of reload to handler, failure of handler itself is ignored to keep the watcher running.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    void reloadFailed(RuntimeException failure) {
+        Consumer<? super RuntimeException> handler = reloadFailureHandler;
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.accept(failure);
+        } catch (RuntimeException ex) {
+            failure.addSuppressed(ex);
+        }
+    }
+
+    /**
+     * Parse keystore from content of file.
+     */
+    static SSLKeystore parse(String path, ByteBuffer content, char[] password, String type) {
+        try {
+            KeyStore loadedKeyStore = KeyStore.getInstance(type);
+            loadedKeyStore.load(new ByteBufferInputStream(content), password);
+
+            return new SSLKeystore(path, password, type, loadedKeyStore);
+        } catch (CertificateException | IOException | KeyStoreException | NoSuchAlgorithmException e) {
+            throw new SSLConfigurationException("Failed to load keystore/truststore from file: " + e.getMessage(), e);
+        }
+    }
+
+    static MappedByteBuffer map(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException ex) {
+            throw new SSLConfigurationException("Failed to load keystore/truststore from file: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static KeyStore emptyKeyStore() {
+        try {
+            KeyStore keyStore = KeyStore.getInstance(KeyStoreType.PKCS12.name());
+            keyStore.load(null, null);
+            return keyStore;
+        } catch (CertificateException | IOException | KeyStoreException | NoSuchAlgorithmException ex) {
+            throw new SSLConfigurationException("Failed to create keystore: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static KeyStore load(String path, char[] password, String type) {
+        try {
+            KeyStore loadedKeyStore = KeyStore.getInstance(type);
+
+            try (InputStream is = Files.newInputStream(Paths.get(path))) {
+                loadedKeyStore.load(is, password);
+            }
+
+            return loadedKeyStore;
+        } catch (CertificateException | IOException | KeyStoreException | NoSuchAlgorithmException e) {
+            throw new SSLConfigurationException("Failed to load keystore/truststore from file: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class ReloadListener<T> {
+
+        private final WeakReference<T> target;
+        private final BiConsumer<T, SSLKeystore> listener;
+
+        ReloadListener(T target, BiConsumer<T, SSLKeystore> listener) {
+            this.target = new WeakReference<>(target);
+            this.listener = listener;
+        }
+
+        boolean reloaded(SSLKeystore keystore) {
+            T current = target.get();
+            if (current == null) {
+                return false;
+            }
+            listener.accept(current, keystore);
+            return true;
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Named sets of enabled protocols and cipher suites in order of preference, applied to sockets and engines
+ * created by {@link SSLConfiguration}.
+ */
+public enum TLSProfile {
+
+    /**
+     * TLS 1.3 only, 1-RTT handshake and resumption, AEAD cipher suites.
+     */
+    MODERN(Arrays.asList("TLSv1.3"),
+            Arrays.asList(
+                    "TLS_AES_128_GCM_SHA256",
+                    "TLS_AES_256_GCM_SHA384",
+                    "TLS_CHACHA20_POLY1305_SHA256")),
+
+    /**
+     * TLS 1.3 and TLS 1.2, forward secret AEAD cipher suites preferred over CBC and static RSA key exchange.
+     */
+    COMPATIBLE(Arrays.asList("TLSv1.3", "TLSv1.2"),
+            Arrays.asList(
+                    "TLS_AES_128_GCM_SHA256",
+                    "TLS_AES_256_GCM_SHA384",
+                    "TLS_CHACHA20_POLY1305_SHA256",
+                    "TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256",
+                    "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+                    "TLS_ECDHE_ECDSA_WITH_AES_256_GCM_SHA384",
+                    "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384",
+                    "TLS_ECDHE_ECDSA_WITH_CHACHA20_POLY1305_SHA256",
+                    "TLS_ECDHE_RSA_WITH_CHACHA20_POLY1305_SHA256",
+                    "TLS_DHE_RSA_WITH_AES_128_GCM_SHA256",
+                    "TLS_DHE_RSA_WITH_AES_256_GCM_SHA384",
+                    "TLS_ECDHE_ECDSA_WITH_AES_128_CBC_SHA256",
+                    "TLS_ECDHE_RSA_WITH_AES_128_CBC_SHA256",
+                    "TLS_ECDHE_ECDSA_WITH_AES_256_CBC_SHA384",
+                    "TLS_ECDHE_RSA_WITH_AES_256_CBC_SHA384",
+                    "TLS_RSA_WITH_AES_128_GCM_SHA256",
+                    "TLS_RSA_WITH_AES_256_GCM_SHA384"));
+
+    private final List<String> protocols;
+    private final List<String> cipherSuites;
+
+    TLSProfile(List<String> protocols, List<String> cipherSuites) {
+        this.protocols = Collections.unmodifiableList(protocols);
+        this.cipherSuites = Collections.unmodifiableList(cipherSuites);
+    }
+
+    public List<String> getProtocols() {
+        return protocols;
+    }
+
+    public List<String> getCipherSuites() {
+        return cipherSuites;
+    }
+}
@@ -5,7 +5,8 @@ public enum TLSProtocol {
     TLS("TLS"),
     TLS_v1("TLSv1"),
     TLS_v1_1("TLSv1.1"),
-    TLS_v1_2("TLSv1.2");
+    TLS_v1_2("TLSv1.2"),
+    TLS_v1_3("TLSv1.3");
 
     private final String value;
 
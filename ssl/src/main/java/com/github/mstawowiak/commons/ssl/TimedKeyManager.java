@@ -0,0 +1,81 @@
+package com.github.mstawowiak.commons.ssl;
+
+import com.github.mstawowiak.commons.ssl.metrics.SSLContextMetrics;
+import java.net.Socket;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509KeyManager;
+
+/**
+ * Key manager which records latency of key selection and chosen aliases in {@link SSLContextMetrics}.
+ */
+@SuppressWarnings("PMD.UseVarargs")
+class TimedKeyManager extends X509ExtendedKeyManager {
+
+    private final X509KeyManager delegate;
+    private final SSLContextMetrics metrics;
+
+    TimedKeyManager(X509KeyManager delegate, SSLContextMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+        long start = System.nanoTime();
+        String alias = delegate.chooseServerAlias(keyType, issuers, socket);
+        metrics.recordChooseServerAlias(System.nanoTime() - start, alias);
+        return alias;
+    }
+
+    @Override
+    public String chooseEngineServerAlias(String keyType, Principal[] issuers, SSLEngine engine) {
+        long start = System.nanoTime();
+        String alias = delegate instanceof X509ExtendedKeyManager
+                ? ((X509ExtendedKeyManager) delegate).chooseEngineServerAlias(keyType, issuers, engine)
+                : delegate.chooseServerAlias(keyType, issuers, null);
+        metrics.recordChooseServerAlias(System.nanoTime() - start, alias);
+        return alias;
+    }
+
+    @Override
+    public String chooseClientAlias(String[] keyTypes, Principal[] issuers, Socket socket) {
+        long start = System.nanoTime();
+        String alias = delegate.chooseClientAlias(keyTypes, issuers, socket);
+        metrics.recordChooseClientAlias(System.nanoTime() - start, alias);
+        return alias;
+    }
+
+    @Override
+    public String chooseEngineClientAlias(String[] keyTypes, Principal[] issuers, SSLEngine engine) {
+        long start = System.nanoTime();
+        String alias = delegate instanceof X509ExtendedKeyManager
+                ? ((X509ExtendedKeyManager) delegate).chooseEngineClientAlias(keyTypes, issuers, engine)
+                : delegate.chooseClientAlias(keyTypes, issuers, null);
+        metrics.recordChooseClientAlias(System.nanoTime() - start, alias);
+        return alias;
+    }
+
+    @Override
+    public String[] getClientAliases(String keyType, Principal[] issuers) {
+        return delegate.getClientAliases(keyType, issuers);
+    }
+
+    @Override
+    public String[] getServerAliases(String keyType, Principal[] issuers) {
+        return delegate.getServerAliases(keyType, issuers);
+    }
+
+    @Override
+    public X509Certificate[] getCertificateChain(String alias) {
+        return delegate.getCertificateChain(alias);
+    }
+
+    @Override
+    public PrivateKey getPrivateKey(String alias) {
+        return delegate.getPrivateKey(alias);
+    }
+}
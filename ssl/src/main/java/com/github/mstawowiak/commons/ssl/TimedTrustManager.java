@@ -0,0 +1,110 @@
+package com.github.mstawowiak.commons.ssl;
+
+import com.github.mstawowiak.commons.ssl.metrics.SSLContextMetrics;
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * Trust manager which records latency of certificate validation in {@link SSLContextMetrics},
+ * including failed validations.
+ */
+@SuppressWarnings("PMD.UseVarargs")
+class TimedTrustManager extends X509ExtendedTrustManager {
+
+    private final X509TrustManager delegate;
+    private final SSLContextMetrics metrics;
+
+    TimedTrustManager(X509TrustManager delegate, SSLContextMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        long start = System.nanoTime();
+        try {
+            if (delegate instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) delegate).checkClientTrusted(chain, authType, socket);
+            } else {
+                delegate.checkClientTrusted(chain, authType);
+            }
+        } finally {
+            metrics.recordCheckClientTrusted(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        long start = System.nanoTime();
+        try {
+            if (delegate instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) delegate).checkServerTrusted(chain, authType, socket);
+            } else {
+                delegate.checkServerTrusted(chain, authType);
+            }
+        } finally {
+            metrics.recordCheckServerTrusted(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        long start = System.nanoTime();
+        try {
+            if (delegate instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) delegate).checkClientTrusted(chain, authType, engine);
+            } else {
+                delegate.checkClientTrusted(chain, authType);
+            }
+        } finally {
+            metrics.recordCheckClientTrusted(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        long start = System.nanoTime();
+        try {
+            if (delegate instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) delegate).checkServerTrusted(chain, authType, engine);
+            } else {
+                delegate.checkServerTrusted(chain, authType);
+            }
+        } finally {
+            metrics.recordCheckServerTrusted(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        long start = System.nanoTime();
+        try {
+            delegate.checkClientTrusted(chain, authType);
+        } finally {
+            metrics.recordCheckClientTrusted(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        long start = System.nanoTime();
+        try {
+            delegate.checkServerTrusted(chain, authType);
+        } finally {
+            metrics.recordCheckServerTrusted(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+}
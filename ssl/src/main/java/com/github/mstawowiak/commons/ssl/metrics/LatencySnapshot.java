@@ -0,0 +1,65 @@
+package com.github.mstawowiak.commons.ssl.metrics;
+
+import com.github.mstawowiak.commons.metrics.LatencyHistogram;
+
+/**
+ * Immutable snapshot of latency histogram. Latencies are in nanoseconds.
+ */
+public final class LatencySnapshot {
+
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    LatencySnapshot(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    static LatencySnapshot of(LatencyHistogram histogram) {
+        return new LatencySnapshot(histogram.count(), histogram.mean(), histogram.percentile(50.0),
+                histogram.percentile(90.0), histogram.percentile(99.0), histogram.percentile(99.9), histogram.max());
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "[count: " + count + ", p50: " + p50 + "ns, p99: " + p99 + "ns, max: " + max + "ns]";
+    }
+}
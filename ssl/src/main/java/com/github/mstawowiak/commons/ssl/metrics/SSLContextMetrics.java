@@ -0,0 +1,113 @@
+package com.github.mstawowiak.commons.ssl.metrics;
+
+import com.github.mstawowiak.commons.metrics.LatencyHistogram;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of SSL contexts of one configuration: latency of key selection, certificate validation
+ * and handshakes, number of full and resumed handshakes and usage of key aliases.
+ */
+public final class SSLContextMetrics {
+
+    private final String name;
+
+    private final LatencyHistogram chooseServerAlias;
+    private final LatencyHistogram chooseClientAlias;
+    private final LatencyHistogram checkServerTrusted;
+    private final LatencyHistogram checkClientTrusted;
+    private final LatencyHistogram handshake;
+
+    private final LongAdder fullHandshakes = new LongAdder();
+    private final LongAdder resumedHandshakes = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> aliasUsage = new ConcurrentHashMap<>();
+
+    SSLContextMetrics(String name, int stripes) {
+        this.name = name;
+        this.chooseServerAlias = new LatencyHistogram(stripes);
+        this.chooseClientAlias = new LatencyHistogram(stripes);
+        this.checkServerTrusted = new LatencyHistogram(stripes);
+        this.checkClientTrusted = new LatencyHistogram(stripes);
+        this.handshake = new LatencyHistogram(stripes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record server key selection.
+     *
+     * @param nanos duration of selection in nanoseconds
+     * @param alias chosen alias, {@code null} when no key was chosen
+     */
+    public void recordChooseServerAlias(long nanos, String alias) {
+        chooseServerAlias.record(nanos);
+        recordAlias(alias);
+    }
+
+    /**
+     * Record client key selection.
+     *
+     * @param nanos duration of selection in nanoseconds
+     * @param alias chosen alias, {@code null} when no key was chosen
+     */
+    public void recordChooseClientAlias(long nanos, String alias) {
+        chooseClientAlias.record(nanos);
+        recordAlias(alias);
+    }
+
+    public void recordCheckServerTrusted(long nanos) {
+        checkServerTrusted.record(nanos);
+    }
+
+    public void recordCheckClientTrusted(long nanos) {
+        checkClientTrusted.record(nanos);
+    }
+
+    /**
+     * Record completed handshake.
+     *
+     * @param nanos duration of handshake in nanoseconds
+     * @param resumed whether session was resumed
+     */
+    public void recordHandshake(long nanos, boolean resumed) {
+        if (resumed) {
+            resumedHandshakes.increment();
+        } else {
+            fullHandshakes.increment();
+            handshake.record(nanos);
+        }
+    }
+
+    public long getFullHandshakes() {
+        return fullHandshakes.sum();
+    }
+
+    public long getResumedHandshakes() {
+        return resumedHandshakes.sum();
+    }
+
+    public SSLContextMetricsSnapshot snapshot() {
+        Map<String, Long> aliases = new TreeMap<>();
+        aliasUsage.forEach((alias, usage) -> aliases.put(alias, usage.sum()));
+
+        return new SSLContextMetricsSnapshot(name,
+                LatencySnapshot.of(chooseServerAlias), LatencySnapshot.of(chooseClientAlias),
+                LatencySnapshot.of(checkServerTrusted), LatencySnapshot.of(checkClientTrusted),
+                LatencySnapshot.of(handshake), fullHandshakes.sum(), resumedHandshakes.sum(), aliases);
+    }
+
+    private void recordAlias(String alias) {
+        if (alias != null) {
+            LongAdder usage = aliasUsage.get(alias);
+            if (usage == null) {
+                usage = aliasUsage.computeIfAbsent(alias, key -> new LongAdder());
+            }
+            usage.increment();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.mstawowiak.commons.ssl.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of {@link SSLContextMetrics}. Handshake latency covers full handshakes only.
+ */
+@SuppressWarnings("PMD.ExcessiveParameterList")
+public final class SSLContextMetricsSnapshot {
+
+    private final String name;
+
+    private final LatencySnapshot chooseServerAlias;
+    private final LatencySnapshot chooseClientAlias;
+    private final LatencySnapshot checkServerTrusted;
+    private final LatencySnapshot checkClientTrusted;
+    private final LatencySnapshot handshake;
+
+    private final long fullHandshakes;
+    private final long resumedHandshakes;
+    private final Map<String, Long> aliasUsage;
+
+    SSLContextMetricsSnapshot(String name, LatencySnapshot chooseServerAlias, LatencySnapshot chooseClientAlias,
+            LatencySnapshot checkServerTrusted, LatencySnapshot checkClientTrusted, LatencySnapshot handshake,
+            long fullHandshakes, long resumedHandshakes, Map<String, Long> aliasUsage) {
+        this.name = name;
+        this.chooseServerAlias = chooseServerAlias;
+        this.chooseClientAlias = chooseClientAlias;
+        this.checkServerTrusted = checkServerTrusted;
+        this.checkClientTrusted = checkClientTrusted;
+        this.handshake = handshake;
+        this.fullHandshakes = fullHandshakes;
+        this.resumedHandshakes = resumedHandshakes;
+        this.aliasUsage = Collections.unmodifiableMap(aliasUsage);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencySnapshot getChooseServerAlias() {
+        return chooseServerAlias;
+    }
+
+    public LatencySnapshot getChooseClientAlias() {
+        return chooseClientAlias;
+    }
+
+    public LatencySnapshot getCheckServerTrusted() {
+        return checkServerTrusted;
+    }
+
+    public LatencySnapshot getCheckClientTrusted() {
+        return checkClientTrusted;
+    }
+
+    public LatencySnapshot getHandshake() {
+        return handshake;
+    }
+
+    public long getFullHandshakes() {
+        return fullHandshakes;
+    }
+
+    public long getResumedHandshakes() {
+        return resumedHandshakes;
+    }
+
+    /**
+     * @return number of times each key alias was chosen
+     */
+    public Map<String, Long> getAliasUsage() {
+        return aliasUsage;
+    }
+
+    @Override
+    public String toString() {
+        return "SSLContextMetrics [name: " + name + ", fullHandshakes: " + fullHandshakes
+                + ", resumedHandshakes: " + resumedHandshakes + ", handshake: " + handshake
+                + ", chooseServerAlias: " + chooseServerAlias + ", checkServerTrusted: " + checkServerTrusted + "]";
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.mstawowiak.commons.ssl.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of {@link SSLContextMetrics} by configuration name. Global registry is exposed by JMX as
+ * {@value #OBJECT_NAME}.
+ */
+public final class SSLMetrics implements SSLMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.github.mstawowiak.commons.ssl:type=SSLMetrics";
+
+    private static final SSLMetrics GLOBAL = new SSLMetrics();
+
+    static {
+        GLOBAL.registerMBean();
+    }
+
+    private final ConcurrentMap<String, SSLContextMetrics> contexts = new ConcurrentHashMap<>();
+
+    private final int stripes = Runtime.getRuntime().availableProcessors();
+
+    private volatile boolean registered;
+
+    public static SSLMetrics global() {
+        return GLOBAL;
+    }
+
+    public SSLContextMetrics getContextMetrics(String name) {
+        SSLContextMetrics metrics = contexts.get(name);
+        if (metrics == null) {
+            metrics = contexts.computeIfAbsent(name, key -> new SSLContextMetrics(key, stripes));
+        }
+        return metrics;
+    }
+
+    /**
+     * @return true if this registry was registered by JMX as {@value #OBJECT_NAME}
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    @Override
+    public long getFullHandshakes() {
+        return contexts.values().stream().mapToLong(SSLContextMetrics::getFullHandshakes).sum();
+    }
+
+    @Override
+    public long getResumedHandshakes() {
+        return contexts.values().stream().mapToLong(SSLContextMetrics::getResumedHandshakes).sum();
+    }
+
+    @Override
+    public List<SSLContextMetricsSnapshot> getContexts() {
+        return contexts.values().stream()
+                .map(SSLContextMetrics::snapshot)
+                .sorted(Comparator.comparing(SSLContextMetricsSnapshot::getName))
+                .collect(Collectors.toList());
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+                registered = true;
+            }
+        } catch (JMException | SecurityException ex) {
+            // metrics are still available by pull API, failure is reported by isRegistered()
+        }
+    }
+}
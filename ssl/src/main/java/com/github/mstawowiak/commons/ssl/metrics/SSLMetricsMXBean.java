@@ -0,0 +1,18 @@
+package com.github.mstawowiak.commons.ssl.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link SSLMetrics}.
+ */
+public interface SSLMetricsMXBean {
+
+    long getFullHandshakes();
+
+    long getResumedHandshakes();
+
+    /**
+     * @return metrics of SSL contexts sorted by name
+     */
+    List<SSLContextMetricsSnapshot> getContexts();
+}
@@ -0,0 +1,113 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.net.Socket;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.X509KeyManager;
+import javax.security.auth.x500.X500Principal;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AliasSelectorKeyManager}
+ */
+@SuppressWarnings("PMD.UseVarargs")
+public class AliasSelectorKeyManagerTest {
+
+    private static final String ALIAS = "mykey";
+
+    private CountingKeyManager sourceKeyManager;
+
+    @Before
+    public void setUp() throws Exception {
+        SSLKeystore keystore = SSLKeystore.fromFile("src/test/resources/ssl/keystore.jks", "123456",
+                KeyStoreType.JKS.name());
+
+        KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        factory.init(keystore.getKeyStore(), keystore.getPassword());
+        sourceKeyManager = new CountingKeyManager((X509KeyManager) factory.getKeyManagers()[0]);
+    }
+
+    @Test
+    public void shouldChooseEligibleAliasAndCacheEligibility() {
+        AliasSelectorKeyManager keyManager = new AliasSelectorKeyManager(sourceKeyManager, ALIAS);
+        String keyType = sourceKeyManager.getPrivateKey(ALIAS).getAlgorithm();
+        sourceKeyManager.calls.set(0);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(ALIAS, keyManager.chooseServerAlias(keyType, null, null));
+            Assert.assertEquals(ALIAS, keyManager.chooseClientAlias(new String[] {"EC", keyType}, null, null));
+        }
+
+        Assert.assertEquals(3, sourceKeyManager.calls.get());
+    }
+
+    @Test
+    public void shouldNotChooseAliasNotEligibleForIssuers() {
+        AliasSelectorKeyManager keyManager = new AliasSelectorKeyManager(sourceKeyManager, ALIAS);
+        String keyType = sourceKeyManager.getPrivateKey(ALIAS).getAlgorithm();
+        Principal[] issuers = {new X500Principal("CN=Unknown Issuer")};
+
+        Assert.assertNull(keyManager.chooseServerAlias(keyType, issuers, null));
+        Assert.assertNull(keyManager.chooseServerAlias(keyType, new Principal[] {issuers[0]}, null));
+        Assert.assertEquals(1, sourceKeyManager.calls.get());
+    }
+
+    @Test
+    public void shouldInvalidateEligibilityWhenSourceKeyManagerIsReplaced() {
+        AliasSelectorKeyManager keyManager = new AliasSelectorKeyManager(sourceKeyManager, ALIAS);
+        String keyType = sourceKeyManager.getPrivateKey(ALIAS).getAlgorithm();
+
+        keyManager.chooseServerAlias(keyType, null, null);
+        keyManager.setSourceKeyManager(sourceKeyManager);
+        keyManager.chooseServerAlias(keyType, null, null);
+
+        Assert.assertEquals(2, sourceKeyManager.calls.get());
+    }
+
+    private static final class CountingKeyManager implements X509KeyManager {
+
+        private final X509KeyManager delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingKeyManager(X509KeyManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String[] getClientAliases(String keyType, Principal[] issuers) {
+            calls.incrementAndGet();
+            return delegate.getClientAliases(keyType, issuers);
+        }
+
+        @Override
+        public String chooseClientAlias(String[] keyTypes, Principal[] issuers, Socket socket) {
+            return delegate.chooseClientAlias(keyTypes, issuers, socket);
+        }
+
+        @Override
+        public String[] getServerAliases(String keyType, Principal[] issuers) {
+            calls.incrementAndGet();
+            return delegate.getServerAliases(keyType, issuers);
+        }
+
+        @Override
+        public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+            return delegate.chooseServerAlias(keyType, issuers, socket);
+        }
+
+        @Override
+        public X509Certificate[] getCertificateChain(String alias) {
+            return delegate.getCertificateChain(alias);
+        }
+
+        @Override
+        public PrivateKey getPrivateKey(String alias) {
+            return delegate.getPrivateKey(alias);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.net.Socket;
+import java.security.KeyStore;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CachingTrustManager}
+ */
+@SuppressWarnings("PMD.UseVarargs")
+public class CachingTrustManagerTest {
+
+    private static final String AUTH_TYPE = "RSA";
+    private static final long TTL = 60_000;
+
+    private static SSLKeystore keystore;
+    private static X509ExtendedTrustManager hostsTrustManager;
+    private static X509ExtendedTrustManager otherTrustManager;
+    private static X509Certificate[] localhostChain;
+    private static X509Certificate[] tenantChain;
+
+    private CountingTrustManager delegate;
+    private AtomicLong clock;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        keystore = SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name());
+        SSLKeystore truststore = SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                KeyStoreType.JKS.name());
+
+        hostsTrustManager = trustManagerOf(truststore);
+        otherTrustManager = trustManagerOf(SSLKeystore.fromFile("src/test/resources/ssl/truststore.jks", "123456",
+                KeyStoreType.JKS.name()));
+
+        localhostChain = chain(keystore.getKeyStore(), "localhost");
+        tenantChain = chain(keystore.getKeyStore(), "tenant-a");
+    }
+
+    @Before
+    public void before() {
+        delegate = new CountingTrustManager(hostsTrustManager);
+        clock = new AtomicLong(System.currentTimeMillis());
+    }
+
+    @Test
+    public void shouldValidateChainOnce() throws Exception {
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 10, TTL, clock::get);
+
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+        trustManager.checkServerTrusted(localhostChain.clone(), AUTH_TYPE);
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE, (Socket) null);
+
+        Assert.assertEquals(1, delegate.checks.get());
+        Assert.assertEquals(1, trustManager.size());
+    }
+
+    @Test
+    public void shouldKeyChainsByAuthTypeAndSide() throws Exception {
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 10, TTL, clock::get);
+
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+        trustManager.checkServerTrusted(localhostChain, "ECDHE_RSA");
+        trustManager.checkClientTrusted(localhostChain, AUTH_TYPE);
+
+        Assert.assertEquals(3, delegate.checks.get());
+    }
+
+    @Test
+    public void shouldNotCacheRejectedChain() throws Exception {
+        delegate = new CountingTrustManager(otherTrustManager);
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 10, TTL, clock::get);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+                Assert.fail("Chain not issued by trusted certificate should be rejected");
+            } catch (CertificateException expected) {
+                // rejected by delegate every time
+            }
+        }
+
+        Assert.assertEquals(2, delegate.checks.get());
+        Assert.assertEquals(0, trustManager.size());
+    }
+
+    @Test
+    public void shouldValidateAgainAfterTimeToLive() throws Exception {
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 10, TTL, clock::get);
+
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+        clock.addAndGet(TTL - 1);
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+        clock.addAndGet(1);
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+
+        Assert.assertEquals(2, delegate.checks.get());
+    }
+
+    @Test
+    public void shouldNotKeepChainAfterCertificateExpiry() throws Exception {
+        long notAfter = localhostChain[0].getNotAfter().getTime();
+        clock.set(notAfter - 1000);
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 10, TTL, clock::get);
+
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+        clock.set(notAfter);
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+
+        Assert.assertEquals(2, delegate.checks.get());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedChain() throws Exception {
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 1, TTL, clock::get);
+
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+        trustManager.checkServerTrusted(tenantChain, AUTH_TYPE);
+        trustManager.checkServerTrusted(localhostChain, AUTH_TYPE);
+
+        Assert.assertEquals(3, delegate.checks.get());
+        Assert.assertEquals(1, trustManager.size());
+    }
+
+    @Test
+    public void shouldCacheChainPerVerifiedHostname() throws Exception {
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 10, TTL);
+        SSLContext clientContext = SSLContext.getInstance("TLS");
+        clientContext.init(null, new TrustManager[] {trustManager}, null);
+        SSLContext serverContext = new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .keyAlias("localhost")
+                .build()
+                .createSSLContext();
+
+        handshake(clientContext, serverContext, "localhost", 1001);
+        handshake(clientContext, serverContext, "localhost", 1002);
+        Assert.assertEquals(1, delegate.checks.get());
+
+        try {
+            handshake(clientContext, serverContext, "other.example.com", 1003);
+            Assert.fail("Certificate of localhost should be rejected for other.example.com");
+        } catch (SSLException expected) {
+            // chain cached for localhost is verified again by delegate for other host
+            Assert.assertEquals(2, delegate.checks.get());
+            Assert.assertEquals(1, trustManager.size());
+        }
+    }
+
+    @Test
+    public void shouldCacheChainsFromManyThreads() throws Exception {
+        CachingTrustManager trustManager = new CachingTrustManager(delegate, 1, TTL, clock::get);
+        X509Certificate[][] chains = {localhostChain, tenantChain};
+
+        Thread[] threads = new Thread[4];
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < threads.length; i++) {
+            int offset = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 200; j++) {
+                    try {
+                        trustManager.checkServerTrusted(chains[(offset + j) % chains.length], AUTH_TYPE);
+                    } catch (CertificateException ex) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(0, failures.get());
+        Assert.assertTrue(trustManager.size() <= 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveSize() {
+        new CachingTrustManager(delegate, 0, TTL);
+    }
+
+    private static void handshake(SSLContext clientContext, SSLContext serverContext, String peerHost, int peerPort)
+            throws SSLException {
+        SSLEngine server = serverContext.createSSLEngine();
+        server.setUseClientMode(false);
+
+        SSLEngine client = clientContext.createSSLEngine(peerHost, peerPort);
+        client.setUseClientMode(true);
+        SSLParameters parameters = client.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        client.setSSLParameters(parameters);
+
+        SSLEngineHandshake.handshake(client, server);
+    }
+
+    private static X509ExtendedTrustManager trustManagerOf(SSLKeystore truststore) throws Exception {
+        TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init(truststore.getKeyStore());
+        return (X509ExtendedTrustManager) factory.getTrustManagers()[0];
+    }
+
+    private static X509Certificate[] chain(KeyStore keyStore, String alias) throws Exception {
+        return Arrays.stream(keyStore.getCertificateChain(alias))
+                .map(X509Certificate.class::cast)
+                .toArray(X509Certificate[]::new);
+    }
+
+    private static final class CountingTrustManager extends X509ExtendedTrustManager {
+
+        private final X509ExtendedTrustManager delegate;
+        private final AtomicInteger checks = new AtomicInteger();
+
+        CountingTrustManager(X509ExtendedTrustManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            checks.incrementAndGet();
+            delegate.checkClientTrusted(chain, authType, socket);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            checks.incrementAndGet();
+            delegate.checkServerTrusted(chain, authType, socket);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            checks.incrementAndGet();
+            delegate.checkClientTrusted(chain, authType, engine);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            checks.incrementAndGet();
+            delegate.checkServerTrusted(chain, authType, engine);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            checks.incrementAndGet();
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            checks.incrementAndGet();
+            delegate.checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.getAcceptedIssuers();
+        }
+    }
+}
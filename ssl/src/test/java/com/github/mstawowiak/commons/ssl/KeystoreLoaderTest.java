@@ -0,0 +1,129 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link KeystoreLoader}
+ */
+public class KeystoreLoaderTest {
+
+    private static final Path KEYSTORE = Paths.get("src/test/resources/ssl/keystore.jks");
+    private static final Path TRUSTSTORE = Paths.get("src/test/resources/ssl/truststore.jks");
+    private static final String PASSWORD = "123456";
+    private static final String TYPE = KeyStoreType.JKS.name();
+
+    private final KeystoreLoader loader = new KeystoreLoader(ForkJoinPool.commonPool());
+
+    private Path directory;
+    private Path file;
+    private Path copy;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ssl-loader");
+        file = directory.resolve("keystore.jks");
+        copy = directory.resolve("copy.jks");
+        Files.copy(KEYSTORE, file);
+        Files.copy(KEYSTORE, copy);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(copy);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void shouldShareKeystoresWithSameContent() {
+        SSLKeystore keystore = loader.load(file.toString(), PASSWORD, TYPE);
+        SSLKeystore copied = loader.load(copy.toString(), PASSWORD, TYPE);
+
+        Assert.assertSame(keystore, loader.load(file.toString(), PASSWORD, TYPE));
+        Assert.assertSame(copied, loader.load(copy.toString(), PASSWORD, TYPE));
+        Assert.assertSame(keystore.getKeyStore(), copied.getKeyStore());
+        Assert.assertEquals(2, loader.size());
+        Assert.assertEquals(TYPE, keystore.getType());
+    }
+
+    @Test
+    public void shouldKeepPathOfEachKeystoreWithSameContent() {
+        SSLKeystore keystore = loader.load(file.toString(), PASSWORD, TYPE);
+        SSLKeystore copied = loader.load(copy.toString(), PASSWORD, TYPE);
+
+        Assert.assertEquals(file.toString(), keystore.getPath());
+        Assert.assertEquals(copy.toString(), copied.getPath());
+        Assert.assertEquals(copy.toString(), copied.getDiagnostics().getPath());
+    }
+
+    @Test
+    public void shouldNotKeepUnusedKeystoresReachable() throws InterruptedException {
+        WeakReference<SSLKeystore> keystore = new WeakReference<>(loader.load(file.toString(), PASSWORD, TYPE));
+
+        for (int i = 0; i < 50 && keystore.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        Assert.assertNull(keystore.get());
+    }
+
+    @Test
+    public void shouldShareSSLContextOfSharedKeystores() {
+        SSLConfiguration configuration = new SSLConfiguration.Builder()
+                .keystore(loader.load(file.toString(), PASSWORD, TYPE))
+                .build();
+        SSLConfiguration otherConfiguration = new SSLConfiguration.Builder()
+                .keystore(loader.load(copy.toString(), PASSWORD, TYPE))
+                .build();
+
+        Assert.assertSame(configuration.getSSLContext(), otherConfiguration.getSSLContext());
+    }
+
+    @Test
+    public void shouldLoadChangedFileAgain() throws IOException {
+        SSLKeystore keystore = loader.load(file.toString(), PASSWORD, TYPE);
+
+        Files.copy(TRUSTSTORE, file, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        SSLKeystore reloaded = loader.load(file.toString(), PASSWORD, TYPE);
+        Assert.assertNotSame(keystore, reloaded);
+        Assert.assertNotSame(keystore.getKeyStore(), reloaded.getKeyStore());
+    }
+
+    @Test
+    public void shouldLoadKeystoresInParallel() {
+        CompletableFuture<SSLKeystore> keystore = loader.loadAsync(file.toString(), PASSWORD, TYPE);
+        CompletableFuture<SSLKeystore> truststore = loader.loadAsync(TRUSTSTORE.toString(), PASSWORD, TYPE);
+
+        CompletableFuture.allOf(keystore, truststore).join();
+
+        Assert.assertNotNull(keystore.join().getKeyStore());
+        Assert.assertNotNull(truststore.join().getKeyStore());
+    }
+
+    @Test
+    public void shouldFailForWrongPassword() {
+        try {
+            loader.loadAsync(file.toString(), "wrong", TYPE).join();
+            Assert.fail("Expected failure for wrong password");
+        } catch (CompletionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof SSLConfigurationException);
+        }
+        Assert.assertEquals(0, loader.size());
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.security.Principal;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SNIKeyManager}
+ */
+public class SNIKeyManagerTest {
+
+    private static SSLKeystore keystore;
+    private static SSLContext clientContext;
+
+    @BeforeClass
+    public static void beforeClass() {
+        keystore = SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name());
+        clientContext = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .build()
+                .createSSLContext();
+    }
+
+    @Test
+    public void shouldChooseCertificateByRequestedHostname() throws Exception {
+        SSLContext serverContext = serverContext("localhost");
+
+        Assert.assertEquals("CN=a.example.com,O=Example", serverCertificate(serverContext, "a.example.com"));
+        Assert.assertEquals("CN=a.example.com,O=Example", serverCertificate(serverContext, "WWW.A.example.com"));
+        Assert.assertEquals("CN=ec.example.com,O=Example", serverCertificate(serverContext, "ec.example.com"));
+    }
+
+    @Test
+    public void shouldMatchWildcardWithOneLabel() throws Exception {
+        SSLContext serverContext = serverContext("localhost");
+
+        Assert.assertEquals("CN=*.example.org,O=Example", serverCertificate(serverContext, "tenant.example.org"));
+        Assert.assertEquals("CN=localhost,O=Example", serverCertificate(serverContext, "a.tenant.example.org"));
+        Assert.assertEquals("CN=localhost,O=Example", serverCertificate(serverContext, "example.org"));
+    }
+
+    @Test
+    public void shouldChooseDefaultAliasWithoutRequestedHostname() throws Exception {
+        Assert.assertEquals("CN=localhost,O=Example", serverCertificate(serverContext("localhost"), null));
+    }
+
+    @Test
+    public void shouldIndexCertificateNames() {
+        HostnameIndex index = HostnameIndex.of(keystore.getKeyStore());
+
+        Assert.assertEquals("tenant-a", index.find("a.example.com.", "RSA", null));
+        Assert.assertNull(index.find("a.example.com", "EC", null));
+        Assert.assertEquals("tenant-ec", index.find("ec.example.com", "EC_EC", null));
+        Assert.assertTrue(index.contains("x.example.org"));
+        Assert.assertFalse(index.contains("unknown.example.com"));
+    }
+
+    @Test
+    public void shouldPreferValidCertificateExpiringLatest() throws Exception {
+        SSLKeystore rotation = SSLKeystore.fromFile("src/test/resources/ssl/rotation.jks", "123456",
+                KeyStoreType.JKS.name());
+        HostnameIndex index = HostnameIndex.of(rotation.getKeyStore());
+        X509Certificate expired = (X509Certificate) rotation.getKeyStore().getCertificate("expired");
+        X509Certificate shortLived = (X509Certificate) rotation.getKeyStore().getCertificate("short");
+
+        Assert.assertEquals("long", index.find("rotate.example.com", "RSA", null));
+        Assert.assertEquals("short", index.find("rotate.example.com", "RSA",
+                new Principal[] {shortLived.getSubjectX500Principal()}));
+        Assert.assertEquals("long", index.find("rotate.example.com", "RSA",
+                new Principal[] {expired.getSubjectX500Principal()}));
+    }
+
+    private static SSLContext serverContext(String defaultAlias) {
+        return new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .keyAlias(defaultAlias)
+                .sniKeySelection(true)
+                .verifyCertificate(false)
+                .build()
+                .createSSLContext();
+    }
+
+    private static String serverCertificate(SSLContext serverContext, String hostname) throws Exception {
+        SSLEngine client = clientContext.createSSLEngine();
+        client.setUseClientMode(true);
+        if (hostname != null) {
+            SSLParameters parameters = client.getSSLParameters();
+            parameters.setServerNames(Collections.singletonList(new SNIHostName(hostname)));
+            client.setSSLParameters(parameters);
+        }
+
+        SSLEngine server = serverContext.createSSLEngine();
+        server.setUseClientMode(false);
+
+        SSLEngineHandshake.handshake(client, server);
+
+        X509Certificate certificate = (X509Certificate) client.getSession().getPeerCertificates()[0];
+        return certificate.getSubjectX500Principal().getName();
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SSLBufferPool}
+ */
+public class SSLBufferPoolTest {
+
+    @Test
+    public void shouldReuseReleasedBufferOfSameSizeClass() {
+        SSLBufferPool pool = new SSLBufferPool(2);
+
+        ByteBuffer buffer = pool.acquire(1000);
+        Assert.assertEquals(1024, buffer.capacity());
+        Assert.assertFalse(buffer.isDirect());
+
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        Assert.assertEquals(1, pool.size());
+
+        ByteBuffer reused = pool.acquire(600);
+        Assert.assertSame(buffer, reused);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void shouldIgnoreBuffersNotMatchingPool() {
+        SSLBufferPool pool = new SSLBufferPool(1, true);
+
+        Assert.assertTrue(pool.acquire(16).isDirect());
+
+        pool.release(ByteBuffer.allocate(16));
+        pool.release(ByteBuffer.allocateDirect(100));
+        Assert.assertEquals(0, pool.size());
+
+        pool.release(ByteBuffer.allocateDirect(16));
+        pool.release(ByteBuffer.allocateDirect(16));
+        Assert.assertEquals(1, pool.size());
+    }
+}
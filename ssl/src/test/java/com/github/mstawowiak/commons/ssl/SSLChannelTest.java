@@ -0,0 +1,162 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SSLChannel}
+ */
+public class SSLChannelTest {
+
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private final SSLBufferPool pool = new SSLBufferPool(16);
+
+    private SSLConfiguration serverConfiguration;
+    private SSLConfiguration clientConfiguration;
+
+    private ServerSocketChannel serverChannel;
+    private Thread server;
+    private volatile Throwable serverFailure;
+
+    @Before
+    public void setUp() throws IOException {
+        serverConfiguration = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name()))
+                .keyAlias("localhost")
+                .build();
+        clientConfiguration = new SSLConfiguration.Builder()
+                .truststore(SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                        KeyStoreType.JKS.name()))
+                .build();
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server = new Thread(this::echo, "ssl-channel-test-server");
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverChannel.close();
+        server.join(TIMEOUT_MILLIS);
+        Assert.assertNull(serverFailure);
+    }
+
+    @Test
+    public void shouldExchangeDataInBlockingMode() throws IOException {
+        byte[] message = new byte[100_000];
+        for (int i = 0; i < message.length; i++) {
+            message[i] = (byte) i;
+        }
+
+        try (SSLChannel channel = client(SocketChannel.open(serverChannel.getLocalAddress()), null)) {
+            Assert.assertTrue(channel.handshake());
+            Assert.assertEquals(message.length, channel.write(ByteBuffer.wrap(message)));
+
+            ByteBuffer echo = ByteBuffer.allocate(message.length);
+            while (echo.hasRemaining()) {
+                Assert.assertTrue(channel.read(echo) >= 0);
+            }
+            Assert.assertArrayEquals(message, echo.array());
+        }
+        Assert.assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void shouldExchangeDataInNonBlockingModeWithTaskExecutor() throws Exception {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor executor = task -> {
+            tasks.incrementAndGet();
+            ForkJoinPool.commonPool().execute(task);
+        };
+
+        SocketChannel socketChannel = SocketChannel.open(serverChannel.getLocalAddress());
+        socketChannel.configureBlocking(false);
+        try (SSLChannel channel = client(socketChannel, executor)) {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!channel.handshake()) {
+                Assert.assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(1);
+            }
+
+            ByteBuffer message = ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8));
+            while (message.hasRemaining() || !channel.flush()) {
+                channel.write(message);
+            }
+
+            ByteBuffer echo = ByteBuffer.allocate(5);
+            while (echo.hasRemaining()) {
+                Assert.assertTrue(System.currentTimeMillis() < deadline);
+                if (channel.read(echo) == 0) {
+                    Thread.sleep(1);
+                }
+            }
+            Assert.assertEquals("hello", new String(echo.array(), StandardCharsets.UTF_8));
+        }
+        Assert.assertTrue(tasks.get() > 0);
+    }
+
+    @Test
+    public void shouldReturnEndOfStreamWhenPeerCloses() throws IOException {
+        try (SSLChannel channel = client(SocketChannel.open(serverChannel.getLocalAddress()), null)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0}));
+            ByteBuffer echo = ByteBuffer.allocate(1);
+            while (echo.hasRemaining()) {
+                channel.read(echo);
+            }
+            channel.getEngine().closeOutbound();
+            channel.getChannel().shutdownOutput();
+
+            Assert.assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    private SSLChannel client(SocketChannel socketChannel, Executor executor) {
+        return new SSLChannel.Builder()
+                .channel(socketChannel)
+                .configuration(clientConfiguration)
+                .clientMode(true)
+                .peer("localhost", serverChannel.socket().getLocalPort())
+                .executor(executor)
+                .bufferPool(pool)
+                .build();
+    }
+
+    /**
+     * Echo data of each connection until end of stream.
+     */
+    private void echo() {
+        while (serverChannel.isOpen()) {
+            try (SSLChannel channel = new SSLChannel.Builder()
+                    .channel(serverChannel.accept())
+                    .configuration(serverConfiguration)
+                    .build()) {
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            } catch (IOException ex) {
+                if (serverChannel.isOpen()) {
+                    serverFailure = ex;
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package com.github.mstawowiak.commons.ssl;
 
+import com.github.mstawowiak.commons.ssl.metrics.SSLContextMetricsSnapshot;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -47,4 +56,403 @@ public class SSLConfigurationTest {
 
         System.out.println(sslConfiguration.toString());
     }
+
+    @Test
+    public void shouldShareSSLContextBetweenEqualConfigurations() {
+        SSLKeystore keystore = SSLKeystore.fromFile(keystorePath, keystorePassword, KeyStoreType.JKS.name());
+        SSLKeystore truststore = SSLKeystore.fromFile(truststorePath, truststorePassword, KeyStoreType.JKS.name());
+
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .truststore(truststore)
+                .keyAlias("mykey")
+                .build();
+        SSLConfiguration sameConfiguration = new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .truststore(truststore)
+                .keyAlias("mykey")
+                .verifyHostname(false)
+                .build();
+        SSLConfiguration otherConfiguration = new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .truststore(truststore)
+                .build();
+
+        SSLContext sslContext = sslConfiguration.getSSLContext();
+
+        Assert.assertSame(sslContext, sslConfiguration.getSSLContext());
+        Assert.assertSame(sslContext, sameConfiguration.getSSLContext());
+        Assert.assertNotSame(sslContext, otherConfiguration.getSSLContext());
+        Assert.assertNotSame(sslContext, sslConfiguration.createSSLContext());
+        Assert.assertSame(sslConfiguration.getSocketFactory(), sameConfiguration.getSocketFactory());
+        Assert.assertEquals("localhost", sslConfiguration.createSSLEngine("localhost", 443).getPeerHost());
+    }
+
+    @Test
+    public void shouldShareSSLContextWhileAnyEqualConfigurationIsReachable() throws InterruptedException {
+        SSLKeystore keystore = SSLKeystore.fromFile(keystorePath, keystorePassword, KeyStoreType.JKS.name());
+
+        SSLConfiguration first = new SSLConfiguration.Builder().keystore(keystore).sessionTimeout(123).build();
+        SSLConfiguration second = new SSLConfiguration.Builder().keystore(keystore).sessionTimeout(123).build();
+        SSLContext sslContext = first.getSSLContext();
+        Assert.assertSame(sslContext, second.getSSLContext());
+
+        WeakReference<SSLConfiguration> firstReference = new WeakReference<>(first);
+        first = null;
+        for (int i = 0; i < 50 && firstReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(firstReference.get());
+
+        SSLConfiguration third = new SSLConfiguration.Builder().keystore(keystore).sessionTimeout(123).build();
+        Assert.assertSame(sslContext, third.getSSLContext());
+        Assert.assertSame(sslContext, second.getSSLContext());
+    }
+
+    @Test
+    public void shouldConfigureSessionContexts() {
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .sessionCacheSize(100)
+                .sessionTimeout(600)
+                .build();
+
+        SSLContext sslContext = sslConfiguration.createSSLContext();
+
+        Assert.assertEquals(100, sslContext.getClientSessionContext().getSessionCacheSize());
+        Assert.assertEquals(100, sslContext.getServerSessionContext().getSessionCacheSize());
+        Assert.assertEquals(600, sslContext.getClientSessionContext().getSessionTimeout());
+        Assert.assertEquals(600, sslContext.getServerSessionContext().getSessionTimeout());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeSessionCacheSize() {
+        new SSLConfiguration.Builder().sessionCacheSize(-1);
+    }
+
+    @Test
+    public void shouldApplyCipherSuitesInOrderToEnginesAndSockets() throws Exception {
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .cipherSuites("TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384", "TLS_NOT_SUPPORTED",
+                        "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256")
+                .build();
+        String[] expected = {"TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384", "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256"};
+
+        SSLEngine engine = sslConfiguration.createSSLEngine();
+        Assert.assertArrayEquals(expected, engine.getEnabledCipherSuites());
+        Assert.assertTrue(engine.getSSLParameters().getUseCipherSuitesOrder());
+
+        try (SSLSocket socket = (SSLSocket) sslConfiguration.getSocketFactory().createSocket()) {
+            Assert.assertArrayEquals(expected, socket.getEnabledCipherSuites());
+        }
+        Assert.assertArrayEquals(expected, sslConfiguration.getServerSocketFactory().getDefaultCipherSuites());
+    }
+
+    @Test
+    public void shouldNegotiatePreferredCipherSuiteOfServer() throws Exception {
+        SSLKeystore keystore = SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456",
+                KeyStoreType.JKS.name());
+        SSLConfiguration server = new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .keyAlias("localhost")
+                .cipherSuites("TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256", "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384")
+                .build();
+        SSLConfiguration client = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .cipherSuites("TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384", "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256")
+                .build();
+
+        SSLEngine serverEngine = server.createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        SSLEngine clientEngine = client.createSSLEngine("localhost", 443);
+        clientEngine.setUseClientMode(true);
+
+        SSLEngineHandshake.handshake(clientEngine, serverEngine);
+
+        Assert.assertEquals("TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256", clientEngine.getSession().getCipherSuite());
+    }
+
+    @Test
+    public void shouldPreferEcdheKeyExchange() {
+        String[] ordered = ConnectionParameters.orderByKeyExchange(new String[] {
+                "TLS_RSA_WITH_AES_128_GCM_SHA256", "TLS_DHE_RSA_WITH_AES_128_GCM_SHA256",
+                "TLS_EMPTY_RENEGOTIATION_INFO_SCSV", "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+                "TLS_AES_128_GCM_SHA256"});
+
+        Assert.assertEquals(Arrays.asList("TLS_AES_128_GCM_SHA256", "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+                "TLS_DHE_RSA_WITH_AES_128_GCM_SHA256", "TLS_RSA_WITH_AES_128_GCM_SHA256",
+                "TLS_EMPTY_RENEGOTIATION_INFO_SCSV"), Arrays.asList(ordered));
+
+        SSLEngine engine = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .preferEcdhe(true)
+                .build()
+                .createSSLEngine();
+        String[] enabled = engine.getEnabledCipherSuites();
+        Assert.assertArrayEquals(ConnectionParameters.orderByKeyExchange(enabled), enabled);
+    }
+
+    @Test
+    public void shouldCreateTLSv13Context() {
+        SSLContext sslContext = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .protocol(TLSProtocol.TLS_v1_3)
+                .build()
+                .createSSLContext();
+
+        Assert.assertEquals("TLSv1.3", sslContext.getProtocol());
+    }
+
+    @Test
+    public void shouldApplyProfileToEngines() {
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .profile(TLSProfile.MODERN)
+                .build();
+
+        SSLEngine engine = sslConfiguration.createSSLEngine();
+
+        Assert.assertEquals(TLSProtocol.TLS, sslConfiguration.getProtocol());
+        Assert.assertArrayEquals(new String[] {"TLSv1.3"}, engine.getEnabledProtocols());
+        Assert.assertEquals(TLSProfile.MODERN.getCipherSuites(), Arrays.asList(engine.getEnabledCipherSuites()));
+    }
+
+    @Test
+    public void shouldNegotiateTLSv13WithModernProfile() throws Exception {
+        SSLEngine serverEngine = serverConfiguration(TLSProfile.MODERN).createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        SSLEngine clientEngine = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .profile(TLSProfile.COMPATIBLE)
+                .build()
+                .createSSLEngine("localhost", 443);
+        clientEngine.setUseClientMode(true);
+
+        SSLEngineHandshake.handshake(clientEngine, serverEngine);
+
+        Assert.assertEquals("TLSv1.3", clientEngine.getSession().getProtocol());
+        Assert.assertEquals("TLS_AES_128_GCM_SHA256", clientEngine.getSession().getCipherSuite());
+    }
+
+    @Test
+    public void shouldNegotiateTLSv12EcdheWithCompatibleProfile() throws Exception {
+        SSLEngine serverEngine = serverConfiguration(TLSProfile.COMPATIBLE).createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        SSLEngine clientEngine = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .protocol(TLSProtocol.TLS_v1_2)
+                .build()
+                .createSSLEngine("localhost", 443);
+        clientEngine.setUseClientMode(true);
+        clientEngine.setEnabledProtocols(new String[] {"TLSv1.2"});
+
+        SSLEngineHandshake.handshake(clientEngine, serverEngine);
+
+        Assert.assertEquals("TLSv1.2", clientEngine.getSession().getProtocol());
+        Assert.assertEquals("TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256", clientEngine.getSession().getCipherSuite());
+    }
+
+    @Test
+    public void shouldNotDecorateManagersWithoutMetrics() {
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .verifyCertificate(false)
+                .build();
+
+        Assert.assertNull(sslConfiguration.getContextMetrics());
+        Assert.assertFalse(sslConfiguration.createTrustManagers()[0] instanceof TimedTrustManager);
+    }
+
+    @Test
+    public void shouldCacheVerifiedChainsWhenEnabled() {
+        SSLConfiguration.Builder builder = new SSLConfiguration.Builder()
+                .truststore(SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                        KeyStoreType.JKS.name()));
+
+        Assert.assertFalse(builder.build().createTrustManagers()[0] instanceof CachingTrustManager);
+
+        SSLConfiguration sslConfiguration = builder.verifiedChainCache(100, 300).build();
+        Assert.assertTrue(sslConfiguration.createTrustManagers()[0] instanceof CachingTrustManager);
+        Assert.assertEquals(Integer.valueOf(100), sslConfiguration.getVerifiedChainCacheSize());
+        Assert.assertEquals(Integer.valueOf(300), sslConfiguration.getVerifiedChainCacheTtl());
+        Assert.assertTrue(new SSLConfiguration.Builder().verifiedChainCache(10, 60).build()
+                .createTrustManagers()[0] instanceof CachingTrustManager);
+    }
+
+    @Test
+    public void shouldDescribeConfigurationOnce() {
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name()))
+                .build();
+
+        String description = sslConfiguration.toString();
+
+        Assert.assertSame(description, sslConfiguration.toString());
+        Assert.assertTrue(description.contains("aliases: localhost, tenant-a, tenant-ec, wildcard, keyEntries: 4"));
+        Assert.assertTrue(description.contains("no trustStore"));
+    }
+
+    @Test
+    public void shouldRecordKeySelectionAndValidationOfEngines() throws Exception {
+        SSLConfiguration server = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name()))
+                .keyAlias("localhost")
+                .metrics("engine-server")
+                .build();
+        SSLConfiguration client = new SSLConfiguration.Builder()
+                .truststore(SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                        KeyStoreType.JKS.name()))
+                .metrics("engine-client")
+                .build();
+
+        SSLEngine serverEngine = server.createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        SSLEngine clientEngine = client.createSSLEngine("localhost", 443);
+        clientEngine.setUseClientMode(true);
+
+        SSLEngineHandshake.handshake(clientEngine, serverEngine);
+
+        SSLContextMetricsSnapshot serverMetrics = server.getContextMetrics().snapshot();
+        SSLContextMetricsSnapshot clientMetrics = client.getContextMetrics().snapshot();
+        // alias is chosen for each key type of signature schemes offered by client
+        Assert.assertTrue(serverMetrics.getChooseServerAlias().getCount() >= 1);
+        Assert.assertEquals(Long.valueOf(1), serverMetrics.getAliasUsage().get("localhost"));
+        Assert.assertEquals(1, clientMetrics.getCheckServerTrusted().getCount());
+        Assert.assertEquals(1, server.getContextMetrics().getFullHandshakes());
+        Assert.assertEquals(1, client.getContextMetrics().getFullHandshakes());
+    }
+
+    @Test
+    public void shouldRecordFullAndResumedHandshakesOfSockets() throws Exception {
+        SSLConfiguration server = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name()))
+                .keyAlias("localhost")
+                .profile(TLSProfile.COMPATIBLE)
+                .metrics("socket-server")
+                .build();
+        SSLConfiguration client = socketClientConfiguration("socket-client");
+
+        try (SSLServerSocket serverSocket = (SSLServerSocket) server.getServerSocketFactory()
+                .createServerSocket(0, 10, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> accept(serverSocket, 2));
+            acceptor.start();
+
+            connect(client, serverSocket.getLocalPort());
+            connect(client, serverSocket.getLocalPort());
+            acceptor.join();
+        }
+
+        Assert.assertEquals(1, client.getContextMetrics().getFullHandshakes());
+        Assert.assertEquals(1, client.getContextMetrics().getResumedHandshakes());
+        Assert.assertEquals(1, server.getContextMetrics().getFullHandshakes());
+        Assert.assertEquals(1, server.getContextMetrics().getResumedHandshakes());
+    }
+
+    @Test
+    public void shouldNotCountConnectedSocketIdleBeforeHandshake() throws Exception {
+        SSLConfiguration server = serverConfiguration(TLSProfile.COMPATIBLE);
+        SSLConfiguration client = socketClientConfiguration("socket-idle-client");
+
+        try (SSLServerSocket serverSocket = (SSLServerSocket) server.getServerSocketFactory()
+                .createServerSocket(0, 10, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> accept(serverSocket, 1));
+            acceptor.start();
+
+            try (SSLSocket socket = (SSLSocket) client.getSocketFactory()
+                    .createSocket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+                Thread.sleep(1500);
+                socket.getOutputStream().write(1);
+                Assert.assertEquals(1, socket.getInputStream().read());
+            }
+            acceptor.join();
+        }
+
+        Assert.assertEquals(1, client.getContextMetrics().getFullHandshakes());
+        Assert.assertTrue(client.getContextMetrics().snapshot().getHandshake().getMax()
+                < TimeUnit.MILLISECONDS.toNanos(1500));
+    }
+
+    @Test
+    public void shouldSetSessionTicketsForJvmOnlyByExplicitCall() {
+        String server = System.getProperty(SSLConfiguration.SERVER_SESSION_TICKETS_PROPERTY);
+        String client = System.getProperty(SSLConfiguration.CLIENT_SESSION_TICKETS_PROPERTY);
+        try {
+            System.clearProperty(SSLConfiguration.SERVER_SESSION_TICKETS_PROPERTY);
+            System.clearProperty(SSLConfiguration.CLIENT_SESSION_TICKETS_PROPERTY);
+            Assert.assertNotNull(new SSLConfiguration.Builder().sessionCacheSize(10).build().createSSLContext());
+            Assert.assertNull(System.getProperty(SSLConfiguration.SERVER_SESSION_TICKETS_PROPERTY));
+
+            SSLConfiguration.setJvmSessionTickets(false);
+
+            Assert.assertEquals("false", System.getProperty(SSLConfiguration.SERVER_SESSION_TICKETS_PROPERTY));
+            Assert.assertEquals("false", System.getProperty(SSLConfiguration.CLIENT_SESSION_TICKETS_PROPERTY));
+        } finally {
+            restoreProperty(SSLConfiguration.SERVER_SESSION_TICKETS_PROPERTY, server);
+            restoreProperty(SSLConfiguration.CLIENT_SESSION_TICKETS_PROPERTY, client);
+        }
+    }
+
+    @Test
+    public void shouldSetNamedGroupsOnlyPerConnection() {
+        if (!ConnectionParameters.isNamedGroupsSupported()) {
+            try {
+                new SSLConfiguration.Builder().namedGroups("x25519");
+                Assert.fail("Named groups should be rejected when they cannot be set per connection");
+            } catch (UnsupportedOperationException ex) {
+                Assert.assertTrue(ex.getMessage().contains("jdk.tls.namedGroups"));
+            }
+            return;
+        }
+
+        SSLConfiguration configuration = new SSLConfiguration.Builder().namedGroups("x25519").build();
+        Assert.assertNotNull(configuration.createSSLEngine());
+        Assert.assertNull(System.getProperty("jdk.tls.namedGroups"));
+    }
+
+    private static void restoreProperty(String key, String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static void connect(SSLConfiguration client, int port) throws IOException {
+        try (SSLSocket socket = (SSLSocket) client.getSocketFactory()
+                .createSocket(InetAddress.getLoopbackAddress(), port)) {
+            socket.getOutputStream().write(1);
+            socket.getOutputStream().flush();
+            Assert.assertEquals(1, socket.getInputStream().read());
+        }
+    }
+
+    private static void accept(SSLServerSocket serverSocket, int connections) {
+        for (int i = 0; i < connections; i++) {
+            try (SSLSocket socket = (SSLSocket) serverSocket.accept()) {
+                socket.getInputStream().read();
+                socket.getOutputStream().write(1);
+                socket.getOutputStream().flush();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private static SSLConfiguration socketClientConfiguration(String metrics) {
+        return new SSLConfiguration.Builder()
+                .truststore(SSLKeystore.fromFile("src/test/resources/ssl/hosts-truststore.jks", "123456",
+                        KeyStoreType.JKS.name()))
+                .profile(TLSProfile.COMPATIBLE)
+                .metrics(metrics)
+                .build();
+    }
+
+    private static SSLConfiguration serverConfiguration(TLSProfile profile) {
+        return new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456", KeyStoreType.JKS.name()))
+                .keyAlias("localhost")
+                .profile(profile)
+                .build();
+    }
 }
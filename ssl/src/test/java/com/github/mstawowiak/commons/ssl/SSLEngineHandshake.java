@@ -0,0 +1,65 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.nio.ByteBuffer;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+
+/**
+ * In-memory handshake of client and server {@link SSLEngine} used by tests.
+ */
+final class SSLEngineHandshake {
+
+    private static final int BUFFER_SIZE = 1 << 17;
+    private static final int MAX_STEPS = 1000;
+
+    private SSLEngineHandshake() {
+    }
+
+    static void handshake(SSLEngine client, SSLEngine server) throws SSLException {
+        ByteBuffer clientToServer = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer serverToClient = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer clientApplication = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer serverApplication = ByteBuffer.allocate(BUFFER_SIZE);
+
+        client.beginHandshake();
+        server.beginHandshake();
+
+        for (int i = 0; i < MAX_STEPS; i++) {
+            if (isFinished(client) && isFinished(server)) {
+                return;
+            }
+            step(client, clientToServer, serverToClient, clientApplication);
+            step(server, serverToClient, clientToServer, serverApplication);
+        }
+        throw new SSLException("Handshake not finished after " + MAX_STEPS + " steps");
+    }
+
+    private static boolean isFinished(SSLEngine engine) {
+        HandshakeStatus status = engine.getHandshakeStatus();
+        return status == HandshakeStatus.NOT_HANDSHAKING || status == HandshakeStatus.FINISHED;
+    }
+
+    private static void step(SSLEngine engine, ByteBuffer out, ByteBuffer in, ByteBuffer application)
+            throws SSLException {
+        switch (engine.getHandshakeStatus()) {
+            case NEED_WRAP:
+                engine.wrap(ByteBuffer.allocate(0), out);
+                break;
+            case NEED_TASK:
+                Runnable task;
+                while ((task = engine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+                break;
+            case NOT_HANDSHAKING:
+            case FINISHED:
+                break;
+            default:
+                in.flip();
+                engine.unwrap(in, application);
+                in.compact();
+                break;
+        }
+    }
+}
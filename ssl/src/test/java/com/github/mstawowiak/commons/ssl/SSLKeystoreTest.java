@@ -1,8 +1,15 @@
 package com.github.mstawowiak.commons.ssl;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLEngine;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -58,4 +65,106 @@ public class SSLKeystoreTest {
         Assert.assertEquals("RSA", truststore.getKeyStore().getCertificate(alias).getPublicKey().getAlgorithm());
     }
 
+    @Test
+    public void shouldReadKeystoreFromBytes() throws IOException, KeyStoreException {
+        byte[] content = Files.readAllBytes(Paths.get("src/test/resources/ssl/keystore.jks"));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+
+        SSLKeystore keystore = SSLKeystore.fromBytes(buffer, "123456", KeyStoreType.JKS.name());
+
+        Assert.assertNull(keystore.getPath());
+        Assert.assertTrue(keystore.getKeyStore().isKeyEntry("mykey"));
+        Assert.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void shouldReadKeystoreFromMappedFile() throws KeyStoreException {
+        String path = "src/test/resources/ssl/keystore.jks";
+
+        SSLKeystore keystore = SSLKeystore.fromMappedFile(path, "123456", KeyStoreType.JKS.name());
+
+        Assert.assertEquals(path, keystore.getPath());
+        Assert.assertTrue(keystore.getKeyStore().isKeyEntry("mykey"));
+    }
+
+    @Test
+    public void shouldReadKeystoreFromPem() throws Exception {
+        String chain = pem("localhost.pem");
+
+        for (String key : new String[] {"localhost-key.pem", "localhost-rsa-key.pem", "localhost-encrypted-key.pem"}) {
+            SSLKeystore keystore = SSLKeystore.fromPem("localhost", pem(key), chain, "123456");
+
+            Assert.assertEquals(KeyStoreType.PKCS12.name(), keystore.getType());
+            Assert.assertTrue(keystore.getKeyStore().isKeyEntry("localhost"));
+            Assert.assertEquals("RSA",
+                    keystore.getKeyStore().getKey("localhost", keystore.getPassword()).getAlgorithm());
+            X509Certificate certificate = (X509Certificate) keystore.getKeyStore().getCertificate("localhost");
+            Assert.assertEquals("CN=localhost,O=Example", certificate.getSubjectX500Principal().getName());
+        }
+    }
+
+    @Test(expected = SSLConfigurationException.class)
+    public void shouldFailForEncryptedPemKeyWithWrongPassword() throws IOException {
+        SSLKeystore.fromPem("localhost", pem("localhost-encrypted-key.pem"), pem("localhost.pem"), "wrong");
+    }
+
+    @Test
+    public void shouldHandshakeWithPemKeystoreAndTruststore() throws Exception {
+        SSLConfiguration server = new SSLConfiguration.Builder()
+                .keystore(SSLKeystore.fromPem("localhost", pem("localhost-key.pem"), pem("localhost.pem"), "123456"))
+                .build();
+        SSLConfiguration client = new SSLConfiguration.Builder()
+                .truststore(SSLKeystore.fromPemCertificates(pem("localhost.pem")))
+                .build();
+
+        SSLEngine serverEngine = server.createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        SSLEngine clientEngine = client.createSSLEngine("localhost", 443);
+        clientEngine.setUseClientMode(true);
+
+        SSLEngineHandshake.handshake(clientEngine, serverEngine);
+
+        Assert.assertTrue(clientEngine.getSession().isValid());
+    }
+
+    @Test
+    public void shouldSnapshotDiagnosticsOnce() {
+        SSLKeystore keystore = SSLKeystore.fromFile("src/test/resources/ssl/hosts.jks", "123456",
+                KeyStoreType.JKS.name());
+
+        KeystoreDiagnostics diagnostics = keystore.getDiagnostics();
+
+        Assert.assertSame(diagnostics, keystore.getDiagnostics());
+        Assert.assertEquals(4, diagnostics.getAliasCount());
+        Assert.assertEquals(4, diagnostics.getKeyEntryCount());
+        Assert.assertEquals(0, diagnostics.getCertificateEntryCount());
+        Assert.assertEquals("localhost", diagnostics.getEntries().get(0).getAlias());
+        Assert.assertEquals(KeystoreDiagnostics.EntryType.PRIVATE_KEY,
+                diagnostics.getEntries().get(0).getEntryType());
+        Assert.assertEquals("EC", diagnostics.getEntries().get(2).getKeyType());
+        Assert.assertNotNull(diagnostics.getEarliestExpiring().getNotAfter());
+    }
+
+    @Test
+    public void shouldSnapshotDiagnosticsAgainAfterReload() throws Exception {
+        SSLKeystore truststore = SSLKeystore.fromFile("src/test/resources/ssl/upstream-truststore.jks", "123456",
+                KeyStoreType.JKS.name());
+        KeystoreDiagnostics diagnostics = truststore.getDiagnostics();
+
+        X509Certificate root = (X509Certificate) truststore.getKeyStore().getCertificate("root");
+        Assert.assertEquals(1, diagnostics.getCertificateEntryCount());
+        Assert.assertEquals(KeystoreDiagnostics.EntryType.TRUSTED_CERTIFICATE,
+                diagnostics.getEntries().get(0).getEntryType());
+        Assert.assertEquals(root.getNotAfter().toInstant(), diagnostics.getEntries().get(0).getNotAfter());
+
+        truststore.reload();
+
+        Assert.assertNotSame(diagnostics, truststore.getDiagnostics());
+        Assert.assertEquals(1, truststore.getDiagnostics().getAliasCount());
+    }
+
+    private static String pem(String name) throws IOException {
+        return new String(Files.readAllBytes(Paths.get("src/test/resources/ssl", name)), StandardCharsets.US_ASCII);
+    }
 }
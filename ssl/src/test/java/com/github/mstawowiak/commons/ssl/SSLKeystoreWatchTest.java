@@ -0,0 +1,154 @@
+package com.github.mstawowiak.commons.ssl;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.TrustManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SSLKeystore#watchFile(String, String, String)}
+ */
+public class SSLKeystoreWatchTest {
+
+    private static final Path KEYSTORE = Paths.get("src/test/resources/ssl/keystore.jks");
+    private static final Path TRUSTSTORE = Paths.get("src/test/resources/ssl/truststore.jks");
+    private static final String PASSWORD = "123456";
+    private static final String ALIAS = "mykey";
+
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ssl-watch");
+        file = directory.resolve("keystore.jks");
+        Files.copy(KEYSTORE, file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void shouldSwapKeyManagerWhenKeystoreFileChanges() throws Exception {
+        SSLKeystore keystore = SSLKeystore.watchFile(file.toString(), PASSWORD, KeyStoreType.JKS.name());
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .keystore(keystore)
+                .keyAlias(ALIAS)
+                .build();
+
+        KeyManager[] keyManagers = sslConfiguration.createKeyManagers();
+        AliasSelectorKeyManager keyManager = (AliasSelectorKeyManager) keyManagers[0];
+        Assert.assertTrue(keystore.isWatched());
+        Assert.assertNotNull(keyManager.getPrivateKey(ALIAS));
+
+        Files.copy(TRUSTSTORE, file, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (keyManager.getPrivateKey(ALIAS) != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Assert.assertNull(keyManager.getPrivateKey(ALIAS));
+        Assert.assertFalse(keystore.getKeyStore().isKeyEntry(ALIAS));
+    }
+
+    @Test
+    public void shouldWatchDirectoryAgainAfterItWasDeleted() throws Exception {
+        SSLKeystore.watchFile(file.toString(), PASSWORD, KeyStoreType.JKS.name());
+        Assert.assertTrue(KeystoreFileWatcher.isWatching(directory));
+
+        Files.delete(file);
+        Files.delete(directory);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (KeystoreFileWatcher.isWatching(directory) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertFalse(KeystoreFileWatcher.isWatching(directory));
+
+        Files.createDirectory(directory);
+        Files.copy(KEYSTORE, file);
+        CompletableFuture<RuntimeException> failure = new CompletableFuture<>();
+        SSLKeystore keystore = SSLKeystore.watchFile(file.toString(), PASSWORD, KeyStoreType.JKS.name(),
+                failure::complete);
+        Assert.assertTrue(KeystoreFileWatcher.isWatching(directory));
+
+        Files.write(file, new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        Assert.assertTrue(failure.get(10, TimeUnit.SECONDS) instanceof SSLConfigurationException);
+        Assert.assertTrue(keystore.getKeyStore().isKeyEntry(ALIAS));
+    }
+
+    @Test
+    public void shouldWrapTrustManagersOfWatchedTruststore() {
+        SSLKeystore truststore = SSLKeystore.watchFile(file.toString(), PASSWORD, KeyStoreType.JKS.name());
+        SSLConfiguration sslConfiguration = new SSLConfiguration.Builder()
+                .truststore(truststore)
+                .build();
+
+        TrustManager[] trustManagers = sslConfiguration.createTrustManagers();
+        truststore.reload();
+
+        Assert.assertTrue(trustManagers[0] instanceof ReloadableTrustManager);
+        Assert.assertNotNull(((ReloadableTrustManager) trustManagers[0]).getAcceptedIssuers());
+    }
+
+    @Test
+    public void shouldKeepPreviousKeystoreWhenFileCannotBeParsed() throws IOException, KeyStoreException {
+        SSLKeystore keystore = SSLKeystore.fromFile(file.toString(), PASSWORD, KeyStoreType.JKS.name());
+        KeyStore keyStore = keystore.getKeyStore();
+
+        Files.write(file, new byte[] {1, 2, 3});
+        try {
+            keystore.reload();
+            Assert.fail("Broken keystore should not be loaded");
+        } catch (SSLConfigurationException ex) {
+            Assert.assertSame(keyStore, keystore.getKeyStore());
+            Assert.assertTrue(keystore.getKeyStore().isKeyEntry(ALIAS));
+        }
+    }
+
+    @Test
+    public void shouldPassReloadFailureToHandler() throws Exception {
+        CompletableFuture<RuntimeException> failure = new CompletableFuture<>();
+        SSLKeystore keystore = SSLKeystore.watchFile(file.toString(), PASSWORD, KeyStoreType.JKS.name(),
+                failure::complete);
+        KeyStore keyStore = keystore.getKeyStore();
+
+        Files.write(file, new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        Assert.assertTrue(failure.get(10, TimeUnit.SECONDS) instanceof SSLConfigurationException);
+        Assert.assertSame(keyStore, keystore.getKeyStore());
+    }
+
+    @Test
+    public void shouldNotKeepUnusedWatchedKeystoreReachable() throws InterruptedException {
+        WeakReference<SSLKeystore> keystore =
+                new WeakReference<>(SSLKeystore.watchFile(file.toString(), PASSWORD, KeyStoreType.JKS.name()));
+
+        for (int i = 0; i < 50 && keystore.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        Assert.assertNull(keystore.get());
+    }
+}
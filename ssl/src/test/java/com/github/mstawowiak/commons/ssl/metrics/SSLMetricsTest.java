@@ -0,0 +1,65 @@
+package com.github.mstawowiak.commons.ssl.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SSLMetrics}
+ */
+public class SSLMetricsTest {
+
+    @Test
+    public void shouldRecordLatenciesHandshakesAndAliases() {
+        SSLContextMetrics metrics = new SSLMetrics().getContextMetrics("test");
+
+        metrics.recordChooseServerAlias(TimeUnit.MICROSECONDS.toNanos(10), "server");
+        metrics.recordChooseServerAlias(TimeUnit.MICROSECONDS.toNanos(20), "server");
+        metrics.recordChooseClientAlias(100, null);
+        metrics.recordCheckServerTrusted(TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.recordHandshake(TimeUnit.MILLISECONDS.toNanos(5), false);
+        metrics.recordHandshake(TimeUnit.MILLISECONDS.toNanos(1), true);
+        metrics.recordHandshake(TimeUnit.MILLISECONDS.toNanos(1), true);
+
+        SSLContextMetricsSnapshot snapshot = metrics.snapshot();
+
+        Assert.assertEquals("test", snapshot.getName());
+        Assert.assertEquals(2, snapshot.getChooseServerAlias().getCount());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(20), snapshot.getChooseServerAlias().getMax());
+        Assert.assertEquals(1, snapshot.getChooseClientAlias().getCount());
+        Assert.assertEquals(1, snapshot.getCheckServerTrusted().getCount());
+        Assert.assertEquals(0, snapshot.getCheckClientTrusted().getCount());
+        Assert.assertEquals(1, snapshot.getFullHandshakes());
+        Assert.assertEquals(2, snapshot.getResumedHandshakes());
+        Assert.assertEquals(1, snapshot.getHandshake().getCount());
+        Assert.assertEquals(Long.valueOf(2), snapshot.getAliasUsage().get("server"));
+        Assert.assertEquals(1, snapshot.getAliasUsage().size());
+    }
+
+    @Test
+    public void shouldSumHandshakesOfContexts() {
+        SSLMetrics registry = new SSLMetrics();
+        registry.getContextMetrics("a").recordHandshake(1, false);
+        registry.getContextMetrics("b").recordHandshake(1, false);
+        registry.getContextMetrics("b").recordHandshake(1, true);
+
+        Assert.assertSame(registry.getContextMetrics("a"), registry.getContextMetrics("a"));
+        Assert.assertEquals(2, registry.getFullHandshakes());
+        Assert.assertEquals(1, registry.getResumedHandshakes());
+        Assert.assertEquals("a", registry.getContexts().get(0).getName());
+    }
+
+    @Test
+    public void shouldRegisterGlobalMetricsInJmx() throws Exception {
+        SSLMetrics.global().getContextMetrics("jmx").recordHandshake(1, false);
+
+        Object contexts = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(SSLMetrics.OBJECT_NAME), "Contexts");
+
+        Assert.assertNotNull(contexts);
+        Assert.assertTrue(SSLMetrics.global().isRegistered());
+        Assert.assertFalse(new SSLMetrics().isRegistered());
+    }
+}